@@ -1,51 +1,67 @@
 package org.example.config;
 
 import feign.RequestInterceptor;
+import org.example.service.security.OAuth2AccessTokenCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
-import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.endpoint.DefaultClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableFeignClients(basePackages = "org.example.repository")
 public class FeignClientConfig {
 
-    @Value("${spring.security.oauth2.client.registration.keycloak-user-service.client-id}")
-    private String clientIdUserService;
+    // Should be shorter than a token lifetime, but long enough to get a new token before the current one expires
+    @Value("${oauth2-token-cache.refresh-ahead-seconds:60}")
+    private long tokenRefreshAheadSeconds;
 
-    @Value("${spring.security.oauth2.client.registration.keycloak-product-service.client-id}")
-    private String clientIdProductService;
+    /**
+     * Tokens of the remote services are received with client credentials directly from the token endpoint,
+     * so they are not bound to HTTP sessions of users and are shared by all requests
+     */
+    @Bean
+    public OAuth2AccessTokenCache oauth2AccessTokenCache(ClientRegistrationRepository clientRegistrationRepository) {
+        var tokenResponseClient = new DefaultClientCredentialsTokenResponseClient();
+        return new OAuth2AccessTokenCache(
+                registrationId -> {
+                    var clientRegistration = clientRegistrationRepository.findByRegistrationId(registrationId);
+                    if (clientRegistration == null) {
+                        throw new IllegalArgumentException("Client registration '" + registrationId + "' not found");
+                    }
+                    return tokenResponseClient
+                            .getTokenResponse(new OAuth2ClientCredentialsGrantRequest(clientRegistration))
+                            .getAccessToken();
+                },
+                Duration.ofSeconds(tokenRefreshAheadSeconds),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("oauth2-token-refresh-", 0).factory()),
+                Clock.systemUTC()
+        );
+    }
 
     @Bean
     @ConditionalOnProperty(name = "user-service.enabled", havingValue = "true", matchIfMissing = true)
-    public RequestInterceptor oauth2FeignRequestInterceptorUserService(OAuth2AuthorizedClientManager clientManager) {
-        return requestTemplate -> {
-            var authorizedClient = clientManager.authorize(
-                    OAuth2AuthorizeRequest.withClientRegistrationId("keycloak-user-service")
-                            .principal(clientIdUserService)
-                            .build()
-            );
-            if (authorizedClient != null) {
-                var accessToken = authorizedClient.getAccessToken().getTokenValue();
-                requestTemplate.header("Authorization", "Bearer " + accessToken);
-            }
-        };
+    public RequestInterceptor oauth2FeignRequestInterceptorUserService(OAuth2AccessTokenCache tokenCache) {
+        return oauth2FeignRequestInterceptor(tokenCache, "keycloak-user-service");
     }
 
     @Bean
     @ConditionalOnProperty(name = "product-service.enabled", havingValue = "true", matchIfMissing = true)
-    public RequestInterceptor oauth2FeignRequestInterceptorProductService(OAuth2AuthorizedClientManager clientManager) {
+    public RequestInterceptor oauth2FeignRequestInterceptorProductService(OAuth2AccessTokenCache tokenCache) {
+        return oauth2FeignRequestInterceptor(tokenCache, "keycloak-product-service");
+    }
+
+    private static RequestInterceptor oauth2FeignRequestInterceptor(OAuth2AccessTokenCache tokenCache, String registrationId) {
         return requestTemplate -> {
-            var authorizedClient = clientManager.authorize(
-                    OAuth2AuthorizeRequest.withClientRegistrationId("keycloak-product-service")
-                            .principal(clientIdProductService)
-                            .build()
-            );
-            if (authorizedClient != null) {
-                var accessToken = authorizedClient.getAccessToken().getTokenValue();
+            var accessToken = tokenCache.getTokenValue(registrationId);
+            if (accessToken != null) {
                 requestTemplate.header("Authorization", "Bearer " + accessToken);
             }
         };
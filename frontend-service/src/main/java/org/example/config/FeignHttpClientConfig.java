@@ -0,0 +1,79 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Connection pool of the Apache HttpClient 5 used by the Feign clients
+ * (created by Spring Cloud OpenFeign, configured with "spring.cloud.openfeign.httpclient.*").
+ * Here the pool gets per-route limits for the downstream services and its metrics are exported.
+ * The limits are enforced only by the STRICT pool ("pool-concurrency-policy: strict"), the LAX one ignores the total.
+ */
+@Configuration
+@Slf4j
+public class FeignHttpClientConfig {
+
+    @Value("${user-service.url:}")
+    private String userServiceUrl;
+
+    @Value("${user-service.http-client.max-connections-per-route:0}")
+    private int userServiceMaxConnections;
+
+    @Value("${product-service.url:}")
+    private String productServiceUrl;
+
+    @Value("${product-service.http-client.max-connections-per-route:0}")
+    private int productServiceMaxConnections;
+
+    // Runs once all singletons are created, before the web server accepts requests
+    @Bean
+    public SmartInitializingSingleton feignConnectionPoolRouteLimits(ObjectProvider<HttpClientConnectionManager> connectionManagerProvider) {
+        return () -> {
+            // Absent if the Apache HttpClient is disabled ("spring.cloud.openfeign.httpclient.hc5.enabled")
+            if (connectionManagerProvider.getIfAvailable() instanceof PoolingHttpClientConnectionManager poolingConnectionManager) {
+                setMaxConnectionsPerRoute(poolingConnectionManager, userServiceUrl, userServiceMaxConnections);
+                setMaxConnectionsPerRoute(poolingConnectionManager, productServiceUrl, productServiceMaxConnections);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManagerProvider) {
+        if (!(connectionManagerProvider.getIfAvailable() instanceof PoolingHttpClientConnectionManager poolingConnectionManager)) {
+            return registry -> {};
+        }
+        // httpcomponents.httpclient.pool.* meters tagged with httpclient=feign
+        return new PoolingHttpClientConnectionManagerMetricsBinder(poolingConnectionManager, "feign");
+    }
+
+    // 0 - the default limit per route ("spring.cloud.openfeign.httpclient.max-connections-per-route") is used
+    private static void setMaxConnectionsPerRoute(PoolingHttpClientConnectionManager connectionManager,
+                                                  String serviceUrl, int maxConnections) {
+        if (maxConnections <= 0 || serviceUrl.isEmpty()) {
+            return;
+        }
+        try {
+            var uri = new URI(serviceUrl);
+            var secure = "https".equalsIgnoreCase(uri.getScheme());
+            // Routes of the pool have explicit ports
+            var port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+            var route = new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+            connectionManager.setMaxPerRoute(route, maxConnections);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            log.error("Unable to set max connections for url '{}'", serviceUrl, e);
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package org.example.config;
 
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
 import org.example.grpc.GrpcReviewServiceGrpc;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class GRPCClientConfig {
 
@@ -15,14 +23,39 @@ public class GRPCClientConfig {
     @Value("${review-service.grpc.port}")
     private int port;
 
+    // Calls without a deadline would wait for a stalled review-service forever
+    @Value("${review-service.grpc.deadline-ms:5000}")
+    private long deadlineMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
     @Bean
     public GrpcReviewServiceGrpc.GrpcReviewServiceBlockingStub blockingStub() {
 
-        var channel = ManagedChannelBuilder
+        var channelBuilder = ManagedChannelBuilder
                 .forAddress(grpcHost, port)
                 .usePlaintext()
-                .build();
+                .intercept(deadlineInterceptor(deadlineMs));
+        if (virtualThreadsEnabled) {
+            // Application callbacks of the channel run on virtual threads instead of the default cached thread pool
+            channelBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        var channel = channelBuilder.build();
 
         return GrpcReviewServiceGrpc.newBlockingStub(channel);
     }
+
+    private static ClientInterceptor deadlineInterceptor(long deadlineMs) {
+        return new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                       CallOptions callOptions, Channel next) {
+                if (callOptions.getDeadline() == null) {
+                    callOptions = callOptions.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+                }
+                return next.newCall(method, callOptions);
+            }
+        };
+    }
 }
@@ -1,20 +1,113 @@
 package org.example.config;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import lombok.AccessLevel;
 import lombok.Setter;
 import org.example.service.notification.NotificationService;
+import org.example.service.notification.NotificationsThrottle;
+import org.slf4j.Marker;
 
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forwards log events to the NotificationService.
+ * Runs on the logging thread, so it does no locking (unlike "AppenderBase") and no blocking:
+ * events are filtered first (level, logger, marker), then throttled (deduplication and rate limit),
+ * and only then handed off to the notification sender, which just buffers them.
+ * Recursive calls (logging inside of the notification sending) are ignored by "UnsynchronizedAppenderBase".
+ * All the properties can be set in "logback-spring.xml"
+ */
 @Setter
-public class NotificationAppender extends AppenderBase<ILoggingEvent> {
+public class NotificationAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 
     private NotificationService notificationService;
 
+    private String minLevel = "WARN";
+
+    // Comma-separated logger name prefixes (empty - all loggers)
+    private String includedLoggers = "";
+
+    // Comma-separated logger name prefixes, by default - loggers of Kafka itself (to avoid a feedback loop)
+    private String excludedLoggers = "org.apache.kafka,org.springframework.kafka";
+
+    // Comma-separated marker names, only events with one of them are sent (empty - events with any marker or without)
+    private String markers = "";
+
+    private long deduplicationWindowMs = 60_000;
+    private int maxPerSecond = 50;
+    private int maxTrackedMessages = 10_000;
+
+    @Setter(AccessLevel.NONE)
+    private Level level;
+    @Setter(AccessLevel.NONE)
+    private List<String> includedLoggerPrefixes;
+    @Setter(AccessLevel.NONE)
+    private List<String> excludedLoggerPrefixes;
+    @Setter(AccessLevel.NONE)
+    private List<String> markerNames;
+    @Setter(AccessLevel.NONE)
+    private NotificationsThrottle throttle;
+
+    @Override
+    public void start() {
+        this.level = Level.toLevel(minLevel, Level.WARN);
+        this.includedLoggerPrefixes = splitByComma(includedLoggers);
+        this.excludedLoggerPrefixes = splitByComma(excludedLoggers);
+        this.markerNames = splitByComma(markers);
+        this.throttle = new NotificationsThrottle(deduplicationWindowMs, maxPerSecond, maxTrackedMessages);
+        super.start();
+    }
+
     @Override
     protected void append(ILoggingEvent eventObject) {
+
+        var service = this.notificationService;
+        if (service == null || !isAccepted(eventObject)) {
+            return;
+        }
+
         String logMessage = eventObject.getFormattedMessage();
-        if (this.notificationService != null) {
-            this.notificationService.sendNotification(logMessage);
+        if (!throttle.tryAcquire(logMessage)) {
+            return;
+        }
+
+        service.sendNotification(eventObject.getLoggerName(), logMessage);
+    }
+
+    private boolean isAccepted(ILoggingEvent eventObject) {
+
+        if (!eventObject.getLevel().isGreaterOrEqual(level)) {
+            return false;
+        }
+
+        var loggerName = eventObject.getLoggerName();
+        if (!includedLoggerPrefixes.isEmpty()
+                && includedLoggerPrefixes.stream().noneMatch(loggerName::startsWith)) {
+            return false;
+        }
+        if (excludedLoggerPrefixes.stream().anyMatch(loggerName::startsWith)) {
+            return false;
+        }
+
+        if (markerNames.isEmpty()) {
+            return true;
+        }
+        var eventMarkers = eventObject.getMarkerList();
+        return eventMarkers != null && eventMarkers.stream()
+                .map(Marker::getName)
+                .anyMatch(markerNames::contains);
+    }
+
+    private static List<String> splitByComma(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
         }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toList();
     }
 }
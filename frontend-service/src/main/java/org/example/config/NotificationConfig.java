@@ -0,0 +1,47 @@
+package org.example.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.example.service.notification.Notification;
+import org.example.service.notification.NotificationsBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class NotificationConfig {
+
+    @Value("${notification-service.buffer.capacity:4096}")
+    private int bufferCapacity;
+
+    @Value("${notification-service.buffer.overflow-policy:DROP_OLDEST}")
+    private NotificationsBuffer.OverflowPolicy overflowPolicy;
+
+    @Value("${notification-service.buffer.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${notification-service.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${notification-service.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${notification-service.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Bean
+    public NotificationsBuffer<Notification> notificationsBuffer() {
+        return new NotificationsBuffer<>(bufferCapacity, overflowPolicy, sampleRate);
+    }
+
+    // Notifications are sent without flushing, so the producer can group them into compressed batches
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer notificationsProducerFactoryCustomizer() {
+        return producerFactory -> producerFactory.updateConfigs(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType));
+    }
+}
@@ -1,8 +1,11 @@
 package org.example.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.controller.converter.ModelsLookupCache;
+import org.example.controller.page.CompositePageAssembler;
 import org.example.exception.NotFoundException;
 import org.example.model.products.Product;
+import org.example.model.reviews.ProductAndRatingInfo;
 import org.example.model.users.User;
 import org.example.service.orders.OrderService;
 import org.example.service.products.ProductService;
@@ -11,6 +14,8 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collections;
+
 @Controller
 @RequestMapping("/products")
 @RequiredArgsConstructor
@@ -19,11 +24,15 @@ public class ProductController {
     private final ProductService productService;
     private final ReviewService reviewService;
     private final OrderService orderService;
+    private final ModelsLookupCache modelsLookupCache;
+    private final CompositePageAssembler compositePageAssembler;
 
     @GetMapping
-    public String getAll(Model model) {
-        var products = productService.getAll();
-        model.addAttribute("products", products);
+    public String getAll(Model model, @RequestParam(name = "cursor", required = false) String cursor) {
+        var page = productService.getPage(cursor);
+        model.addAttribute("products", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("prevCursor", page.getPrevCursor());
         return "products/products";
     }
 
@@ -34,8 +43,10 @@ public class ProductController {
             throw new NotFoundException(String.format("Product with id=%s not found", id));
         }
         model.addAttribute("product", product);
-        model.addAttribute("orders", orderService.getAllByProduct(product));
-        model.addAttribute("productAndRatingInfo", reviewService.getRatingInfoOfProduct(product));
+        compositePageAssembler.newPage()
+                .section("orders", () -> orderService.getAllByProduct(product), Collections::emptyList)
+                .section("productAndRatingInfo", () -> reviewService.getRatingInfoOfProduct(product), ProductAndRatingInfo::new)
+                .addTo(model);
         return "products/product";
     }
 
@@ -77,12 +88,14 @@ public class ProductController {
     @PatchMapping("/{id}")
     public String update(@PathVariable Long id, @ModelAttribute Product product) {
         productService.update(id, product);
+        modelsLookupCache.evictProducts();
         return "redirect:/products/" + id;
     }
 
     @DeleteMapping("/{id}")
     public String deleteById(@PathVariable Long id) {
         productService.deleteById(id);
+        modelsLookupCache.evictProducts();
         return "redirect:/products";
     }
 
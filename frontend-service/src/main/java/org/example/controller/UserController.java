@@ -1,6 +1,10 @@
 package org.example.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.example.controller.controllerAdvice.CurrentUserSessionCache;
+import org.example.controller.converter.ModelsLookupCache;
+import org.example.controller.page.CompositePageAssembler;
 import org.example.exception.NotFoundException;
 import org.example.model.users.User;
 import org.example.service.orders.OrderService;
@@ -11,16 +15,21 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collections;
+
 @Controller
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final CurrentUserSessionCache currentUserSessionCache;
+    private final ModelsLookupCache modelsLookupCache;
 
     private final ProductService productService;
     private final OrderService orderService;
     private final ReviewService reviewService;
+    private final CompositePageAssembler compositePageAssembler;
 
     @GetMapping
     public String getAll(Model model) {
@@ -36,9 +45,11 @@ public class UserController {
             throw new NotFoundException(String.format("User '%s' not found", idOrUsername));
         }
         model.addAttribute("user", user);
-        model.addAttribute("products", productService.getAll(null, null, user));
-        model.addAttribute("orders", orderService.getAllByUser(user));
-        model.addAttribute("reviews", reviewService.getAllByUser(user));
+        compositePageAssembler.newPage()
+                .section("products", () -> productService.getAll(null, null, user), Collections::emptyList)
+                .section("orders", () -> orderService.getAllByUser(user), Collections::emptyList)
+                .section("reviews", () -> reviewService.getAllByUser(user), Collections::emptyList)
+                .addTo(model);
         return "users/user";
     }
 
@@ -66,14 +77,18 @@ public class UserController {
     }
 
     @PatchMapping("/{id}")
-    public String update(@PathVariable Long id, @ModelAttribute User user) {
+    public String update(@PathVariable Long id, @ModelAttribute User user, HttpServletRequest request) {
         userService.update(id, user);
+        currentUserSessionCache.evict(request);
+        modelsLookupCache.evictUsers();
         return "redirect:/users/" + id;
     }
 
     @DeleteMapping("/{id}")
-    public String deleteById(@PathVariable Long id) {
+    public String deleteById(@PathVariable Long id, HttpServletRequest request) {
         userService.deleteById(id);
+        currentUserSessionCache.evict(request);
+        modelsLookupCache.evictUsers();
         return "redirect:/auth/logout";
     }
 
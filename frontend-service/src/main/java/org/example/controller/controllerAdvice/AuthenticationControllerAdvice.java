@@ -1,5 +1,6 @@
 package org.example.controller.controllerAdvice;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,9 +18,14 @@ import java.util.Objects;
 public class AuthenticationControllerAdvice {
 
     private final UserService userService;
+    private final CurrentUserSessionCache currentUserSessionCache;
 
+    /**
+     * Runs on every request, so the resolved user is kept in the session ({@link CurrentUserSessionCache})
+     * and the user-service is requested only on the first request of the session
+     */
     @ModelAttribute("currentUser")
-    public User getCurrentUser(Principal principal) {
+    public User getCurrentUser(Principal principal, HttpServletRequest request) {
 
         if (principal == null) {
             return null;
@@ -30,13 +36,18 @@ public class AuthenticationControllerAdvice {
             return null;
         }
 
-        var user = userService.getByUsername(username);
-        if (user != null) {
-            return user;
+        var cachedUser = currentUserSessionCache.get(request, username);
+        if (cachedUser != null) {
+            return cachedUser;
         }
 
-        log.warn("Principal with username '{}' not found, trying to create new user. (Principal: {}", username, principal);
-        return createUserFromPrincipal(principal);
+        var user = userService.getByUsername(username);
+        if (user == null) {
+            log.warn("Principal with username '{}' not found, trying to create new user. (Principal: {}", username, principal);
+            user = createUserFromPrincipal(principal);
+        }
+        currentUserSessionCache.put(request, user);
+        return user;
     }
 
     private User createUserFromPrincipal(@NotNull Principal principal) {
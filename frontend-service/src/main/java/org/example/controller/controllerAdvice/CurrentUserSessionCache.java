@@ -0,0 +1,46 @@
+package org.example.controller.controllerAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.model.users.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the user resolved for the principal in the HTTP session,
+ * so the user-service is requested once per session instead of on every request
+ */
+@Component
+public class CurrentUserSessionCache {
+
+    static final String SESSION_ATTRIBUTE = CurrentUserSessionCache.class.getName() + ".currentUser";
+
+    public User get(HttpServletRequest request, String username) {
+        var session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        // The principal can change within the same session, the user is valid only for the principal it was resolved for
+        if (session.getAttribute(SESSION_ATTRIBUTE) instanceof User user && username.equals(user.getUsername())) {
+            return copyOf(user);
+        }
+        return null;
+    }
+
+    public void put(HttpServletRequest request, User user) {
+        var session = request.getSession(false);
+        if (session != null && user != null) {
+            session.setAttribute(SESSION_ATTRIBUTE, copyOf(user));
+        }
+    }
+
+    public void evict(HttpServletRequest request) {
+        var session = request.getSession(false);
+        if (session != null) {
+            session.removeAttribute(SESSION_ATTRIBUTE);
+        }
+    }
+
+    // Users are mutable, so the session keeps its own copy
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getUsername());
+    }
+}
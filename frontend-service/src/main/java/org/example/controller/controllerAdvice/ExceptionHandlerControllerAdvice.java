@@ -1,6 +1,7 @@
 package org.example.controller.controllerAdvice;
 
 import org.example.exception.NotFoundException;
+import org.example.exception.RemoteServiceUnavailableException;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +25,14 @@ public class ExceptionHandlerControllerAdvice {
         return "error";
     }
 
+    @ExceptionHandler(RemoteServiceUnavailableException.class)
+    String handleRemoteServiceUnavailableException(RemoteServiceUnavailableException e, Model model) {
+        var message = getMessageFromException(e);
+        model.addAttribute("title", e.getTitle());
+        model.addAttribute("message", message);
+        return "error";
+    }
+
     private String getMessageFromException(Exception e) {
         var message = e.getMessage();
         if (message != null && !message.isEmpty()) {
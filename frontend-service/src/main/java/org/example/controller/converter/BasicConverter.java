@@ -22,6 +22,12 @@ public class BasicConverter {
         return null;
     }
 
+    // Id from the unique view of a model, or the string itself is an id
+    protected Long readIdFromUniqueViewOrString(Pattern pattern, String str) {
+        var id = readIdFromStringByPattern(pattern, str);
+        return id != null ? id : stringToLong(str);
+    }
+
     protected Long stringToLong(String str) {
         try {
             return Long.parseLong(str);
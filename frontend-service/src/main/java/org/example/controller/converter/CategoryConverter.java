@@ -4,7 +4,6 @@ import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.products.Category;
-import org.example.repository.products.ProductRepository;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
@@ -13,7 +12,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class CategoryConverter implements Converter<String, Category> {
 
-    private final ProductRepository productRepository;
+    private final ModelsLookupCache modelsLookupCache;
 
     @Override
     public Category convert(@Nullable String source) {
@@ -24,7 +23,7 @@ public class CategoryConverter implements Converter<String, Category> {
 
         log.info("Converting category by name '{}' to object", source);
 
-        var categoryFound = productRepository.getCategoryByName(source);
+        var categoryFound = modelsLookupCache.getCategoryByName(source);
         if (categoryFound != null) {
             log.info("Category with name '{}' exits - {}", source, categoryFound);
             return categoryFound;
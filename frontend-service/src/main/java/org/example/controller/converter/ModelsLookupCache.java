@@ -0,0 +1,138 @@
+package org.example.controller.converter;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.products.Category;
+import org.example.model.products.Product;
+import org.example.model.users.User;
+import org.example.repository.LookupCache;
+import org.example.repository.products.ProductRepository;
+import org.example.repository.users.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Models referenced by request parameters (ids, names, usernames), shared by the converters.
+ * A model is requested from the remote service once per TTL.
+ * The cache keeps its own copies of the models and returns a new copy on every hit,
+ * so a request binding or modifying a model doesn't affect the other requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModelsLookupCache {
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+
+    // Short, because the models are not revalidated (0 - caching is disabled)
+    @Value("${converters.lookup-cache.ttl-seconds:10}")
+    private long ttlSeconds;
+
+    @Value("${converters.lookup-cache.max-size:1000}")
+    private int maxSize;
+
+    private LookupCache<Long, Product> productsById;
+    private LookupCache<String, List<Product>> productsByName;
+    private LookupCache<Long, User> usersById;
+    private LookupCache<String, User> usersByUsername;
+    private LookupCache<String, Category> categoriesByName;
+
+    @PostConstruct
+    void initCaches() {
+        var ttl = Duration.ofSeconds(ttlSeconds);
+        var clock = Clock.systemUTC();
+        productsById = new LookupCache<>(ttl, maxSize, clock);
+        productsByName = new LookupCache<>(ttl, maxSize, clock);
+        usersById = new LookupCache<>(ttl, maxSize, clock);
+        usersByUsername = new LookupCache<>(ttl, maxSize, clock);
+        categoriesByName = new LookupCache<>(ttl, maxSize, clock);
+    }
+
+    public Product getProductById(Long id) {
+        return getOrLoad(productsById, id, productRepository::getById, ModelsLookupCache::copyOf);
+    }
+
+    /**
+     * @return products with the name, empty results are not cached (the product may be created right after)
+     */
+    public List<Product> getProductsByName(String name) {
+        var products = productsByName.get(name);
+        if (products != null) {
+            return copyOf(products);
+        }
+        products = productRepository.getAll(name, null, null);
+        if (products != null && !products.isEmpty()) {
+            productsByName.put(name, copyOf(products));
+        }
+        return products;
+    }
+
+    public User getUserById(Long id) {
+        return getOrLoad(usersById, id, userRepository::getById, ModelsLookupCache::copyOf);
+    }
+
+    public User getUserByUsername(String username) {
+        return getOrLoad(usersByUsername, username, userRepository::getByUsername, ModelsLookupCache::copyOf);
+    }
+
+    public Category getCategoryByName(String name) {
+        return getOrLoad(categoriesByName, name, productRepository::getCategoryByName, ModelsLookupCache::copyOf);
+    }
+
+    public void evictProducts() {
+        productsById.clear();
+        productsByName.clear();
+    }
+
+    public void evictUsers() {
+        usersById.clear();
+        usersByUsername.clear();
+    }
+
+    public void clear() {
+        evictProducts();
+        evictUsers();
+        categoriesByName.clear();
+    }
+
+    private static <K, V> V getOrLoad(LookupCache<K, V> cache, K key, Function<K, V> loader, UnaryOperator<V> copier) {
+        var value = cache.get(key);
+        if (value != null) {
+            return copier.apply(value);
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            cache.put(key, copier.apply(value));
+        }
+        return value;
+    }
+
+    private static List<Product> copyOf(List<Product> products) {
+        return products.stream()
+                .map(ModelsLookupCache::copyOf)
+                .toList();
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(),
+                product.getCategory() != null ? copyOf(product.getCategory()) : null,
+                product.getUser() != null ? copyOf(product.getUser()) : null,
+                product.getCreatedAt());
+    }
+
+    private static Category copyOf(Category category) {
+        return new Category(category.getId(), category.getName());
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getUsername());
+    }
+}
@@ -4,7 +4,6 @@ import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.products.Product;
-import org.example.repository.products.ProductRepository;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
@@ -13,7 +12,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class ProductConverter extends BasicConverter implements Converter<String, Product> {
 
-    private final ProductRepository productRepository;
+    private final ModelsLookupCache modelsLookupCache;
 
     @Override
     public Product convert(@Nullable String source) {
@@ -24,13 +23,9 @@ public class ProductConverter extends BasicConverter implements Converter<String
 
         log.info("Converting product '{}' to object by id", source);
 
-        var pattern = Product.patternToReadIdFromUniqueView();
-        var id = readIdFromStringByPattern(pattern, source);
-        if (id == null) {
-            id = stringToLong(source);
-        }
+        var id = readId(source);
         if (id != null) {
-            var productFound = productRepository.getById(id);
+            var productFound = modelsLookupCache.getProductById(id);
             if (productFound != null) {
                 log.info("Product with id '{}' exits - {}", id, productFound);
                 return productFound;
@@ -41,7 +36,7 @@ public class ProductConverter extends BasicConverter implements Converter<String
         }
 
         log.info("Converting product '{}' to object by name", source);
-        var productsFound = productRepository.getAll(source, null, null);
+        var productsFound = modelsLookupCache.getProductsByName(source);
         if (productsFound.isEmpty()) {
             var product = new Product();
             product.setName(source);
@@ -57,4 +52,8 @@ public class ProductConverter extends BasicConverter implements Converter<String
             return null;
         }
     }
+
+    Long readId(String source) {
+        return readIdFromUniqueViewOrString(Product.patternToReadIdFromUniqueView(), source);
+    }
 }
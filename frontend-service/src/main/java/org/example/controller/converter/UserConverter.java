@@ -4,7 +4,6 @@ import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.users.User;
-import org.example.repository.users.UserRepository;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
@@ -13,7 +12,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class UserConverter extends BasicConverter implements Converter<String, User> {
 
-    private final UserRepository userRepository;
+    private final ModelsLookupCache modelsLookupCache;
 
     @Override
     public User convert(@Nullable String source) {
@@ -24,13 +23,9 @@ public class UserConverter extends BasicConverter implements Converter<String, U
 
         log.info("Converting user '{}' to object", source);
 
-        var pattern = User.patternToReadIdFromUniqueView();
-        var id = readIdFromStringByPattern(pattern, source);
-        if (id == null) {
-            id = stringToLong(source);
-        }
+        var id = readId(source);
         if (id != null) {
-            var userFound = userRepository.getById(id);
+            var userFound = modelsLookupCache.getUserById(id);
             if (userFound != null) {
                 log.info("User with id '{}' exits - {}", id, userFound);
                 return userFound;
@@ -41,7 +36,7 @@ public class UserConverter extends BasicConverter implements Converter<String, U
         }
 
         log.info("Converting user '{}' to object by username", source);
-        var userFound = userRepository.getByUsername(source);
+        var userFound = modelsLookupCache.getUserByUsername(source);
         if (userFound != null) {
             log.info("User with name '{}' exits - {}", source, userFound);
             return userFound;
@@ -51,4 +46,8 @@ public class UserConverter extends BasicConverter implements Converter<String, U
         user.setUsername(source);
         return user;
     }
+
+    Long readId(String source) {
+        return readIdFromUniqueViewOrString(User.patternToReadIdFromUniqueView(), source);
+    }
 }
@@ -0,0 +1,151 @@
+package org.example.controller.page;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.RemoteServiceFallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Assembles pages made of independent sections (e.g. orders and reviews of a product).
+ * The sections are loaded concurrently, each within its deadline and all of them within the page budget,
+ * so the page latency is bounded by the budget instead of the slowest remote service.
+ * A section that failed, returned null or didn't finish in time gets its fallback value,
+ * and its name is added to the "unavailableSections" model attribute to be marked on the page.
+ * So is a section whose remote reads were served from a fallback of their guards
+ * (see {@link RemoteServiceFallbacks}), it keeps the degraded value.
+ * A section not finished in time is interrupted, so a remote call blocked in I/O is aborted
+ * and frees its bulkhead permit instead of running to the client timeout
+ * (a hedged read cancels its attempts, see {@link org.example.repository.RemoteServiceGuard}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompositePageAssembler {
+
+    public static final String UNAVAILABLE_SECTIONS_ATTRIBUTE = "unavailableSections";
+
+    private final Environment environment;
+
+    // Time to load all the sections of a page
+    @Value("${pages.budget-ms:3000}")
+    private long pageBudgetMs = 3000;
+
+    // Default deadline of a section, overridden with "pages.sections.<section name>.deadline-ms"
+    @Value("${pages.section-deadline-ms:2000}")
+    private long sectionDeadlineMs = 2000;
+
+    // Sections only wait for remote services
+    private final ExecutorService sectionsExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("page-section-", 0).factory());
+
+    public Page newPage() {
+        return new Page(System.nanoTime());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sectionsExecutor.shutdownNow();
+    }
+
+    private long getSectionDeadlineMs(String name) {
+        return environment.getProperty("pages.sections." + name + ".deadline-ms", Long.class, sectionDeadlineMs);
+    }
+
+    public class Page {
+
+        private final long startNanos;
+        private final Map<String, Section<?>> sections = new LinkedHashMap<>();
+
+        private Page(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Starts loading a section in the background
+         *
+         * @param name name of the model attribute of the section
+         * @param fallback value of the section if it is unavailable
+         */
+        public <T> Page section(String name, Supplier<T> loader, Supplier<T> fallback) {
+            var deadlineMs = Math.min(getSectionDeadlineMs(name), pageBudgetMs);
+            var servicesServedFromFallback = ConcurrentHashMap.<String>newKeySet();
+            // Unlike CompletableFuture, cancelling the future of a submitted task interrupts its thread
+            var future = sectionsExecutor.submit(() -> RemoteServiceFallbacks.track(loader, servicesServedFromFallback));
+            sections.put(name, new Section<>(future, startNanos + TimeUnit.MILLISECONDS.toNanos(deadlineMs),
+                    servicesServedFromFallback, fallback));
+            return this;
+        }
+
+        /**
+         * Waits for the sections (not longer than their deadlines) and adds them to the model
+         */
+        public void addTo(Model model) {
+
+            var unavailableSections = new LinkedHashSet<String>();
+            for (var entry : sections.entrySet()) {
+                var name = entry.getKey();
+                var section = entry.getValue();
+                Object value = section.await(name);
+                if (value == null) {
+                    unavailableSections.add(name);
+                    value = section.fallback.get();
+                } else if (!section.servicesServedFromFallback.isEmpty()) {
+                    log.warn("Section '{}' is served from fallbacks of remote services {}",
+                            name, section.servicesServedFromFallback);
+                    unavailableSections.add(name);
+                }
+                model.addAttribute(name, value);
+            }
+
+            if (!unavailableSections.isEmpty()) {
+                log.warn("Page is rendered without sections {} in {} ms", unavailableSections,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+            model.addAttribute(UNAVAILABLE_SECTIONS_ATTRIBUTE, unavailableSections);
+        }
+    }
+
+    private static final class Section<T> {
+
+        private final Future<T> future;
+        private final long deadlineNanos;
+        private final Set<String> servicesServedFromFallback;
+        private final Supplier<T> fallback;
+
+        private Section(Future<T> future, long deadlineNanos, Set<String> servicesServedFromFallback,
+                        Supplier<T> fallback) {
+            this.future = future;
+            this.deadlineNanos = deadlineNanos;
+            this.servicesServedFromFallback = servicesServedFromFallback;
+            this.fallback = fallback;
+        }
+
+        // null - the section failed or didn't finish before the deadline
+        T await(String name) {
+            try {
+                var remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+                return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.error("Section '{}' didn't finish before the deadline", name);
+            } catch (ExecutionException e) {
+                log.error("Section '{}' failed - {}", name, e.getCause() == null ? e : e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+            }
+            return null;
+        }
+    }
+}
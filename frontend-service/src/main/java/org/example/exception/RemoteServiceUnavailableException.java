@@ -0,0 +1,13 @@
+package org.example.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RemoteServiceUnavailableException extends RuntimeException {
+
+    private final String title = "Service unavailable";
+
+    public RemoteServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.model.products;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of products, the cursors are null when there is no next (previous) page
+ */
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+public class ProductPage {
+
+    private List<Product> items = new ArrayList<>();
+    private String nextCursor;
+    private String prevCursor;
+}
@@ -1,29 +1,58 @@
 package org.example.repository;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
+import org.example.exception.RemoteServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 @Slf4j
 public abstract class FeignClientBaseClass {
 
+    // Null if the repository is created outside of the application context
+    private RemoteServiceGuard remoteServiceGuard;
+
     protected abstract String getServiceName();
 
+    @Autowired
+    void setRemoteServiceGuards(RemoteServiceGuards remoteServiceGuards) {
+        this.remoteServiceGuard = remoteServiceGuards.get(getServiceName());
+    }
+
     protected <T> T makeARequest(Supplier<ResponseEntity<T>> request) {
         return makeARequest(request, () -> null);
     }
 
     protected <T> T makeARequest(Supplier<ResponseEntity<T>> request, Supplier<T> orElseGet) {
-        var response = requestFeignClient(request);
+        return readResponseBody(requestFeignClient(request), orElseGet);
+    }
+
+    /**
+     * Makes an idempotent read: it may be hedged,
+     * and the last successful response is used if the remote service fails or is unavailable
+     *
+     * @param fallbackKey key of the last successful response, unique per read and its parameters
+     */
+    protected <T> T makeAReadRequest(Object fallbackKey, Supplier<ResponseEntity<T>> request, Supplier<T> orElseGet) {
+        return readResponseBody(requestFeignClientIdempotent(fallbackKey, request), orElseGet);
+    }
+
+    private <T> T readResponseBody(ResponseEntity<?> response, Supplier<T> orElseGet) {
         if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
             return orElseGet.get();
         }
         if (response.getStatusCode().isError()) {
             logRemoteServiceError(response);
+            if (isServiceFailure(response)) {
+                RemoteServiceFallbacks.servedFromFallback(getServiceName());
+            }
             return orElseGet.get();
         }
         var responseBody = response.getBody();
@@ -34,7 +63,81 @@ public abstract class FeignClientBaseClass {
         return (T) responseBody;
     }
 
+    /**
+     * Makes a conditional request: sends the entity tag of the cached response (if any) as {@code If-None-Match}
+     * and decodes the cached body when the remote service answers {@code 304 Not Modified}.
+     *
+     * @param request receives the entity tag to send (null if nothing is cached) and returns the raw response
+     * @param reader decodes the raw body
+     */
+    protected <K, T> T makeAConditionalRequest(ValidatorCache<K> validatorCache, K key,
+                                               Function<String, ResponseEntity<byte[]>> request,
+                                               ObjectReader reader, Supplier<T> orElseGet) {
+
+        var cached = validatorCache.get(key);
+        // The cached response is the fallback, so the guard keeps none
+        var response = requestFeignClientIdempotent(null, () -> request.apply(cached == null ? null : cached.getETag()));
+
+        var status = response.getStatusCode();
+        byte[] body;
+        if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+            body = cached.getBody();
+        } else if (isServiceFailure(response) && cached != null) {
+            log.warn("Remote service '{}' failed with {}, the cached response is used", getServiceName(), status);
+            RemoteServiceFallbacks.servedFromFallback(getServiceName());
+            body = cached.getBody();
+        } else if (status.isSameCodeAs(HttpStatus.NOT_FOUND)) {
+            validatorCache.evict(key);
+            return orElseGet.get();
+        } else if (status.isError()) {
+            logRemoteServiceError(response);
+            if (isServiceFailure(response)) {
+                RemoteServiceFallbacks.servedFromFallback(getServiceName());
+            }
+            return orElseGet.get();
+        } else if (response.getBody() instanceof byte[] responseBody && responseBody.length > 0) {
+            body = responseBody;
+            var eTag = response.getHeaders().getETag();
+            if (eTag != null) {
+                validatorCache.put(key, eTag, body);
+            } else {
+                validatorCache.evict(key);
+            }
+        } else {
+            return orElseGet.get();
+        }
+
+        try {
+            return reader.readValue(body);
+        } catch (IOException e) {
+            log.error("Unable to read response of remote service '{}'", getServiceName(), e);
+            validatorCache.evict(key);
+            return orElseGet.get();
+        }
+    }
+
     protected <T> ResponseEntity<?> requestFeignClient(Supplier<ResponseEntity<T>> supplier) {
+        if (remoteServiceGuard == null) {
+            return requestFeignClientUnguarded(supplier);
+        }
+        try {
+            return remoteServiceGuard.call(() -> requestFeignClientUnguarded(supplier), FeignClientBaseClass::isServiceFailure);
+        } catch (RemoteServiceUnavailableException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    protected <T> ResponseEntity<?> requestFeignClientIdempotent(Object fallbackKey, Supplier<ResponseEntity<T>> supplier) {
+        if (remoteServiceGuard == null) {
+            return requestFeignClientUnguarded(supplier);
+        }
+        return remoteServiceGuard.read(fallbackKey,
+                () -> requestFeignClientUnguarded(supplier),
+                FeignClientBaseClass::isServiceFailure,
+                () -> new ResponseEntity<>("Remote service is unavailable", HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private <T> ResponseEntity<?> requestFeignClientUnguarded(Supplier<ResponseEntity<T>> supplier) {
         try {
             return supplier.get();
         } catch (feign.FeignException e) {
@@ -42,10 +145,18 @@ public abstract class FeignClientBaseClass {
             if (Objects.equals(e.status(), HttpStatus.NOT_FOUND.value())) {
                 return ResponseEntity.notFound().build();
             }
+            // No response at all (connection refused, timeout)
+            if (e.status() < 0) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+            }
             return new ResponseEntity<>(e.responseBody(), HttpStatusCode.valueOf(e.status()));
         }
     }
 
+    private static boolean isServiceFailure(ResponseEntity<?> response) {
+        return response.getStatusCode().is5xxServerError();
+    }
+
     protected void logRemoteServiceError(ResponseEntity<?> response) {
         log.error("Error during performing request to remote service '{}'. {} - {}",
                 getServiceName(),
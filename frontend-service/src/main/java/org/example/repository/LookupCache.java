@@ -0,0 +1,74 @@
+package org.example.repository;
+
+import lombok.Value;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of models found in a remote service, each kept for a short time.
+ * Unlike {@link ValidatorCache} the values are not revalidated, so a value may be stale for up to the TTL.
+ */
+public class LookupCache<K, V> {
+
+    @Value
+    private static class Entry<V> {
+        V value;
+        Instant expiresAt;
+    }
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<K, Entry<V>> entries;
+
+    /**
+     * @param maxSize max number of cached values (0 - caching is disabled)
+     */
+    public LookupCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return cached value, or null if there is no value or it is expired
+     */
+    public synchronized V get(K key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.getExpiresAt())) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    public synchronized void put(K key, V value) {
+        if (value == null || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.instant().plus(ttl)));
+    }
+
+    public synchronized void evict(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.repository;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Tells degraded results of remote services from real ones.
+ * Reads served from a fallback (the last successful result or the default value) are recorded
+ * for the current thread, while it runs a tracked call.
+ */
+public final class RemoteServiceFallbacks {
+
+    private static final ThreadLocal<Set<String>> servicesServedFromFallback = new ThreadLocal<>();
+
+    private RemoteServiceFallbacks() {}
+
+    /**
+     * Makes the call, the names of the remote services whose reads are served from a fallback during it
+     * are added to {@code servicesServedFromFallback}
+     */
+    public static <T> T track(Supplier<T> call, Set<String> servicesServedFromFallback) {
+        var outerServices = RemoteServiceFallbacks.servicesServedFromFallback.get();
+        RemoteServiceFallbacks.servicesServedFromFallback.set(servicesServedFromFallback);
+        try {
+            return call.get();
+        } finally {
+            if (outerServices == null) {
+                RemoteServiceFallbacks.servicesServedFromFallback.remove();
+            } else {
+                outerServices.addAll(servicesServedFromFallback);
+                RemoteServiceFallbacks.servicesServedFromFallback.set(outerServices);
+            }
+        }
+    }
+
+    static void servedFromFallback(String serviceName) {
+        var services = servicesServedFromFallback.get();
+        if (services != null) {
+            services.add(serviceName);
+        }
+    }
+}
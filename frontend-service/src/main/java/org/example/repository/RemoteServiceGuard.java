@@ -0,0 +1,261 @@
+package org.example.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.exception.RemoteServiceUnavailableException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Protects request threads from a slow or failing remote service:
+ * <ul>
+ *     <li>bulkhead - at most "max concurrent calls" to the service, other calls wait "max wait" and are rejected;</li>
+ *     <li>circuit breaker - after "failure threshold" consecutive failures calls are rejected for "open duration",
+ *     then one trial call decides whether the service is back;</li>
+ *     <li>fallback - idempotent reads return the last successful result when the call fails or is rejected,
+ *     such reads are recorded by {@link RemoteServiceFallbacks};</li>
+ *     <li>hedging (optional) - an idempotent read not finished within "hedge delay" is sent once more,
+ *     the first successful result is used.</li>
+ * </ul>
+ * Rejected calls and calls cancelled by interrupting their threads are not counted as failures of the service.
+ */
+@Slf4j
+public class RemoteServiceGuard {
+
+    private final String serviceName;
+    private final Semaphore bulkhead;
+    private final Duration maxWait;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration hedgeDelay;
+    private final ExecutorService hedgingExecutor;
+    private final Clock clock;
+
+    // Last successful results of idempotent reads
+    private final LookupCache<Object, Object> fallbackCache;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialCallInProgress = new AtomicBoolean();
+    // null - the circuit is closed
+    private volatile Instant openUntil;
+
+    /**
+     * @param hedgeDelay zero - reads are not hedged
+     * @param fallbackCacheMaxSize 0 - there are no fallbacks, failed reads return the default values
+     */
+    public RemoteServiceGuard(String serviceName, int maxConcurrentCalls, Duration maxWait,
+                              int failureThreshold, Duration openDuration, Duration hedgeDelay,
+                              int fallbackCacheMaxSize, Duration fallbackCacheTtl,
+                              ExecutorService hedgingExecutor, Clock clock) {
+        this.serviceName = serviceName;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxWait = maxWait;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.hedgeDelay = hedgeDelay;
+        this.hedgingExecutor = hedgingExecutor;
+        this.clock = clock;
+        this.fallbackCache = new LookupCache<>(fallbackCacheTtl, fallbackCacheMaxSize, clock);
+    }
+
+    /**
+     * Makes a call, which is not necessarily idempotent (it is not hedged and has no fallback)
+     *
+     * @param isFailure whether a result means a failure of the service (e.g. 5xx response)
+     * @throws RemoteServiceUnavailableException if the call is rejected
+     */
+    public <T> T call(Supplier<T> call, Predicate<T> isFailure) {
+
+        if (!tryAcquireBulkhead()) {
+            throw new RemoteServiceUnavailableException(
+                    String.format("Too many concurrent requests to remote service '%s'", serviceName));
+        }
+        try {
+            if (!tryAcquirePermission()) {
+                throw new RemoteServiceUnavailableException(
+                        String.format("Remote service '%s' is unavailable", serviceName));
+            }
+            T result;
+            try {
+                result = call.get();
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Cancelled by the caller: a hedged attempt which lost or a page section past its deadline
+                    onCancelled();
+                } else {
+                    onFailure();
+                }
+                throw e;
+            }
+            if (isFailure.test(result)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            return result;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Makes an idempotent read
+     *
+     * @param fallbackKey key of the last successful result, unique per read and its parameters
+     *                    (null - there is no fallback)
+     * @param orElseGet result if the read fails and there is no last successful result
+     */
+    public <T> T read(Object fallbackKey, Supplier<T> call, Predicate<T> isFailure, Supplier<T> orElseGet) {
+
+        T result;
+        try {
+            result = hedgeDelay.isZero() ? call(call, isFailure) : callHedged(call, isFailure);
+        } catch (RuntimeException e) {
+            log.warn("Request to remote service '{}' failed - {}", serviceName, e.toString());
+            return getFallback(fallbackKey, orElseGet);
+        }
+
+        if (isFailure.test(result)) {
+            return getFallback(fallbackKey, orElseGet);
+        }
+        if (fallbackKey != null) {
+            fallbackCache.put(fallbackKey, result);
+        }
+        return result;
+    }
+
+    public boolean isOpen() {
+        return openUntil != null;
+    }
+
+    private <T> T getFallback(Object fallbackKey, Supplier<T> orElseGet) {
+        RemoteServiceFallbacks.servedFromFallback(serviceName);
+        if (fallbackKey != null) {
+            @SuppressWarnings("unchecked")
+            var fallback = (T) fallbackCache.get(fallbackKey);
+            if (fallback != null) {
+                log.warn("Last successful result of remote service '{}' is used for '{}'", serviceName, fallbackKey);
+                return fallback;
+            }
+        }
+        return orElseGet.get();
+    }
+
+    private <T> T callHedged(Supplier<T> call, Predicate<T> isFailure) {
+
+        var result = new CompletableFuture<T>();
+        var attemptsInProgress = new AtomicInteger(1);
+        // Only the calling thread adds to it
+        var attempts = new ArrayList<Future<?>>(2);
+        startAttempt(call, isFailure, result, attemptsInProgress, attempts);
+
+        try {
+            try {
+                return result.get(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (attemptsInProgress.incrementAndGet() > 1) {
+                    log.info("Hedging request to remote service '{}' after {} ms", serviceName, hedgeDelay.toMillis());
+                    startAttempt(call, isFailure, result, attemptsInProgress, attempts);
+                }
+                // Both attempts are bounded by the timeouts of the client
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteServiceUnavailableException(
+                    String.format("Request to remote service '%s' is interrupted", serviceName));
+        } finally {
+            // The attempt which lost (or both of them, if the caller is interrupted) holds a bulkhead permit
+            // until the client timeout, the interrupt aborts its I/O
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    // The last finished attempt completes the result with its outcome if no attempt succeeded before
+    private <T> void startAttempt(Supplier<T> call, Predicate<T> isFailure, CompletableFuture<T> result,
+                                  AtomicInteger attemptsInProgress, List<Future<?>> attempts) {
+        try {
+            attempts.add(hedgingExecutor.submit(() -> {
+                try {
+                    var attemptResult = call(call, isFailure);
+                    if (!isFailure.test(attemptResult) || attemptsInProgress.decrementAndGet() == 0) {
+                        result.complete(attemptResult);
+                    }
+                } catch (RuntimeException e) {
+                    if (attemptsInProgress.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            if (attemptsInProgress.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private boolean tryAcquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean tryAcquirePermission() {
+        var currentOpenUntil = openUntil;
+        if (currentOpenUntil == null) {
+            return true;
+        }
+        if (clock.instant().isBefore(currentOpenUntil)) {
+            return false;
+        }
+        // Half-open: one trial call at a time
+        return trialCallInProgress.compareAndSet(false, true);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil != null) {
+            openUntil = null;
+            trialCallInProgress.set(false);
+            log.info("Circuit breaker of remote service '{}' is closed", serviceName);
+        }
+    }
+
+    // A cancelled trial call decides nothing, the next call is the trial one
+    private void onCancelled() {
+        if (openUntil != null) {
+            trialCallInProgress.set(false);
+        }
+    }
+
+    // Number of calls which can be made without waiting
+    public int availableCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    private void onFailure() {
+        // A failed trial call opens the circuit again
+        if (openUntil != null || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil = clock.instant().plus(openDuration);
+            consecutiveFailures.set(0);
+            trialCallInProgress.set(false);
+            log.error("Circuit breaker of remote service '{}' is open for {} ms", serviceName, openDuration.toMillis());
+        }
+    }
+}
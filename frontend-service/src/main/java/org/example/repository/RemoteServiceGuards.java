@@ -0,0 +1,54 @@
+package org.example.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Guards of the remote services by their names, configured with "&lt;service name&gt;.resilience.*" properties
+ */
+@Component
+@RequiredArgsConstructor
+public class RemoteServiceGuards {
+
+    private final Environment environment;
+
+    private final ConcurrentHashMap<String, RemoteServiceGuard> guards = new ConcurrentHashMap<>();
+
+    // Hedged attempts only wait for I/O
+    private final ExecutorService hedgingExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("hedged-request-", 0).factory());
+
+    public RemoteServiceGuard get(String serviceName) {
+        return guards.computeIfAbsent(serviceName, this::createGuard);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgingExecutor.shutdownNow();
+    }
+
+    private RemoteServiceGuard createGuard(String serviceName) {
+        var prefix = serviceName + ".resilience.";
+        return new RemoteServiceGuard(
+                serviceName,
+                environment.getProperty(prefix + "max-concurrent-calls", Integer.class, 50),
+                Duration.ofMillis(environment.getProperty(prefix + "max-wait-ms", Long.class, 100L)),
+                environment.getProperty(prefix + "failure-threshold", Integer.class, 5),
+                Duration.ofMillis(environment.getProperty(prefix + "open-duration-ms", Long.class, 10_000L)),
+                // Disabled by default, should be about the 95th percentile of the read latency
+                Duration.ofMillis(environment.getProperty(prefix + "hedge-delay-ms", Long.class, 0L)),
+                environment.getProperty(prefix + "fallback-cache.max-size", Integer.class, 1000),
+                Duration.ofSeconds(environment.getProperty(prefix + "fallback-cache.ttl-seconds", Long.class, 600L)),
+                hedgingExecutor,
+                Clock.systemUTC()
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.repository;
+
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the last responses of a remote service with their entity tags,
+ * used to make conditional requests ({@code If-None-Match}) and reuse the body on {@code 304 Not Modified}.
+ * Raw bodies are kept (not decoded models), so callers can't modify cached values.
+ */
+public class ValidatorCache<K> {
+
+    @Value
+    public static class Entry {
+        String eTag;
+        byte[] body;
+    }
+
+    private final Map<K, Entry> entries;
+
+    /**
+     * @param maxSize max number of cached responses (0 - caching is disabled)
+     */
+    public ValidatorCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized Entry get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, String eTag, byte[] body) {
+        entries.put(key, new Entry(eTag, body));
+    }
+
+    public synchronized void evict(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
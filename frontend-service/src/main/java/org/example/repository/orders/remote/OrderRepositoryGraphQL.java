@@ -1,17 +1,28 @@
 package org.example.repository.orders.remote;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.orders.Order;
+import org.example.exception.RemoteServiceUnavailableException;
 import org.example.model.orders.dto.OrderDTO;
+import org.example.repository.RemoteServiceGuard;
+import org.example.repository.RemoteServiceGuards;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @ConditionalOnProperty(name = "order-service.enabled", havingValue = "true", matchIfMissing = true)
@@ -21,6 +32,17 @@ import java.util.concurrent.ExecutionException;
 public class OrderRepositoryGraphQL {
 
     private final HttpGraphQlClient httpGraphQlClient;
+    private final RemoteServiceGuards remoteServiceGuards;
+
+    @Value("${order-service.graphql.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private RemoteServiceGuard remoteServiceGuard;
+
+    @PostConstruct
+    void initRemoteServiceGuard() {
+        remoteServiceGuard = remoteServiceGuards.get("order-service");
+    }
 
     public Order getById(String id) {
 
@@ -38,23 +60,14 @@ public class OrderRepositoryGraphQL {
                 }
                 """;
 
-        query = String.format(query, id);
-
-        var responseFuture = httpGraphQlClient.document(query)
-                .retrieve("getOrderById")
-                .toEntity(OrderDTO.class)
-                .toFuture();
-
-        try {
-            var orderDTO = responseFuture.get();
-            if (orderDTO == null) {
-                return null;
-            }
-            return orderDTO.toOrder();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Failed to get order by id - {}", e.getMessage());
-            return null;
-        }
+        var document = String.format(query, id);
+        return requestOrderService(Arrays.asList("getById", id),
+                () -> httpGraphQlClient.document(document)
+                        .retrieve("getOrderById")
+                        .toEntity(OrderDTO.class)
+                        .toFuture(),
+                OrderDTO::toOrder,
+                "Failed to get order by id");
     }
 
     public List<Order> getByIds(Set<String> ids) {
@@ -74,20 +87,14 @@ public class OrderRepositoryGraphQL {
                 """;
 
         var idsAsParam = String.join("\", \"", ids);
-        query = String.format(query, idsAsParam);
-
-        var responseFuture = httpGraphQlClient.document(query)
-                .retrieve("getOrdersByIds")
-                .toEntityList(OrderDTO.class)
-                .toFuture();
-
-        try {
-            var ordersDTO = responseFuture.get();
-            return OrderDTO.toOrders(ordersDTO);
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Failed to get orders by ids - {}", e.getMessage());
-            return null;
-        }
+        var document = String.format(query, idsAsParam);
+        return requestOrderService(Arrays.asList("getByIds", ids),
+                () -> httpGraphQlClient.document(document)
+                        .retrieve("getOrdersByIds")
+                        .toEntityList(OrderDTO.class)
+                        .toFuture(),
+                OrderDTO::toOrders,
+                "Failed to get orders by ids");
     }
 
     public List<Order> getAll() {
@@ -106,18 +113,13 @@ public class OrderRepositoryGraphQL {
                 }
                 """;
 
-        var responseFuture = httpGraphQlClient.document(query)
-                .retrieve("getAllOrders")
-                .toEntityList(OrderDTO.class)
-                .toFuture();
-
-        try {
-            var ordersDTO = responseFuture.get();
-            return OrderDTO.toOrders(ordersDTO);
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Failed to get orders - {}", e.getMessage());
-            return null;
-        }
+        return requestOrderService("getAll",
+                () -> httpGraphQlClient.document(query)
+                        .retrieve("getAllOrders")
+                        .toEntityList(OrderDTO.class)
+                        .toFuture(),
+                OrderDTO::toOrders,
+                "Failed to get orders");
     }
 
     public List<Order> getAllByUser(Long userId) {
@@ -136,20 +138,14 @@ public class OrderRepositoryGraphQL {
                 }
                 """;
 
-        query = String.format(query, userId);
-
-        var responseFuture = httpGraphQlClient.document(query)
-                .retrieve("getAllOrdersByUser")
-                .toEntityList(OrderDTO.class)
-                .toFuture();
-
-        try {
-            var ordersDTO = responseFuture.get();
-            return OrderDTO.toOrders(ordersDTO);
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Failed to get orders by userId - {}", e.getMessage());
-            return null;
-        }
+        var document = String.format(query, userId);
+        return requestOrderService(Arrays.asList("getAllByUser", userId),
+                () -> httpGraphQlClient.document(document)
+                        .retrieve("getAllOrdersByUser")
+                        .toEntityList(OrderDTO.class)
+                        .toFuture(),
+                OrderDTO::toOrders,
+                "Failed to get orders by userId");
     }
 
     public List<Order> getAllByProduct(Long productId) {
@@ -168,19 +164,34 @@ public class OrderRepositoryGraphQL {
                 }
                 """;
 
-        query = String.format(query, productId);
-
-        var responseFuture = httpGraphQlClient.document(query)
-                .retrieve("getAllOrdersByProduct")
-                .toEntityList(OrderDTO.class)
-                .toFuture();
+        var document = String.format(query, productId);
+        return requestOrderService(Arrays.asList("getAllByProduct", productId),
+                () -> httpGraphQlClient.document(document)
+                        .retrieve("getAllOrdersByProduct")
+                        .toEntityList(OrderDTO.class)
+                        .toFuture(),
+                OrderDTO::toOrders,
+                "Failed to get orders by productId");
+    }
 
-        try {
-            var ordersDTO = responseFuture.get();
-            return OrderDTO.toOrders(ordersDTO);
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Failed to get orders by productId - {}", e.getMessage());
-            return null;
-        }
+    /**
+     * Reads from order-service within the timeout, the last successful result is used if the read fails
+     */
+    private <D, R> R requestOrderService(Object fallbackKey, Supplier<CompletableFuture<D>> request,
+                                         Function<D, R> mapper, String errorMessage) {
+        return remoteServiceGuard.read(fallbackKey, () -> {
+            var responseFuture = request.get();
+            try {
+                var response = responseFuture.get(timeoutMs, TimeUnit.MILLISECONDS);
+                return response == null ? null : mapper.apply(response);
+            } catch (ExecutionException | TimeoutException e) {
+                responseFuture.cancel(true);
+                log.error("{} - {}", errorMessage, e.toString());
+                throw new RemoteServiceUnavailableException(errorMessage);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemoteServiceUnavailableException(errorMessage);
+            }
+        }, result -> false, () -> null);
     }
 }
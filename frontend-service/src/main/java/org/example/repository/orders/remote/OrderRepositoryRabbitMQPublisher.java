@@ -7,12 +7,15 @@ import org.example.model.orders.dto.IdAndOrderRequestDTO;
 import org.example.model.orders.dto.IdAndStatusDTO;
 import org.example.model.orders.Status;
 import org.example.model.orders.dto.OrderRequestDTO;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @ConditionalOnProperty(name = "order-service.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
@@ -31,13 +34,16 @@ public class OrderRepositoryRabbitMQPublisher {
     @Value("${spring.rabbitmq.queues.order-change-status}")
     private String queueOrderChangeStatus;
 
+    @Value("${spring.rabbitmq.queues.order-change-status-shards:4}")
+    private int orderChangeStatusShards;
+
     @Value("${spring.rabbitmq.queues.order-delete}")
     private String queueOrderDelete;
 
     public Order create(Order order) {
         log.info("Sending message for order creation: {}", order);
         var orderDTO = OrderRequestDTO.fromOrder(order);
-        rabbitTemplate.convertAndSend(topicExchange.getName(), queueOrderCreate, orderDTO);
+        send(queueOrderCreate, orderDTO);
         log.info("Order creation message sent to RabbitMQ");
         return null;
     }
@@ -46,7 +52,7 @@ public class OrderRepositoryRabbitMQPublisher {
         log.info("Sending message for order updating: id='{}' - order={}", id, order);
         var orderDTO = OrderRequestDTO.fromOrder(order);
         var message = new IdAndOrderRequestDTO(id, orderDTO);
-        rabbitTemplate.convertAndSend(topicExchange.getName(), queueOrderUpdate, message);
+        send(queueOrderUpdate, message);
         log.info("Order update message sent to RabbitMQ");
         return null;
     }
@@ -54,14 +60,31 @@ public class OrderRepositoryRabbitMQPublisher {
     public Order changeOrderStatus(String id, Status status) {
         log.info("Sending message for changing order status: id='{}' - status={}", id, status);
         var message = new IdAndStatusDTO(id, status);
-        rabbitTemplate.convertAndSend(topicExchange.getName(), queueOrderChangeStatus, message);
+        send(orderChangeStatusRoutingKey(id), message);
         log.info("Order change-status message sent to RabbitMQ");
         return null;
     }
 
     public void deleteById(String id) {
         log.info("Sending message for order deleting: id='{}'", id);
-        rabbitTemplate.convertAndSend(topicExchange.getName(), queueOrderDelete, id);
+        send(queueOrderDelete, id);
         log.info("Order delete message sent to RabbitMQ");
     }
+
+    // All status changes of one order go to the same shard-queue, so order-service applies them in order.
+    // The number of shards must be the same as in order-service
+    String orderChangeStatusRoutingKey(String id) {
+        var shard = Math.floorMod(id.hashCode(), orderChangeStatusShards);
+        return queueOrderChangeStatus + "." + shard;
+    }
+
+    private void send(String routingKey, Object message) {
+        rabbitTemplate.convertAndSend(topicExchange.getName(), routingKey, message, this::setIdempotencyKey);
+    }
+
+    // Every command gets a unique 'messageId', so order-service can drop redelivered duplicates
+    Message setIdempotencyKey(Message message) {
+        message.getMessageProperties().setMessageId(UUID.randomUUID().toString());
+        return message;
+    }
 }
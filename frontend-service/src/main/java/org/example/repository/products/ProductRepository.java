@@ -2,6 +2,7 @@ package org.example.repository.products;
 
 import org.example.model.products.Category;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.model.users.User;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +13,8 @@ import java.util.Set;
 public interface ProductRepository {
 
     List<Product> getAll(String name, Category category, User user);
+    // Newest products first, cursor - nextCursor or prevCursor of another page (null - the first page)
+    ProductPage getPage(String cursor, int limit);
     Product getById(Long id);
     List<Product> getByIds(Set<Long> ids);
     Product create(Product product);
@@ -3,6 +3,7 @@ package org.example.repository.products;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.products.Category;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.model.users.User;
 import org.springframework.stereotype.Service;
 
@@ -37,6 +38,36 @@ public class ProductRepositoryDummy implements ProductRepository {
                 .toList();
     }
 
+    // Cursors are "after:<id>" and "before:<id>" of the last and first products of a page
+    @Override
+    public synchronized ProductPage getPage(String cursor, int limit) {
+
+        log.info("Searching for page of products, cursor={}", cursor);
+
+        var sortedProducts = products.stream()
+                .sorted(Comparator.<Product>reverseOrder().thenComparing(Product::getId, Comparator.reverseOrder()))
+                .toList();
+
+        int from = 0;
+        if (cursor != null) {
+            var separator = cursor.indexOf(':');
+            var id = Long.valueOf(cursor.substring(separator + 1));
+            var index = indexOf(sortedProducts, id);
+            if (index != -1) {
+                from = cursor.startsWith("before:") ? Math.max(0, index - limit) : index + 1;
+            }
+        }
+        var to = Math.min(from + limit, sortedProducts.size());
+        if (from >= to) {
+            return new ProductPage();
+        }
+
+        var items = sortedProducts.subList(from, to);
+        var nextCursor = to < sortedProducts.size() ? "after:" + items.getLast().getId() : null;
+        var prevCursor = from > 0 ? "before:" + items.getFirst().getId() : null;
+        return new ProductPage(new ArrayList<>(items), nextCursor, prevCursor);
+    }
+
     @Override
     public Product getById(Long id) {
         log.info("Searching for product with id={}", id);
@@ -135,7 +166,7 @@ public class ProductRepositoryDummy implements ProductRepository {
                 .orElse(0) + 1;
     }
 
-    private int getIndexOfProductInListById(Long id) {
+    private static int indexOf(List<Product> products, Long id) {
         for (int i = 0; i < products.size(); i++) {
             if (products.get(i).getId().equals(id)) {
                 return i;
@@ -144,6 +175,10 @@ public class ProductRepositoryDummy implements ProductRepository {
         return -1;
     }
 
+    private int getIndexOfProductInListById(Long id) {
+        return indexOf(products, id);
+    }
+
     private Category getCategoryOrAddNew(Category category) {
 
         if (category == null) {
@@ -1,17 +1,23 @@
 package org.example.repository.products.remote;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.products.Category;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.model.products.ProductRequestDTO;
 import org.example.model.users.User;
 import org.example.repository.FeignClientBaseClass;
+import org.example.repository.ValidatorCache;
 import org.example.repository.products.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -23,7 +29,22 @@ import java.util.Set;
 @Slf4j
 public class ProductRepositoryBasedOnFeignClient extends FeignClientBaseClass implements ProductRepository {
 
+    // Products of a page are only listed by name
+    private static final String PAGE_FIELDS = "id,name";
+
     private final ProductServiceFeignClient productServiceFeignClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product-service.validator-cache.max-size:1000}")
+    private int validatorCacheMaxSize;
+
+    // Last responses with their entity tags, every read is revalidated by the remote service
+    private ValidatorCache<Long> byIdValidatorCache;
+
+    @PostConstruct
+    void initValidatorCache() {
+        byIdValidatorCache = new ValidatorCache<>(validatorCacheMaxSize);
+    }
 
     @Override
     protected String getServiceName() {
@@ -33,19 +54,34 @@ public class ProductRepositoryBasedOnFeignClient extends FeignClientBaseClass im
     @Override
     public List<Product> getAll(String name, Category category, User user) {
         log.info("Searching for all products");
-        return makeARequest(() -> productServiceFeignClient.getAll(name, category, user), Collections::emptyList);
+        return makeAReadRequest(Arrays.asList("getAll", name, category, user),
+                () -> productServiceFeignClient.getAll(name, category, user), Collections::emptyList);
+    }
+
+    @Override
+    public ProductPage getPage(String cursor, int limit) {
+        log.info("Searching for page of products, cursor={}", cursor);
+        return makeAReadRequest(Arrays.asList("getPage", cursor, limit),
+                () -> productServiceFeignClient.getPage(PAGE_FIELDS, cursor, limit), ProductPage::new);
     }
 
     @Override
     public Product getById(Long id) {
         log.info("Searching for product with id={}", id);
-        return makeARequest(() -> productServiceFeignClient.getById(id));
+        return makeAConditionalRequest(byIdValidatorCache, id,
+                eTag -> productServiceFeignClient.getById(id, eTag),
+                objectMapper.readerFor(Product.class),
+                () -> null);
     }
 
     @Override
     public List<Product> getByIds(Set<Long> ids) {
         log.info("Searching for products with ids={}", ids);
-        return makeARequest(() -> productServiceFeignClient.getByIds(ids), Collections::emptyList);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return makeAReadRequest(Arrays.asList("getByIds", ids),
+                () -> productServiceFeignClient.getByIds(ids), Collections::emptyList);
     }
 
     @Override
@@ -59,24 +95,31 @@ public class ProductRepositoryBasedOnFeignClient extends FeignClientBaseClass im
     public Product update(Long id, Product product) {
         log.info("Updating product with id={}, {}", id, product);
         var productRequestDTO = ProductRequestDTO.fromProduct(product);
+        byIdValidatorCache.evict(id);
         return makeARequest(() -> productServiceFeignClient.update(id, productRequestDTO));
     }
 
     @Override
     public void deleteById(Long id) {
         log.warn("Deleting product by id={}", id);
+        byIdValidatorCache.evict(id);
         makeARequest(() -> productServiceFeignClient.deleteById(id));
     }
 
     @Override
     public Category getCategoryByName(String categoryName) {
         log.info("Searching for category with name={}", categoryName);
-        return makeARequest(() -> productServiceFeignClient.getCategoryByName(categoryName));
+        return makeAReadRequest(Arrays.asList("getCategoryByName", categoryName),
+                () -> productServiceFeignClient.getCategoryByName(categoryName), () -> null);
     }
 
     @Override
     public List<Category> getCategoriesByNames(Set<String> categoryNames) {
         log.info("Searching for categories with names={}", categoryNames);
-        return makeARequest(() -> productServiceFeignClient.getCategoriesByNames(categoryNames));
+        if (categoryNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return makeAReadRequest(Arrays.asList("getCategoriesByNames", categoryNames),
+                () -> productServiceFeignClient.getCategoriesByNames(categoryNames), Collections::emptyList);
     }
 }
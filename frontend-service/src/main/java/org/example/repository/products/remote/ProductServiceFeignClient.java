@@ -2,10 +2,12 @@ package org.example.repository.products.remote;
 
 import org.example.model.products.Category;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.model.products.ProductRequestDTO;
 import org.example.model.users.User;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,11 +23,20 @@ public interface ProductServiceFeignClient {
                                                 @RequestParam(name = "category", required = false) Category category,
                                                 @RequestParam(name = "user", required = false) User user);
 
+    // Keyset pagination, only the requested fields are read
+    @GetMapping("/page")
+    ResponseEntity<ProductPage> getPage(@RequestParam(name = "fields") String fields,
+                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                        @RequestParam(name = "limit") int limit);
+
+    // Raw body, so it can be kept in the validator cache and reused on "304 Not Modified"
     @GetMapping("/{id}")
-    ResponseEntity<Product> getById(@PathVariable Long id);
+    ResponseEntity<byte[]> getById(@PathVariable Long id,
+                                   @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String eTag);
 
-    @GetMapping("/ids/{ids}")
-    ResponseEntity<List<Product>> getByIds(@PathVariable Collection<Long> ids);
+    // Ids in the request body, so large batches are not limited by the URL length
+    @PostMapping("/batch-get")
+    ResponseEntity<List<Product>> getByIds(@RequestBody Collection<Long> ids);
 
     @PostMapping
     ResponseEntity<Product> create(@RequestBody ProductRequestDTO productDTO);
@@ -39,6 +50,6 @@ public interface ProductServiceFeignClient {
     @GetMapping("/categories/by-name/{categoryName}")
     ResponseEntity<Category> getCategoryByName(@PathVariable String categoryName);
 
-    @GetMapping("/categories/by-names/{categoryNames}")
-    ResponseEntity<List<Category>> getCategoriesByNames(@PathVariable Collection<String> categoryNames);
+    @PostMapping("/categories/batch-get")
+    ResponseEntity<List<Category>> getCategoriesByNames(@RequestBody Collection<String> categoryNames);
 }
@@ -1,13 +1,17 @@
 package org.example.repository.reviews.remote;
 
 import com.google.protobuf.Empty;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.grpc.GrpcReviewServiceGrpc;
 import org.example.grpc.GrpcReviewServiceOuterClass;
 import org.example.grpc.GrpcReviewServiceOuterClass.IdRequest;
+import org.example.model.products.Product;
 import org.example.model.reviews.ProductAndRatingInfo;
 import org.example.model.reviews.Review;
+import org.example.repository.RemoteServiceGuard;
+import org.example.repository.RemoteServiceGuards;
 import org.example.repository.reviews.ReviewRepository;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,6 +30,14 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
 
     private final GrpcReviewServiceGrpc.GrpcReviewServiceBlockingStub blockingStub;
     private final ReviewsUtil reviewsUtil;
+    private final RemoteServiceGuards remoteServiceGuards;
+
+    private RemoteServiceGuard remoteServiceGuard;
+
+    @PostConstruct
+    void initRemoteServiceGuard() {
+        remoteServiceGuard = remoteServiceGuards.get("review-service");
+    }
 
     @Override
     public Review getById(String id) {
@@ -36,8 +48,10 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .setId(id)
                 .build();
 
-        var response = blockingStub.getById(request);
-        return reviewsUtil.toReview(response);
+        return remoteServiceGuard.read(Arrays.asList("getById", id),
+                () -> reviewsUtil.toReview(blockingStub.getById(request)),
+                response -> false,
+                () -> null);
     }
 
     @Override
@@ -49,16 +63,20 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .addAllIds(collectionToIdsRequest(ids))
                 .build();
 
-        var response = blockingStub.getByIds(request);
-        return reviewsUtil.toReviews(response);
+        return remoteServiceGuard.read(Arrays.asList("getByIds", ids),
+                () -> reviewsUtil.toReviews(blockingStub.getByIds(request)),
+                response -> false,
+                Collections::emptyList);
     }
 
     @Override
     public List<Review> getAll() {
         log.info("Searching for all reviews");
         var request = Empty.newBuilder().build();
-        var response = blockingStub.getAll(request);
-        return reviewsUtil.toReviews(response);
+        return remoteServiceGuard.read("getAll",
+                () -> reviewsUtil.toReviews(blockingStub.getAll(request)),
+                response -> false,
+                Collections::emptyList);
     }
 
     @Override
@@ -70,8 +88,10 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .setId(productId)
                 .build();
 
-        var response = blockingStub.getRatingInfoOfProduct(request);
-        return reviewsUtil.toProductAndRatingInfo(response);
+        return remoteServiceGuard.read(Arrays.asList("getRatingInfoOfProduct", productId),
+                () -> reviewsUtil.toProductAndRatingInfo(blockingStub.getRatingInfoOfProduct(request)),
+                response -> false,
+                () -> emptyRatingInfo(productId));
     }
 
     @Override
@@ -83,8 +103,10 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .addAllIds(collectionToIdNumbersRequest(productIds))
                 .build();
 
-        var response = blockingStub.getRatingInfoOfProducts(request);
-        return reviewsUtil.toProductAndRatingInfoList(response);
+        return remoteServiceGuard.read(Arrays.asList("getRatingInfoOfProducts", productIds),
+                () -> reviewsUtil.toProductAndRatingInfoList(blockingStub.getRatingInfoOfProducts(request)),
+                response -> false,
+                () -> productIds.stream().map(ReviewRepositoryGRPC::emptyRatingInfo).toList());
     }
 
     @Override
@@ -96,8 +118,10 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .setId(userId)
                 .build();
 
-        var response = blockingStub.getAllByUser(request);
-        return reviewsUtil.toReviews(response);
+        return remoteServiceGuard.read(Arrays.asList("getAllByUser", userId),
+                () -> reviewsUtil.toReviews(blockingStub.getAllByUser(request)),
+                response -> false,
+                Collections::emptyList);
     }
 
     @Override
@@ -109,8 +133,10 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .addAllIds(collectionToIdNumbersRequest(userIds))
                 .build();
 
-        var response = blockingStub.getAllByUsers(request);
-        return reviewsUtil.toReviews(response);
+        return remoteServiceGuard.read(Arrays.asList("getAllByUsers", userIds),
+                () -> reviewsUtil.toReviews(blockingStub.getAllByUsers(request)),
+                response -> false,
+                Collections::emptyList);
     }
 
     @Override
@@ -130,16 +156,17 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .setRatingMax(ratingMaxFeatured)
                 .build();
 
-        var response = blockingStub.getAllByRatingBetween(request);
-        return reviewsUtil.toReviews(response);
+        return remoteServiceGuard.read(Arrays.asList("getAllByRatingBetween", ratingMinFeatured, ratingMaxFeatured),
+                () -> reviewsUtil.toReviews(blockingStub.getAllByRatingBetween(request)),
+                response -> false,
+                Collections::emptyList);
     }
 
     @Override
     public Review create(Review review) {
         log.info("Creating review '{}'", review);
         var request = reviewsUtil.toReviewRequest(review);
-        var response = blockingStub.create(request);
-        return reviewsUtil.toReview(response);
+        return remoteServiceGuard.call(() -> reviewsUtil.toReview(blockingStub.create(request)), response -> false);
     }
 
     @Override
@@ -152,8 +179,7 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .setReview(reviewsUtil.toReviewRequest(review))
                 .build();
 
-        var response = blockingStub.update(request);
-        return reviewsUtil.toReview(response);
+        return remoteServiceGuard.call(() -> reviewsUtil.toReview(blockingStub.update(request)), response -> false);
     }
 
     @Override
@@ -165,8 +191,14 @@ public class ReviewRepositoryGRPC implements ReviewRepository {
                 .setId(id)
                 .build();
 
-        //noinspection ResultOfMethodCallIgnored
-        blockingStub.deleteById(request);
+        remoteServiceGuard.call(() -> blockingStub.deleteById(request), response -> false);
+    }
+
+    // Rating without reviews, shown while review-service is unavailable
+    private static ProductAndRatingInfo emptyRatingInfo(Long productId) {
+        var product = new Product();
+        product.setId(productId);
+        return new ProductAndRatingInfo(product, Collections.emptyList());
     }
 
     private List<GrpcReviewServiceOuterClass.IdNumberRequest> collectionToIdNumbersRequest(Collection<Long> ids) {
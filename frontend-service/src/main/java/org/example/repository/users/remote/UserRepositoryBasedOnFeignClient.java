@@ -1,14 +1,19 @@
 package org.example.repository.users.remote;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.users.User;
 import org.example.repository.FeignClientBaseClass;
+import org.example.repository.ValidatorCache;
 import org.example.repository.users.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -21,6 +26,18 @@ import java.util.Set;
 public class UserRepositoryBasedOnFeignClient extends FeignClientBaseClass implements UserRepository {
 
     private final UserServiceFeignClient userServiceFeignClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${user-service.validator-cache.max-size:1000}")
+    private int validatorCacheMaxSize;
+
+    // Last responses with their entity tags, every read is revalidated by the remote service
+    private ValidatorCache<Long> byIdValidatorCache;
+
+    @PostConstruct
+    void initValidatorCache() {
+        byIdValidatorCache = new ValidatorCache<>(validatorCacheMaxSize);
+    }
 
     @Override
     protected String getServiceName() {
@@ -30,25 +47,33 @@ public class UserRepositoryBasedOnFeignClient extends FeignClientBaseClass imple
     @Override
     public List<User> getAll() {
         log.info("Searching for all users");
-        return makeARequest(userServiceFeignClient::getAll, Collections::emptyList);
+        return makeAReadRequest("getAll", userServiceFeignClient::getAll, Collections::emptyList);
     }
 
     @Override
     public User getById(Long id) {
         log.info("Searching for user with id={}", id);
-        return makeARequest(() -> userServiceFeignClient.getById(id));
+        return makeAConditionalRequest(byIdValidatorCache, id,
+                eTag -> userServiceFeignClient.getById(id, eTag),
+                objectMapper.readerFor(User.class),
+                () -> null);
     }
 
     @Override
     public List<User> getByIds(Set<Long> ids) {
         log.info("Searching for users with ids={}", ids);
-        return makeARequest(() -> userServiceFeignClient.getByIds(ids), Collections::emptyList);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return makeAReadRequest(Arrays.asList("getByIds", ids),
+                () -> userServiceFeignClient.getByIds(ids), Collections::emptyList);
     }
 
     @Override
     public User getByUsername(String username) {
         log.info("Searching for user with username={}", username);
-        return makeARequest(() -> userServiceFeignClient.getByUsername(username));
+        return makeAReadRequest(Arrays.asList("getByUsername", username),
+                () -> userServiceFeignClient.getByUsername(username), () -> null);
     }
 
     @Override
@@ -60,12 +85,14 @@ public class UserRepositoryBasedOnFeignClient extends FeignClientBaseClass imple
     @Override
     public User update(Long id, User user) {
         log.info("Updating user with id={}, {}", id, user);
+        byIdValidatorCache.evict(id);
         return makeARequest(() -> userServiceFeignClient.update(id, user));
     }
 
     @Override
     public void deleteById(Long id) {
         log.warn("Deleting user id={}", id);
+        byIdValidatorCache.evict(id);
         makeARequest(() -> userServiceFeignClient.deleteById(id));
     }
 }
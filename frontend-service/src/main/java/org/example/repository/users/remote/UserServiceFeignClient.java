@@ -3,6 +3,7 @@ package org.example.repository.users.remote;
 import org.example.model.users.User;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,11 +17,14 @@ public interface UserServiceFeignClient {
     @GetMapping
     ResponseEntity<List<User>> getAll();
 
+    // Raw body, so it can be kept in the validator cache and reused on "304 Not Modified"
     @GetMapping("/{id}")
-    ResponseEntity<User> getById(@PathVariable Long id);
+    ResponseEntity<byte[]> getById(@PathVariable Long id,
+                                   @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String eTag);
 
-    @GetMapping("/ids/{ids}")
-    ResponseEntity<List<User>> getByIds(@PathVariable Collection<Long> ids);
+    // Ids in the request body, so large batches are not limited by the URL length
+    @PostMapping("/batch-get")
+    ResponseEntity<List<User>> getByIds(@RequestBody Collection<Long> ids);
 
     @GetMapping("/username/{username}")
     ResponseEntity<User> getByUsername(@PathVariable String username);
@@ -0,0 +1,18 @@
+package org.example.service.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class Notification {
+
+    // Source of the notification (e.g. logger name), used as the Kafka record key
+    private final String key;
+
+    private final String message;
+}
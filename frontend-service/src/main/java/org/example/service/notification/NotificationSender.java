@@ -4,5 +4,10 @@ import org.springframework.stereotype.Service;
 
 @Service
 public interface NotificationSender {
+
     void sendNotification(String message);
+
+    default void sendNotification(String key, String message) {
+        sendNotification(message);
+    }
 }
@@ -1,16 +1,16 @@
 package org.example.service.notification;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Using "System.out.println" because this service can be used
@@ -20,45 +20,114 @@ import java.util.Set;
 @Primary
 @ConditionalOnProperty(name = "notification-service.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
-@EnableScheduling
 public class NotificationSenderKafkaPublisher implements NotificationSender {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final NotificationsBuffer<Notification> messages;
 
     @Value("${spring.kafka.notifications-topic}")
     private String notificationsTopic;
 
-    private final Set<String> messages = new LinkedHashSet<>();
+    // How long the publishing thread sleeps when there is nothing to publish (if it is not woken up earlier)
+    @Value("${notification-service.publishing.idle-timeout-ms:1000}")
+    private long idleTimeoutMs;
+
+    private volatile Thread publishingThread;
+    private volatile boolean running;
+    private volatile boolean publishingThreadIdle;
+
+    private long droppedCountReported = 0;
+
+    @PostConstruct
+    void startPublishing() {
+        running = true;
+        publishingThread = Thread.ofPlatform()
+                .name("notifications-publisher")
+                .daemon()
+                .start(this::publishContinuously);
+    }
+
+    @PreDestroy
+    void stopPublishing() throws InterruptedException {
+        running = false;
+        var thread = publishingThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        sendNotificationsToKafka();
+        kafkaTemplate.flush();
+    }
 
     @Override
     public void sendNotification(String message) {
-        // We will cache messages first, otherwise Kafka for some reason stumbles and freezes
+        sendNotification(null, message);
+    }
+
+    @Override
+    public void sendNotification(String key, String message) {
+        // We will cache messages first, otherwise Kafka for some reason stumbles and freezes.
+        // The buffer is bounded and lock-free, so logging threads never wait here
         if (message == null || message.isEmpty()) {
             return;
         }
-        messages.add(message);
+        messages.offer(new Notification(key, message));
+        if (publishingThreadIdle) {
+            LockSupport.unpark(publishingThread);
+        }
     }
 
-    // Publishing messages to Kafka
-    @Scheduled(fixedRate = 5000)
-    public void sendNotificationsToKafka() {
-
-        var iterator = messages.iterator();
-        while (iterator.hasNext()) {
+    /**
+     * Publishes all the buffered messages to Kafka.
+     * Sending is asynchronous and is not flushed per message,
+     * so the producer groups records into batches (see 'linger.ms', 'batch.size', 'compression.type')
+     * @return number of published messages
+     */
+    public int sendNotificationsToKafka() {
 
-            var message = iterator.next();
+        reportDroppedMessages();
 
-            System.out.println("Publishing message to Kafka: " + message);
+        var published = 0;
 
+        Notification notification;
+        while ((notification = messages.poll()) != null) {
+            var message = notification.getMessage();
             try {
-                var future = kafkaTemplate.send(notificationsTopic, "key", message);
-                future.thenAccept(result -> System.out.println("Message published: " + result));
-                kafkaTemplate.flush();
+                kafkaTemplate.send(notificationsTopic, notification.getKey(), message)
+                        .whenComplete((result, e) -> {
+                            if (e != null) {
+                                System.out.println("Failed to publish message ('" + message + "'). " + e.getMessage());
+                            }
+                        });
+                published++;
             } catch (Exception e) {
                 System.out.println("Failed to publish message ('" + message + "'). " + e.getMessage());
             }
+        }
+
+        return published;
+    }
+
+    // Drains the buffer as long as there are messages, sleeps only when it is empty
+    private void publishContinuously() {
+        while (running) {
+            if (sendNotificationsToKafka() > 0) {
+                continue;
+            }
+            publishingThreadIdle = true;
+            if (messages.isEmpty() && running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs));
+            }
+            publishingThreadIdle = false;
+        }
+    }
 
-            iterator.remove();
+    private void reportDroppedMessages() {
+        var droppedCount = messages.getDroppedCount();
+        if (droppedCount > droppedCountReported) {
+            System.out.println("Notifications buffer is overflowed, messages dropped: "
+                    + (droppedCount - droppedCountReported) + " (total: " + droppedCount + ")");
+            droppedCountReported = droppedCount;
         }
     }
 }
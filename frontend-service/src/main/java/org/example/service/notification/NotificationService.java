@@ -12,4 +12,8 @@ public class NotificationService {
     public void sendNotification(String content) {
         notificationSender.sendNotification(content);
     }
+
+    public void sendNotification(String source, String content) {
+        notificationSender.sendNotification(source, content);
+    }
 }
@@ -0,0 +1,174 @@
+package org.example.service.notification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer of notifications (array-based queue with per-slot sequence numbers).
+ * Many logging threads add messages, the publishing thread drains them.
+ * The buffer never grows - when it is full, the {@link OverflowPolicy} decides which message is dropped,
+ * and every dropped message is counted.
+ * Using no logging here, because messages come from the logger itself (which will cause recursion)
+ */
+public class NotificationsBuffer<E> {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        // keeps every 'sampleRate'-th overflowing message (instead of the oldest one), drops the rest
+        SAMPLE
+    }
+
+    // Producers evicting the oldest message compete with each other, so it is not retried forever
+    private static final int EVICTION_ATTEMPTS = 3;
+
+    private final AtomicReferenceArray<E> messages;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final AtomicLong overflowCounter = new AtomicLong();
+    private final LongAdder droppedCounter = new LongAdder();
+
+    public NotificationsBuffer(int capacity, OverflowPolicy overflowPolicy, int sampleRate) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of notifications buffer must be positive: " + capacity);
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate of notifications buffer must be positive: " + sampleRate);
+        }
+
+        var size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.messages = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return false if the message was dropped
+     */
+    public boolean offer(E message) {
+
+        if (tryOffer(message)) {
+            return true;
+        }
+
+        return switch (overflowPolicy) {
+            case DROP_NEWEST -> drop();
+            case DROP_OLDEST -> replaceOldest(message);
+            case SAMPLE -> overflowCounter.incrementAndGet() % sampleRate == 0
+                    ? replaceOldest(message)
+                    : drop();
+        };
+    }
+
+    /**
+     * @return the oldest message or null if the buffer is empty
+     */
+    public E poll() {
+        var position = head.get();
+        while (true) {
+            var index = (int) (position & mask);
+            var difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    var message = messages.getAndSet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return message;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * @return number of drained messages
+     */
+    public int drainTo(Consumer<? super E> consumer, int maxMessages) {
+        var drained = 0;
+        while (drained < maxMessages) {
+            var message = poll();
+            if (message == null) {
+                break;
+            }
+            consumer.accept(message);
+            drained++;
+        }
+        return drained;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        var size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getDroppedCount() {
+        return droppedCounter.sum();
+    }
+
+    private boolean tryOffer(E message) {
+        var position = tail.get();
+        while (true) {
+            var index = (int) (position & mask);
+            var difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    messages.set(index, message);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private boolean replaceOldest(E message) {
+        for (int attempt = 0; attempt < EVICTION_ATTEMPTS; attempt++) {
+            if (poll() != null) {
+                droppedCounter.increment();
+            }
+            if (tryOffer(message)) {
+                return true;
+            }
+        }
+        return drop();
+    }
+
+    private boolean drop() {
+        droppedCounter.increment();
+        return false;
+    }
+}
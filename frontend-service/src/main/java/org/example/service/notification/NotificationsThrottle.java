@@ -0,0 +1,106 @@
+package org.example.service.notification;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suppresses identical notifications within a time window and limits the number of notifications per second.
+ * Is called from logging threads, so it is lock-free and uses no logging itself (which will cause recursion)
+ */
+public class NotificationsThrottle {
+
+    private final long deduplicationWindowNanos;
+    private final int maxPerSecond;
+    private final int maxTrackedMessages;
+
+    private final ConcurrentHashMap<String, Long> lastAcceptedTimes = new ConcurrentHashMap<>();
+
+    // Rate limit window: the second (high 32 bits) and the number of messages accepted in it (low 32 bits),
+    // one atomic value, so the second and its counter are always changed together
+    private final AtomicLong rateLimitWindow = new AtomicLong();
+
+    private final LongAdder duplicatesCounter = new LongAdder();
+    private final LongAdder rateLimitedCounter = new LongAdder();
+
+    /**
+     * @param deduplicationWindowMs identical messages within this window are suppressed (0 - no deduplication)
+     * @param maxPerSecond max number of accepted messages per second (0 - unlimited)
+     * @param maxTrackedMessages max number of distinct messages remembered for deduplication
+     */
+    public NotificationsThrottle(long deduplicationWindowMs, int maxPerSecond, int maxTrackedMessages) {
+        this.deduplicationWindowNanos = TimeUnit.MILLISECONDS.toNanos(deduplicationWindowMs);
+        this.maxPerSecond = maxPerSecond;
+        this.maxTrackedMessages = maxTrackedMessages;
+    }
+
+    public boolean tryAcquire(String message) {
+        return tryAcquire(message, System.nanoTime());
+    }
+
+    boolean tryAcquire(String message, long nowNanos) {
+
+        if (isDuplicate(message, nowNanos)) {
+            duplicatesCounter.increment();
+            return false;
+        }
+
+        if (!isWithinRateLimit(nowNanos)) {
+            // The message is not sent, so it mustn't suppress the same message as a duplicate
+            if (deduplicationWindowNanos > 0) {
+                lastAcceptedTimes.remove(message, nowNanos);
+            }
+            rateLimitedCounter.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    public long getDuplicatesCount() {
+        return duplicatesCounter.sum();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCounter.sum();
+    }
+
+    private boolean isDuplicate(String message, long nowNanos) {
+
+        if (deduplicationWindowNanos <= 0) {
+            return false;
+        }
+
+        // Messages are not removed one by one, so the map is simply reset when it is too big
+        if (lastAcceptedTimes.size() >= maxTrackedMessages) {
+            lastAcceptedTimes.clear();
+        }
+
+        var acceptedTime = lastAcceptedTimes.compute(message, (key, previousTime) ->
+                previousTime != null && nowNanos - previousTime < deduplicationWindowNanos
+                        ? previousTime
+                        : nowNanos);
+
+        return acceptedTime != nowNanos;
+    }
+
+    private boolean isWithinRateLimit(long nowNanos) {
+
+        if (maxPerSecond <= 0) {
+            return true;
+        }
+
+        var second = (int) TimeUnit.NANOSECONDS.toSeconds(nowNanos);
+        while (true) {
+            var window = rateLimitWindow.get();
+            var accepted = (int) (window >>> 32) == second ? (int) window : 0;
+            if (accepted >= maxPerSecond) {
+                return false;
+            }
+            if (rateLimitWindow.compareAndSet(window, ((long) second << 32) | (accepted + 1))) {
+                return true;
+            }
+        }
+    }
+}
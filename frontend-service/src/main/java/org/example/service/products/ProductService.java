@@ -5,9 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.exception.NotFoundException;
 import org.example.model.products.Category;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.model.users.User;
 import org.example.repository.products.ProductRepository;
 import org.example.service.modelsBinding.ModelBinder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,12 +22,21 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ModelBinder modelBinder;
 
+    @Value("${products.page-size:20}")
+    private int pageSize;
+
     public List<Product> getAll() {
         log.info("Searching for all products");
         var result = productRepository.getAll(null, null, null);
         return modelBinder.bindFields(result);
     }
 
+    // Products of a page have only id and name, so they are not bound
+    public ProductPage getPage(String cursor) {
+        log.info("Searching for page of products, cursor={}", cursor);
+        return productRepository.getPage(cursor, pageSize);
+    }
+
     public List<Product> getAll(String name, Category category, User user) {
         log.info("Searching for products by params");
         var result = productRepository.getAll(name, category, user);
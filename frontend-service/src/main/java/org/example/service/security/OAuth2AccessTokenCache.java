@@ -0,0 +1,156 @@
+package org.example.service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Access tokens of OAuth2 client registrations (client credentials of the remote services).
+ * Reading a valid token is lock-free (a volatile read).
+ * A token is refreshed in the background ahead of its expiry, and only one refresh per registration runs at a time,
+ * so the authorization server gets one token request per token lifetime.
+ * Requests wait for a token only if there is no valid one (the first request or after a failed refresh).
+ */
+@Slf4j
+public class OAuth2AccessTokenCache {
+
+    private final Function<String, OAuth2AccessToken> tokenLoader;
+    private final Duration refreshAhead;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private volatile OAuth2AccessToken token;
+        private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+        private final ReentrantLock loadLock = new ReentrantLock();
+    }
+
+    /**
+     * @param tokenLoader requests a new token by the registration id
+     * @param refreshAhead how long before the expiry a token is refreshed (at most a half of the token lifetime)
+     */
+    public OAuth2AccessTokenCache(Function<String, OAuth2AccessToken> tokenLoader, Duration refreshAhead,
+                                  Executor refreshExecutor, Clock clock) {
+        this.tokenLoader = tokenLoader;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * @return value of a valid token, or null if the token can't be received
+     */
+    public String getTokenValue(String registrationId) {
+
+        var entry = entries.get(registrationId);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(registrationId, id -> new Entry());
+        }
+
+        var now = clock.instant();
+        var token = entry.token;
+        if (isValid(token, now)) {
+            if (needsRefresh(token, now)) {
+                scheduleRefresh(registrationId, entry);
+            }
+            return token.getTokenValue();
+        }
+
+        token = loadIfInvalid(registrationId, entry);
+        return token == null ? null : token.getTokenValue();
+    }
+
+    public void evict(String registrationId) {
+        entries.remove(registrationId);
+    }
+
+    private void scheduleRefresh(String registrationId, Entry entry) {
+        if (!entry.refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshIfNeeded(registrationId, entry);
+                } finally {
+                    entry.refreshScheduled.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            entry.refreshScheduled.set(false);
+            log.error("Unable to schedule refresh of the token of '{}'", registrationId, e);
+        }
+    }
+
+    private void refreshIfNeeded(String registrationId, Entry entry) {
+        entry.loadLock.lock();
+        try {
+            var token = entry.token;
+            if (isValid(token, clock.instant()) && !needsRefresh(token, clock.instant())) {
+                // Already refreshed by a request that found no valid token
+                return;
+            }
+            load(registrationId, entry);
+        } finally {
+            entry.loadLock.unlock();
+        }
+    }
+
+    private OAuth2AccessToken loadIfInvalid(String registrationId, Entry entry) {
+        entry.loadLock.lock();
+        try {
+            var token = entry.token;
+            if (isValid(token, clock.instant())) {
+                // Loaded by a concurrent request while this one was waiting
+                return token;
+            }
+            return load(registrationId, entry);
+        } finally {
+            entry.loadLock.unlock();
+        }
+    }
+
+    private OAuth2AccessToken load(String registrationId, Entry entry) {
+        try {
+            var token = tokenLoader.apply(registrationId);
+            if (token != null) {
+                entry.token = token;
+            }
+            log.info("Token of '{}' is received, expires at {}", registrationId, token == null ? null : token.getExpiresAt());
+            return token;
+        } catch (RuntimeException e) {
+            // The current token (if it is still valid) is used until the next attempt
+            log.error("Unable to receive token of '{}'", registrationId, e);
+            return null;
+        }
+    }
+
+    private static boolean isValid(OAuth2AccessToken token, Instant now) {
+        return token != null && (token.getExpiresAt() == null || now.isBefore(token.getExpiresAt()));
+    }
+
+    private boolean needsRefresh(OAuth2AccessToken token, Instant now) {
+        if (token.getExpiresAt() == null) {
+            return false;
+        }
+        var refreshAheadOfToken = refreshAhead;
+        if (token.getIssuedAt() != null) {
+            // Short-living tokens would be refreshed on every request otherwise
+            var halfOfLifetime = Duration.between(token.getIssuedAt(), token.getExpiresAt()).dividedBy(2);
+            if (halfOfLifetime.compareTo(refreshAheadOfToken) < 0) {
+                refreshAheadOfToken = halfOfLifetime;
+            }
+        }
+        return !now.isBefore(token.getExpiresAt().minus(refreshAheadOfToken));
+    }
+}
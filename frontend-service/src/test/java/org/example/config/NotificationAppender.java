@@ -1,9 +1,20 @@
 package org.example.config;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import lombok.Setter;
 
-public class NotificationAppender extends AppenderBase<ILoggingEvent> {
+// Properties are only declared, so that "logback-spring.xml" can be parsed
+@Setter
+public class NotificationAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private String minLevel;
+    private String includedLoggers;
+    private String excludedLoggers;
+    private String markers;
+    private long deduplicationWindowMs;
+    private int maxPerSecond;
+    private int maxTrackedMessages;
 
     @Override
     protected void append(ILoggingEvent eventObject) {
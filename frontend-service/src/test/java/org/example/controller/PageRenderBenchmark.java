@@ -0,0 +1,165 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.example.model.products.Category;
+import org.example.model.products.Product;
+import org.example.model.users.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Product pages rendered concurrently while product-service answers with a fixed delay (a Feign call per page):
+ * "off" - Tomcat platform-thread pool (200 threads by default), requests beyond it wait in the queue,
+ * "on" - a virtual thread per request, concurrency is limited by the heap and the remote service.
+ * Run manually with the same heap, once per mode:
+ * ./gradlew test --tests '*PageRenderBenchmark' -Dbenchmark.heap=256m -Dbenchmark.page-render.concurrency=2000 -Dbenchmark.page-render.virtual-threads=false
+ * ./gradlew test --tests '*PageRenderBenchmark' -Dbenchmark.heap=256m -Dbenchmark.page-render.concurrency=2000 -Dbenchmark.page-render.virtual-threads=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnableFeignClients
+@EnabledIfSystemProperty(named = "benchmark.page-render.concurrency", matches = "\\d+")
+class PageRenderBenchmark {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final int REMOTE_DELAY_MS = 200;
+    private static final Duration PAGE_TIMEOUT = Duration.ofSeconds(30);
+
+    @RegisterExtension
+    static WireMockExtension wireMockExtension = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(1_000).jettyAcceptors(4))
+            .build();
+
+    @DynamicPropertySource
+    static void setUpProperties(DynamicPropertyRegistry registry) {
+        registry.add("product-service.enabled", () -> "true");
+        registry.add("product-service.url", () -> wireMockExtension.baseUrl() + "/api/v1/products");
+        registry.add("spring.threads.virtual.enabled",
+                () -> System.getProperty("benchmark.page-render.virtual-threads", "false"));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int concurrency = Integer.parseInt(System.getProperty("benchmark.page-render.concurrency", "0"));
+
+    @BeforeEach
+    void setUp() throws JsonProcessingException {
+        var product = new Product(PRODUCT_ID, "Product", "Description of product",
+                new Category(1, "category"), new User(1L, "user"), LocalDateTime.now());
+        wireMockExtension.stubFor(get(urlEqualTo("/api/v1/products/" + PRODUCT_ID))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(200)
+                        .withFixedDelay(REMOTE_DELAY_MS)
+                        .withBody(objectMapper.writeValueAsString(product))));
+    }
+
+    @Test
+    void renderProductPagesConcurrently() throws InterruptedException {
+
+        var httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(PAGE_TIMEOUT)
+                .build();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products/" + PRODUCT_ID))
+                .timeout(PAGE_TIMEOUT)
+                .GET()
+                .build();
+
+        // Warm-up: templates, Feign client and connections
+        for (int i = 0; i < 20; i++) {
+            sendQuietly(httpClient, request);
+        }
+
+        var rendered = new AtomicInteger();
+        var failed = new AtomicInteger();
+        var latenciesMs = Collections.synchronizedList(new ArrayList<Long>(concurrency));
+        var start = new CountDownLatch(1);
+        var finished = new CountDownLatch(concurrency);
+
+        var startNanos = 0L;
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        var requestStart = System.nanoTime();
+                        var status = sendQuietly(httpClient, request);
+                        latenciesMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStart));
+                        (status == 200 ? rendered : failed).incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            startNanos = System.nanoTime();
+            start.countDown();
+            finished.await();
+        }
+        var elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        report(rendered.get(), failed.get(), elapsedMs, latenciesMs);
+    }
+
+    private static int sendQuietly(HttpClient httpClient, HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private void report(int rendered, int failed, long elapsedMs, List<Long> latenciesMs) {
+        var sorted = new ArrayList<>(latenciesMs);
+        Collections.sort(sorted);
+        var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        System.out.printf(
+                "virtual threads %s: %d concurrent pages, %d rendered, %d failed in %d ms (%.0f pages/s), " +
+                        "latency p50 %d ms, p99 %d ms, max %d ms, heap used %d MB of %d MB%n",
+                System.getProperty("benchmark.page-render.virtual-threads", "false"),
+                concurrency, rendered, failed, elapsedMs, rendered * 1000.0 / Math.max(elapsedMs, 1),
+                percentile(sorted, 50), percentile(sorted, 99), sorted.isEmpty() ? 0 : sorted.getLast(),
+                heap.getUsed() >> 20, heap.getMax() >> 20);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
@@ -3,6 +3,7 @@ package org.example.controller;
 import org.example.exception.NotFoundException;
 import org.example.model.orders.Order;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.model.reviews.ProductAndRatingInfo;
 import org.example.model.reviews.Review;
 import org.example.service.orders.OrderService;
@@ -17,7 +18,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,28 +46,34 @@ class ProductControllerTest {
     void shouldReturnProductsPageWhenGetAll() throws Exception {
 
         var productsExpected = easyRandom.objects(Product.class, 3).toList();
+        var page = new ProductPage(productsExpected, "next-cursor", "prev-cursor");
 
-        when(productService.getAll()).thenReturn(productsExpected);
+        when(productService.getPage("cursor")).thenReturn(page);
 
-        mockMvc.perform(get("/products"))
+        mockMvc.perform(get("/products").param("cursor", "cursor"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("products/products"))
-                .andExpect(model().attribute("products", productsExpected));
+                .andExpect(model().attribute("products", productsExpected))
+                .andExpect(model().attribute("nextCursor", "next-cursor"))
+                .andExpect(model().attribute("prevCursor", "prev-cursor"));
 
-        verify(productService, times(1)).getAll();
+        verify(productService, times(1)).getPage("cursor");
+        verify(productService, never()).getAll();
     }
 
     @Test
     void shouldReturnEmptyProductsPageWhenGetAll() throws Exception {
 
-        when(productService.getAll()).thenReturn(Collections.emptyList());
+        when(productService.getPage(null)).thenReturn(new ProductPage());
 
         mockMvc.perform(get("/products"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("products/products"))
-                .andExpect(model().attribute("products", Collections.emptyList()));
+                .andExpect(model().attribute("products", Collections.emptyList()))
+                .andExpect(model().attribute("nextCursor", nullValue()))
+                .andExpect(model().attribute("prevCursor", nullValue()));
 
-        verify(productService, times(1)).getAll();
+        verify(productService, times(1)).getPage(null);
     }
 
     @Test
@@ -95,6 +104,30 @@ class ProductControllerTest {
         verify(reviewService, times(1)).getRatingInfoOfProduct(productExpected);
     }
 
+    @Test
+    void shouldReturnProductPageWithUnavailableOrdersWhenGetByIdAndOrderServiceFails() throws Exception {
+
+        var id = 235L;
+
+        var productExpected = easyRandom.nextObject(Product.class);
+        productExpected.setId(id);
+
+        var reviews = easyRandom.objects(Review.class, 2).toList();
+        var productAndRatingInfo = new ProductAndRatingInfo(productExpected, reviews);
+
+        when(productService.getById(id)).thenReturn(productExpected);
+        when(orderService.getAllByProduct(productExpected)).thenThrow(new IllegalStateException("order-service failed"));
+        when(reviewService.getRatingInfoOfProduct(productExpected)).thenReturn(productAndRatingInfo);
+
+        mockMvc.perform(get("/products/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(view().name("products/product"))
+                .andExpect(model().attribute("product", productExpected))
+                .andExpect(model().attribute("orders", Collections.emptyList()))
+                .andExpect(model().attribute("productAndRatingInfo", productAndRatingInfo))
+                .andExpect(model().attribute("unavailableSections", Set.of("orders")));
+    }
+
     @Test
     void shouldReturnErrorPageWhenGetById() throws Exception {
 
@@ -5,6 +5,7 @@ import org.example.model.orders.Order;
 import org.example.model.products.Product;
 import org.example.model.reviews.Review;
 import org.example.model.users.User;
+import org.example.repository.RemoteServiceGuard;
 import org.example.service.orders.OrderService;
 import org.example.service.products.ProductService;
 import org.example.service.reviews.ReviewService;
@@ -17,7 +18,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -101,6 +107,41 @@ class UserControllerTest {
         verify(reviewService, times(1)).getAllByUser(userExpected);
     }
 
+    @Test
+    void shouldReturnUserPageWithUnavailableSectionsWhenGetByIdAndRemoteServicesFail() throws Exception {
+
+        var id = 235L;
+
+        var userExpected = easyRandom.nextObject(User.class);
+        userExpected.setId(id);
+
+        var products = easyRandom.objects(Product.class, 3).toList();
+
+        // review-service fails behind its guard, which returns the default value
+        var reviewServiceGuard = new RemoteServiceGuard("review-service", 10, Duration.ZERO, 5, Duration.ofSeconds(10),
+                Duration.ZERO, 100, Duration.ofMinutes(10), Executors.newVirtualThreadPerTaskExecutor(), Clock.systemUTC());
+
+        when(userService.getById(id)).thenReturn(userExpected);
+        when(productService.getAll(null, null, userExpected)).thenReturn(products);
+        when(orderService.getAllByUser(userExpected)).thenThrow(new IllegalStateException("order-service failed"));
+        when(reviewService.getAllByUser(userExpected)).thenAnswer(invocation -> reviewServiceGuard.read(
+                List.of("getAllByUser", id),
+                () -> {
+                    throw new IllegalStateException("review-service failed");
+                },
+                result -> false,
+                Collections::emptyList));
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(view().name("users/user"))
+                .andExpect(model().attribute("user", userExpected))
+                .andExpect(model().attribute("products", products))
+                .andExpect(model().attribute("orders", Collections.emptyList()))
+                .andExpect(model().attribute("reviews", Collections.emptyList()))
+                .andExpect(model().attribute("unavailableSections", Set.of("orders", "reviews")));
+    }
+
     @Test
     void shouldReturnErrorPageWhenGetById() throws Exception {
 
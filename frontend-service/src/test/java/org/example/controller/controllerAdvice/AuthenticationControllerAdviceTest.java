@@ -7,11 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
 
 import java.security.Principal;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -20,6 +21,9 @@ class AuthenticationControllerAdviceTest {
     @Autowired
     private AuthenticationControllerAdvice authenticationControllerAdvice;
 
+    @Autowired
+    private CurrentUserSessionCache currentUserSessionCache;
+
     @MockBean
     private UserService userService;
 
@@ -28,7 +32,7 @@ class AuthenticationControllerAdviceTest {
     @Test
     void shouldReturnNullIfPrincipalIsNullWhenGetCurrentUser() {
 
-        var userReceived = authenticationControllerAdvice.getCurrentUser(null);
+        var userReceived = authenticationControllerAdvice.getCurrentUser(null, new MockHttpServletRequest());
         assertNull(userReceived);
 
         verify(userService, never()).getByUsername(any());
@@ -45,7 +49,7 @@ class AuthenticationControllerAdviceTest {
             }
         };
 
-        var userReceived = authenticationControllerAdvice.getCurrentUser(principal);
+        var userReceived = authenticationControllerAdvice.getCurrentUser(principal, new MockHttpServletRequest());
         assertNull(userReceived);
 
         verify(userService, never()).getByUsername(any());
@@ -67,7 +71,7 @@ class AuthenticationControllerAdviceTest {
 
         when(userService.getByUsername(username)).thenReturn(userExisting);
 
-        var userReceived = authenticationControllerAdvice.getCurrentUser(principal);
+        var userReceived = authenticationControllerAdvice.getCurrentUser(principal, new MockHttpServletRequest());
         assertEquals(userExisting, userReceived);
         assertEquals(userExisting.getId(), userReceived.getId());
 
@@ -92,11 +96,68 @@ class AuthenticationControllerAdviceTest {
 
         when(userService.create(any(User.class))).thenAnswer(ans -> ans.getArgument(0, User.class));
 
-        var userReceived = authenticationControllerAdvice.getCurrentUser(principal);
+        var userReceived = authenticationControllerAdvice.getCurrentUser(principal, new MockHttpServletRequest());
         assertEquals(userToBeCreated, userReceived);
         assertEquals(userToBeCreated.getId(), userReceived.getId());
 
         verify(userService, times(1)).getByUsername(username);
         verify(userService, times(1)).create(userToBeCreated);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnUserFromSessionWhenGetCurrentUserTwice() {
+
+        var userExisting = easyRandom.nextObject(User.class);
+        var username = userExisting.getUsername();
+
+        var principal = new Principal() {
+            @Override
+            public String getName() {
+                return username;
+            }
+        };
+
+        var request = new MockHttpServletRequest();
+        request.setSession(new MockHttpSession());
+
+        when(userService.getByUsername(username)).thenReturn(userExisting);
+
+        var userReceivedFirst = authenticationControllerAdvice.getCurrentUser(principal, request);
+        var userReceivedSecond = authenticationControllerAdvice.getCurrentUser(principal, request);
+
+        assertEquals(userExisting, userReceivedFirst);
+        assertEquals(userExisting, userReceivedSecond);
+        assertEquals(userExisting.getId(), userReceivedSecond.getId());
+        assertNotNull(request.getSession().getAttribute(CurrentUserSessionCache.SESSION_ATTRIBUTE));
+
+        verify(userService, times(1)).getByUsername(username);
+        verify(userService, only()).getByUsername(username);
+    }
+
+    @Test
+    void shouldRequestUserAgainAfterEvictionWhenGetCurrentUser() {
+
+        var userExisting = easyRandom.nextObject(User.class);
+        var username = userExisting.getUsername();
+
+        var principal = new Principal() {
+            @Override
+            public String getName() {
+                return username;
+            }
+        };
+
+        var request = new MockHttpServletRequest();
+        request.setSession(new MockHttpSession());
+
+        when(userService.getByUsername(username)).thenReturn(userExisting);
+
+        authenticationControllerAdvice.getCurrentUser(principal, request);
+        currentUserSessionCache.evict(request);
+        var userReceived = authenticationControllerAdvice.getCurrentUser(principal, request);
+
+        assertEquals(userExisting, userReceived);
+
+        verify(userService, times(2)).getByUsername(username);
+    }
+}
@@ -3,6 +3,7 @@ package org.example.controller.converter;
 import org.example.model.products.Category;
 import org.example.repository.products.ProductRepository;
 import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -25,6 +26,14 @@ class CategoryConverterTest {
 
     private final EasyRandom easyRandom = new EasyRandom();
 
+    @Autowired
+    private ModelsLookupCache modelsLookupCache;
+
+    @BeforeEach
+    public void clearLookupCache() {
+        modelsLookupCache.clear();
+    }
+
     @Test
     public void shouldReturnNullWhenConvert() {
         var categoryReceived = categoryConverter.convert(null);
@@ -3,6 +3,7 @@ package org.example.controller.converter;
 import org.example.model.products.Product;
 import org.example.repository.products.ProductRepository;
 import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -25,6 +26,14 @@ class ProductConverterTest {
 
     private final EasyRandom easyRandom = new EasyRandom();
 
+    @Autowired
+    private ModelsLookupCache modelsLookupCache;
+
+    @BeforeEach
+    public void clearLookupCache() {
+        modelsLookupCache.clear();
+    }
+
     @Test
     public void shouldReturnNullWhenConvert() {
         var productReceived = productConverter.convert("");
@@ -48,6 +57,45 @@ class ProductConverterTest {
         verify(productRepository, times(1)).getById(id);
     }
 
+    @Test
+    public void shouldReturnProductFromLookupCacheWhenConvertRepeatedly() {
+
+        var product = easyRandom.nextObject(Product.class);
+        product.setId(4321L);
+
+        when(productRepository.getById(product.getId())).thenReturn(product);
+
+        assertEquals(product, productConverter.convert(String.valueOf(product.getId())));
+        assertEquals(product, productConverter.convert(product.getUniqueView()));
+
+        verify(productRepository, times(1)).getById(product.getId());
+    }
+
+    @Test
+    public void shouldReturnCopyFromLookupCacheWhenConvertRepeatedly() {
+
+        var product = easyRandom.nextObject(Product.class);
+        product.setId(4322L);
+        var name = product.getName();
+        var categoryName = product.getCategoryName();
+
+        when(productRepository.getById(product.getId())).thenReturn(product);
+
+        var productReceived = productConverter.convert(String.valueOf(product.getId()));
+        assertNotNull(productReceived);
+        productReceived.setName("modified");
+        productReceived.getCategory().setName("modified");
+
+        var productReceivedAgain = productConverter.convert(String.valueOf(product.getId()));
+        assertNotNull(productReceivedAgain);
+        assertNotSame(productReceived, productReceivedAgain);
+        assertNotSame(productReceived.getCategory(), productReceivedAgain.getCategory());
+        assertEquals(name, productReceivedAgain.getName());
+        assertEquals(categoryName, productReceivedAgain.getCategoryName());
+
+        verify(productRepository, times(1)).getById(product.getId());
+    }
+
     @Test
     public void shouldReturnNullFromIdWhenConvert() {
 
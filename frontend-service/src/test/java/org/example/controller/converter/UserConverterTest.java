@@ -3,6 +3,7 @@ package org.example.controller.converter;
 import org.example.model.users.User;
 import org.example.repository.users.UserRepository;
 import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -22,6 +23,14 @@ class UserConverterTest {
 
     private final EasyRandom easyRandom = new EasyRandom();
 
+    @Autowired
+    private ModelsLookupCache modelsLookupCache;
+
+    @BeforeEach
+    public void clearLookupCache() {
+        modelsLookupCache.clear();
+    }
+
     @Test
     public void shouldReturnNullWhenConvert() {
         var userReceived = userConverter.convert("");
@@ -45,6 +54,20 @@ class UserConverterTest {
         verify(userRepository, times(1)).getById(id);
     }
 
+    @Test
+    public void shouldReturnUserFromLookupCacheWhenConvertRepeatedly() {
+
+        var user = easyRandom.nextObject(User.class);
+        user.setId(4321L);
+
+        when(userRepository.getById(user.getId())).thenReturn(user);
+
+        assertEquals(user, userConverter.convert(String.valueOf(user.getId())));
+        assertEquals(user, userConverter.convert(user.getUniqueView()));
+
+        verify(userRepository, times(1)).getById(user.getId());
+    }
+
     @Test
     public void shouldReturnNullFromIdWhenConvert() {
 
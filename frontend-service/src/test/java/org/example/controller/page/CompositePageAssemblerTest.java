@@ -0,0 +1,151 @@
+package org.example.controller.page;
+
+import org.example.repository.RemoteServiceGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositePageAssemblerTest {
+
+    private final CompositePageAssembler assembler = new CompositePageAssembler(new MockEnvironment()
+            .withProperty("pages.sections.slow.deadline-ms", "100"));
+
+    @AfterEach
+    void tearDown() {
+        assembler.shutdown();
+    }
+
+    @Test
+    void shouldAddLoadedSectionsWhenAddTo() {
+
+        var model = new ExtendedModelMap();
+
+        assembler.newPage()
+                .section("products", () -> List.of("product"), Collections::emptyList)
+                .section("orders", () -> List.of("order"), Collections::emptyList)
+                .addTo(model);
+
+        assertEquals(List.of("product"), model.getAttribute("products"));
+        assertEquals(List.of("order"), model.getAttribute("orders"));
+        assertEquals(Set.of(), model.getAttribute(CompositePageAssembler.UNAVAILABLE_SECTIONS_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldUseFallbackAndInterruptSectionWhenDeadlinePassed() throws InterruptedException {
+
+        var interrupted = new CountDownLatch(1);
+        var model = new ExtendedModelMap();
+
+        assembler.newPage()
+                .section("slow", () -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return List.of("late");
+                }, Collections::emptyList)
+                .section("orders", () -> List.of("order"), Collections::emptyList)
+                .addTo(model);
+
+        assertEquals(Collections.emptyList(), model.getAttribute("slow"));
+        assertEquals(List.of("order"), model.getAttribute("orders"));
+        assertEquals(Set.of("slow"), model.getAttribute(CompositePageAssembler.UNAVAILABLE_SECTIONS_ATTRIBUTE));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldReleasePermitsOfHedgedAttemptsWhenDeadlinePassed() throws InterruptedException {
+
+        var guard = new RemoteServiceGuard("review-service", 2, Duration.ZERO, 5, Duration.ofSeconds(10),
+                Duration.ofMillis(20), 100, Duration.ofMinutes(10), Executors.newVirtualThreadPerTaskExecutor(),
+                Clock.systemUTC());
+        var attemptsInterrupted = new CountDownLatch(2);
+        var model = new ExtendedModelMap();
+
+        // Both attempts of the hedged read are blocked in "I/O" past the deadline
+        assembler.newPage()
+                .section("slow", () -> guard.read("getAllByUser", () -> {
+                    try {
+                        Thread.sleep(10_000);
+                        return List.of("late");
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        attemptsInterrupted.countDown();
+                        throw new IllegalStateException("interrupted");
+                    }
+                }, result -> false, Collections::emptyList), Collections::emptyList)
+                .addTo(model);
+
+        assertEquals(Set.of("slow"), model.getAttribute(CompositePageAssembler.UNAVAILABLE_SECTIONS_ATTRIBUTE));
+        assertTrue(attemptsInterrupted.await(5, TimeUnit.SECONDS));
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (guard.availableCalls() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, guard.availableCalls());
+    }
+
+    @Test
+    void shouldUseFallbackWhenSectionReturnsNull() {
+
+        var model = new ExtendedModelMap();
+
+        assembler.newPage()
+                .section("orders", () -> null, () -> List.of("fallback"))
+                .addTo(model);
+
+        assertEquals(List.of("fallback"), model.getAttribute("orders"));
+        assertEquals(Set.of("orders"), model.getAttribute(CompositePageAssembler.UNAVAILABLE_SECTIONS_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldUseFallbackWhenSectionFails() {
+
+        var model = new ExtendedModelMap();
+
+        assembler.newPage()
+                .section("orders", () -> {
+                    throw new IllegalStateException("order-service failed");
+                }, () -> List.of("fallback"))
+                .addTo(model);
+
+        assertEquals(List.of("fallback"), model.getAttribute("orders"));
+        assertEquals(Set.of("orders"), model.getAttribute(CompositePageAssembler.UNAVAILABLE_SECTIONS_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldMarkSectionUnavailableWhenServedFromFallbackOfGuard() {
+
+        var guard = new RemoteServiceGuard("review-service", 10, Duration.ZERO, 5, Duration.ofSeconds(10),
+                Duration.ZERO, 100, Duration.ofMinutes(10), Executors.newVirtualThreadPerTaskExecutor(),
+                Clock.systemUTC());
+        var model = new ExtendedModelMap();
+
+        assembler.newPage()
+                .section("reviews", () -> guard.read("getAllByUser", () -> {
+                    throw new IllegalStateException("review-service failed");
+                }, result -> false, () -> List.of("default")), Collections::emptyList)
+                .section("orders", () -> guard.read("getAllOrders", () -> List.of("order"),
+                        result -> false, Collections::emptyList), Collections::emptyList)
+                .addTo(model);
+
+        // The value of the guard is kept, the section is marked as degraded
+        assertEquals(List.of("default"), model.getAttribute("reviews"));
+        assertEquals(List.of("order"), model.getAttribute("orders"));
+        assertEquals(Set.of("reviews"), model.getAttribute(CompositePageAssembler.UNAVAILABLE_SECTIONS_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.repository;
+
+import org.example.exception.RemoteServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteServiceGuardTest {
+
+    private static final String KEY = "getAll";
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private RemoteServiceGuard newGuard(int maxConcurrentCalls, Duration hedgeDelay) {
+        return new RemoteServiceGuard("test-service", maxConcurrentCalls, Duration.ZERO,
+                FAILURE_THRESHOLD, OPEN_DURATION, hedgeDelay, 100, Duration.ofMinutes(10),
+                Executors.newVirtualThreadPerTaskExecutor(), clock);
+    }
+
+    private String failingCall() {
+        calls.incrementAndGet();
+        throw new IllegalStateException("remote service failed");
+    }
+
+    @Test
+    void shouldReturnLastSuccessfulResultWhenReadFails() {
+
+        var guard = newGuard(10, Duration.ZERO);
+
+        assertEquals("result", guard.read(KEY, () -> "result", result -> false, () -> "default"));
+        assertEquals("result", guard.read(KEY, this::failingCall, result -> false, () -> "default"));
+        assertEquals("default", guard.read("other", this::failingCall, result -> false, () -> "default"));
+    }
+
+    @Test
+    void shouldRejectCallsWithoutCallingServiceWhenCircuitIsOpen() {
+
+        var guard = newGuard(10, Duration.ZERO);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            guard.read(KEY, this::failingCall, result -> false, () -> "default");
+        }
+        assertTrue(guard.isOpen());
+
+        assertEquals("default", guard.read(KEY, this::failingCall, result -> false, () -> "default"));
+        assertThrows(RemoteServiceUnavailableException.class, () -> guard.call(() -> "result", result -> false));
+        assertEquals(FAILURE_THRESHOLD, calls.get());
+    }
+
+    @Test
+    void shouldCloseCircuitWhenTrialCallSucceeds() {
+
+        var guard = newGuard(10, Duration.ZERO);
+
+        // Failed results open the circuit too
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            guard.call(() -> "error", "error"::equals);
+        }
+        assertTrue(guard.isOpen());
+
+        clock.advance(OPEN_DURATION);
+
+        assertEquals("result", guard.call(() -> "result", "error"::equals));
+        assertFalse(guard.isOpen());
+    }
+
+    @Test
+    void shouldRejectCallWhenBulkheadIsFull() throws InterruptedException {
+
+        var guard = newGuard(1, Duration.ZERO);
+
+        var callStarted = new CountDownLatch(1);
+        var callReleased = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.execute(() -> guard.call(() -> {
+                callStarted.countDown();
+                await(callReleased);
+                return "result";
+            }, result -> false));
+            assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RemoteServiceUnavailableException.class, () -> guard.call(() -> "result", result -> false));
+            assertEquals("default", guard.read(KEY, () -> "result", result -> false, () -> "default"));
+
+            callReleased.countDown();
+        }
+
+        // Rejected calls are not failures of the service
+        assertFalse(guard.isOpen());
+    }
+
+    @Test
+    void shouldReturnResultOfHedgedAttemptWhenFirstAttemptIsSlow() {
+
+        var guard = newGuard(10, Duration.ofMillis(20));
+
+        var firstAttemptReleased = new CountDownLatch(1);
+        var result = guard.read(KEY, () -> {
+            if (calls.incrementAndGet() == 1) {
+                await(firstAttemptReleased);
+                return "slow";
+            }
+            return "fast";
+        }, r -> false, () -> "default");
+        firstAttemptReleased.countDown();
+
+        assertEquals("fast", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldCancelSlowAttemptAndReleasePermitWhenHedgedAttemptSucceeds() throws InterruptedException {
+
+        var guard = newGuard(10, Duration.ofMillis(20));
+
+        var slowAttemptInterrupted = new CountDownLatch(1);
+        var result = guard.read(KEY, () -> {
+            if (calls.incrementAndGet() == 1) {
+                return sleepUntilInterrupted(slowAttemptInterrupted);
+            }
+            return "fast";
+        }, r -> false, () -> "default");
+
+        assertEquals("fast", result);
+        assertTrue(slowAttemptInterrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(awaitAvailableCalls(guard, 10));
+    }
+
+    @Test
+    void shouldCancelHedgedAttemptsAndReleasePermitsWhenCallerIsInterrupted() throws Exception {
+
+        var guard = newGuard(2, Duration.ofMillis(20));
+
+        var attemptsInterrupted = new CountDownLatch(2);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var read = executor.submit(() -> guard.read(KEY, () -> {
+                calls.incrementAndGet();
+                return sleepUntilInterrupted(attemptsInterrupted);
+            }, r -> false, () -> "default"));
+
+            while (calls.get() < 2) {
+                Thread.sleep(10);
+            }
+            read.cancel(true);
+
+            assertTrue(attemptsInterrupted.await(5, TimeUnit.SECONDS));
+            assertTrue(awaitAvailableCalls(guard, 2));
+        }
+
+        // Cancelled attempts are not failures of the service
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            guard.call(() -> "error", "error"::equals);
+        }
+        assertFalse(guard.isOpen());
+    }
+
+    // Like a remote call blocked in I/O, which is aborted by the interrupt
+    static String sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(10_000);
+            return "slow";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted.countDown();
+            throw new IllegalStateException("interrupted");
+        }
+    }
+
+    static boolean awaitAvailableCalls(RemoteServiceGuard guard, int calls) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (guard.availableCalls() < calls) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import org.example.model.orders.dto.IdAndStatusDTO;
 import org.example.model.orders.dto.OrderRequestDTO;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +18,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -36,6 +42,8 @@ class OrderRepositoryRabbitMQPublisherTest {
     private String queueOrderUpdate;
     @Value("${spring.rabbitmq.queues.order-change-status}")
     private String queueOrderChangeStatus;
+    @Value("${spring.rabbitmq.queues.order-change-status-shards}")
+    private int orderChangeStatusShards;
     @Value("${spring.rabbitmq.queues.order-delete}")
     private String queueOrderDelete;
 
@@ -48,7 +56,7 @@ class OrderRepositoryRabbitMQPublisherTest {
         var orderDTO = OrderRequestDTO.fromOrder(order);
 
         orderRepositoryRabbitMQPublisher.create(order);
-        verify(rabbitTemplate, times(1)).convertAndSend(topicExchange.getName(), queueOrderCreate, orderDTO);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(topicExchange.getName()), eq(queueOrderCreate), eq(orderDTO), any(MessagePostProcessor.class));
     }
 
     @Test
@@ -58,7 +66,7 @@ class OrderRepositoryRabbitMQPublisherTest {
         var message = new IdAndOrderRequestDTO(order.getId(), OrderRequestDTO.fromOrder(order));
 
         orderRepositoryRabbitMQPublisher.update(order.getId(), order);
-        verify(rabbitTemplate, times(1)).convertAndSend(topicExchange.getName(), queueOrderUpdate, message);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(topicExchange.getName()), eq(queueOrderUpdate), eq(message), any(MessagePostProcessor.class));
     }
 
     @Test
@@ -70,13 +78,36 @@ class OrderRepositoryRabbitMQPublisherTest {
         var message = new IdAndStatusDTO(id, status);
 
         orderRepositoryRabbitMQPublisher.changeOrderStatus(id, status);
-        verify(rabbitTemplate, times(1)).convertAndSend(topicExchange.getName(), queueOrderChangeStatus, message);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(topicExchange.getName()), eq(queueOrderChangeStatus + "." + Math.floorMod(id.hashCode(), orderChangeStatusShards)), eq(message), any(MessagePostProcessor.class));
     }
 
     @Test
     void shouldSendMessageToRabbitWhenDeleteById() {
         var id = "23";
         orderRepositoryRabbitMQPublisher.deleteById(id);
-        verify(rabbitTemplate, times(1)).convertAndSend(topicExchange.getName(), queueOrderDelete, id);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(topicExchange.getName()), eq(queueOrderDelete), eq(id), any(MessagePostProcessor.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSetUniqueMessageIdWhenSetIdempotencyKey() {
+
+        var message = orderRepositoryRabbitMQPublisher.setIdempotencyKey(new Message(new byte[0], new MessageProperties()));
+        var otherMessage = orderRepositoryRabbitMQPublisher.setIdempotencyKey(new Message(new byte[0], new MessageProperties()));
+
+        assertNotNull(message.getMessageProperties().getMessageId());
+        assertNotNull(otherMessage.getMessageProperties().getMessageId());
+        assertNotEquals(message.getMessageProperties().getMessageId(), otherMessage.getMessageProperties().getMessageId());
+    }
+
+    @Test
+    void shouldReturnSameRoutingKeyForSameOrderWhenOrderChangeStatusRoutingKey() {
+
+        var routingKey = orderRepositoryRabbitMQPublisher.orderChangeStatusRoutingKey("order-1");
+
+        assertEquals(routingKey, orderRepositoryRabbitMQPublisher.orderChangeStatusRoutingKey("order-1"));
+        assertTrue(routingKey.startsWith(queueOrderChangeStatus + "."));
+
+        var shard = Integer.parseInt(routingKey.substring(queueOrderChangeStatus.length() + 1));
+        assertTrue(shard >= 0 && shard < orderChangeStatusShards);
+    }
+}
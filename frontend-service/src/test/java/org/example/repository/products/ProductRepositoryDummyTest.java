@@ -100,6 +100,29 @@ class ProductRepositoryDummyTest {
         assertTrue(products.isEmpty());
     }
 
+    @Test
+    void shouldWalkThroughProductsForwardAndBackwardWhenGetPage() {
+
+        var productsExisting = easyRandom.objects(Product.class, 5).toList();
+        setProductsToProductRepositoryDummy(new ArrayList<>(productsExisting));
+        var productsExpected = productsExisting.stream()
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        var firstPage = productRepositoryDummy.getPage(null, 2);
+        assertEquals(productsExpected.subList(0, 2), firstPage.getItems());
+        assertNull(firstPage.getPrevCursor());
+
+        var secondPage = productRepositoryDummy.getPage(firstPage.getNextCursor(), 2);
+        var lastPage = productRepositoryDummy.getPage(secondPage.getNextCursor(), 2);
+        assertEquals(productsExpected.subList(2, 4), secondPage.getItems());
+        assertEquals(productsExpected.subList(4, 5), lastPage.getItems());
+        assertNull(lastPage.getNextCursor());
+
+        var previousPage = productRepositoryDummy.getPage(lastPage.getPrevCursor(), 2);
+        assertEquals(secondPage, previousPage);
+    }
+
     @Test
     void shouldReturnListOfProductsWhenGetAllByExample() {
 
@@ -6,6 +6,7 @@ import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import org.example.model.products.Category;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -117,18 +118,52 @@ class ProductRepositoryBasedOnFeignClientTest {
         verify(getRequestedFor(urlEqualTo("/api/v1/products/" + id)));
     }
 
+    @Test
+    void shouldReturnCachedProductWhenGetByIdAndNotModified() throws JsonProcessingException {
+
+        var productExpected = easyRandom.nextObject(Product.class);
+        var id = productExpected.getId();
+        var eTag = "\"" + id + "-1\"";
+
+        var jsonResponseFromRemoteService = objectMapper.writeValueAsString(productExpected);
+
+        // Stubbing remote-service: full response with an entity tag, then "304" for a request with that tag
+        stubFor(get(urlEqualTo("/api/v1/products/" + id))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader("ETag", eTag)
+                        .withStatus(200)
+                        .withBody(jsonResponseFromRemoteService)));
+        stubFor(get(urlEqualTo("/api/v1/products/" + id))
+                .withHeader("If-None-Match", equalTo(eTag))
+                .willReturn(aResponse()
+                        .withHeader("ETag", eTag)
+                        .withStatus(304)));
+
+        var productFirstRead = productRepositoryBasedOnFeignClient.getById(id);
+        var productSecondRead = productRepositoryBasedOnFeignClient.getById(id);
+
+        assertEquals(productExpected, productFirstRead);
+        assertEquals(productExpected, productSecondRead);
+        assertNotSame(productFirstRead, productSecondRead);
+
+        verify(2, getRequestedFor(urlEqualTo("/api/v1/products/" + id)));
+        verify(1, getRequestedFor(urlEqualTo("/api/v1/products/" + id)).withHeader("If-None-Match", equalTo(eTag)));
+    }
+
     @Test
     void shouldReturnProductsWhenGetByIds() throws JsonProcessingException {
 
         var productsExpected = easyRandom.objects(Product.class, 3).toList();
         var ids = productsExpected.stream().map(Product::getId).collect(Collectors.toSet());
 
-        var idsRequest = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        var idsRequest = objectMapper.writeValueAsString(ids);
 
         var jsonResponseFromRemoteService = objectMapper.writeValueAsString(productsExpected);
 
         // Stubbing remote-service
-        stubFor(get(urlEqualTo("/api/v1/products/ids/" + idsRequest))
+        stubFor(post(urlEqualTo("/api/v1/products/batch-get"))
+                .withRequestBody(equalToJson(idsRequest))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withStatus(200)
@@ -139,7 +174,7 @@ class ProductRepositoryBasedOnFeignClientTest {
         assertFalse(products.isEmpty());
         assertEquals(productsExpected, products);
 
-        verify(getRequestedFor(urlEqualTo("/api/v1/products/ids/" + idsRequest)));
+        verify(postRequestedFor(urlEqualTo("/api/v1/products/batch-get")).withRequestBody(equalToJson(idsRequest)));
     }
 
     @Test
@@ -151,7 +186,7 @@ class ProductRepositoryBasedOnFeignClientTest {
         var jsonResponseFromRemoteService = objectMapper.writeValueAsString(productsExpected);
 
         // Stubbing remote-service
-        stubFor(get(urlEqualTo("/api/v1/products/ids/"))
+        stubFor(post(urlEqualTo("/api/v1/products/batch-get"))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withStatus(200)
@@ -161,7 +196,8 @@ class ProductRepositoryBasedOnFeignClientTest {
         assertNotNull(products);
         assertTrue(products.isEmpty());
 
-        verify(getRequestedFor(urlEqualTo("/api/v1/products/ids/")));
+        // Nothing to look for, so the remote service is not requested
+        verify(0, postRequestedFor(urlEqualTo("/api/v1/products/batch-get")));
     }
     
     @Test
@@ -184,6 +220,28 @@ class ProductRepositoryBasedOnFeignClientTest {
         verify(getRequestedFor(urlEqualTo("/api/v1/products")));
     }
 
+    @Test
+    void shouldRequestOnlyIdsAndNamesWhenGetPage() throws JsonProcessingException {
+
+        var pageExpected = new ProductPage(easyRandom.objects(Product.class, 2).toList(), "next-cursor", "prev-cursor");
+        var jsonResponseFromRemoteService = objectMapper.writeValueAsString(pageExpected);
+
+        // Stubbing remote-service
+        stubFor(get(urlPathEqualTo("/api/v1/products/page"))
+                .withQueryParam("fields", equalTo("id,name"))
+                .withQueryParam("cursor", equalTo("cursor"))
+                .withQueryParam("limit", equalTo("2"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withStatus(200)
+                        .withBody(jsonResponseFromRemoteService)));
+
+        var page = productRepositoryBasedOnFeignClient.getPage("cursor", 2);
+        assertEquals(pageExpected, page);
+
+        verify(getRequestedFor(urlPathEqualTo("/api/v1/products/page")));
+    }
+
     @Test
     void shouldReturnEmptyListWhenGetAll() throws JsonProcessingException {
 
@@ -357,12 +415,13 @@ class ProductRepositoryBasedOnFeignClientTest {
         var categoriesExpected = easyRandom.objects(Category.class, 3).toList();
         var names = categoriesExpected.stream().map(Category::getName).collect(Collectors.toSet());
 
-        var namesRequest = names.stream().map(String::valueOf).collect(Collectors.joining(","));
+        var namesRequest = objectMapper.writeValueAsString(names);
 
         var jsonResponseFromRemoteService = objectMapper.writeValueAsString(categoriesExpected);
 
         // Stubbing remote-service
-        stubFor(get(urlEqualTo("/api/v1/products/categories/by-names/" + namesRequest))
+        stubFor(post(urlEqualTo("/api/v1/products/categories/batch-get"))
+                .withRequestBody(equalToJson(namesRequest))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withStatus(200)
@@ -373,7 +432,7 @@ class ProductRepositoryBasedOnFeignClientTest {
         assertFalse(categories.isEmpty());
         assertEquals(categoriesExpected, categories);
 
-        verify(getRequestedFor(urlEqualTo("/api/v1/products/categories/by-names/" + namesRequest)));
+        verify(postRequestedFor(urlEqualTo("/api/v1/products/categories/batch-get")).withRequestBody(equalToJson(namesRequest)));
     }
 
     @Test
@@ -385,7 +444,7 @@ class ProductRepositoryBasedOnFeignClientTest {
         var jsonResponseFromRemoteService = objectMapper.writeValueAsString(productsExpected);
 
         // Stubbing remote-service
-        stubFor(get(urlEqualTo("/api/v1/products/categories/by-names/"))
+        stubFor(post(urlEqualTo("/api/v1/products/categories/batch-get"))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withStatus(200)
@@ -395,6 +454,7 @@ class ProductRepositoryBasedOnFeignClientTest {
         assertNotNull(categories);
         assertTrue(categories.isEmpty());
 
-        verify(getRequestedFor(urlEqualTo("/api/v1/products/categories/by-names/")));
+        // Nothing to look for, so the remote service is not requested
+        verify(0, postRequestedFor(urlEqualTo("/api/v1/products/categories/batch-get")));
     }
 }
\ No newline at end of file
@@ -154,18 +154,52 @@ class UserRepositoryBasedOnFeignClientTest {
         verify(getRequestedFor(urlEqualTo("/api/v1/users/" + id)));
     }
 
+    @Test
+    void shouldReturnCachedUserWhenGetByIdAndNotModified() throws JsonProcessingException {
+
+        var userExpected = easyRandom.nextObject(User.class);
+        var id = userExpected.getId();
+        var eTag = "\"" + id + "-1\"";
+
+        var jsonResponseFromRemoteService = objectMapper.writeValueAsString(userExpected);
+
+        // Stubbing remote-service: full response with an entity tag, then "304" for a request with that tag
+        stubFor(get(urlEqualTo("/api/v1/users/" + id))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader("ETag", eTag)
+                        .withStatus(200)
+                        .withBody(jsonResponseFromRemoteService)));
+        stubFor(get(urlEqualTo("/api/v1/users/" + id))
+                .withHeader("If-None-Match", equalTo(eTag))
+                .willReturn(aResponse()
+                        .withHeader("ETag", eTag)
+                        .withStatus(304)));
+
+        var userFirstRead = userRepositoryBasedOnFeignClient.getById(id);
+        var userSecondRead = userRepositoryBasedOnFeignClient.getById(id);
+
+        assertEquals(userExpected, userFirstRead);
+        assertEquals(userExpected, userSecondRead);
+        assertNotSame(userFirstRead, userSecondRead);
+
+        verify(2, getRequestedFor(urlEqualTo("/api/v1/users/" + id)));
+        verify(1, getRequestedFor(urlEqualTo("/api/v1/users/" + id)).withHeader("If-None-Match", equalTo(eTag)));
+    }
+
     @Test
     void shouldReturnUsersWhenGetByIds() throws JsonProcessingException {
 
         var usersExpected = easyRandom.objects(User.class, 3).toList();
         var ids = usersExpected.stream().map(User::getId).collect(Collectors.toSet());
 
-        var idsRequest = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        var idsRequest = objectMapper.writeValueAsString(ids);
 
         var jsonResponseFromRemoteService = objectMapper.writeValueAsString(usersExpected);
 
         // Stubbing remote-service
-        stubFor(get(urlEqualTo("/api/v1/users/ids/" + idsRequest))
+        stubFor(post(urlEqualTo("/api/v1/users/batch-get"))
+                .withRequestBody(equalToJson(idsRequest))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withStatus(200)
@@ -176,7 +210,7 @@ class UserRepositoryBasedOnFeignClientTest {
         assertFalse(users.isEmpty());
         assertEquals(usersExpected, users);
 
-        verify(getRequestedFor(urlEqualTo("/api/v1/users/ids/" + idsRequest)));
+        verify(postRequestedFor(urlEqualTo("/api/v1/users/batch-get")).withRequestBody(equalToJson(idsRequest)));
     }
 
     @Test
@@ -188,7 +222,7 @@ class UserRepositoryBasedOnFeignClientTest {
         var jsonResponseFromRemoteService = objectMapper.writeValueAsString(usersExpected);
 
         // Stubbing remote-service
-        stubFor(get(urlEqualTo("/api/v1/users/ids/"))
+        stubFor(post(urlEqualTo("/api/v1/users/batch-get"))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withStatus(200)
@@ -198,7 +232,8 @@ class UserRepositoryBasedOnFeignClientTest {
         assertNotNull(users);
         assertTrue(users.isEmpty());
 
-        verify(getRequestedFor(urlEqualTo("/api/v1/users/ids/")));
+        // Nothing to look for, so the remote service is not requested
+        verify(0, postRequestedFor(urlEqualTo("/api/v1/users/batch-get")));
     }
 
     @Test
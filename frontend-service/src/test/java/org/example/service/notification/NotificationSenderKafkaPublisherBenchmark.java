@@ -0,0 +1,91 @@
+package org.example.service.notification;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Notifications per second published to a real Kafka broker:
+ * "before" - send and flush per message (previous implementation),
+ * "after" - asynchronous sending with producer batching (NotificationSenderKafkaPublisher).
+ * Run manually:
+ * ./gradlew test --tests '*NotificationSenderKafkaPublisherBenchmark' -Dbenchmark.kafka.bootstrap-servers=localhost:9092
+ */
+@EnabledIfSystemProperty(named = "benchmark.kafka.bootstrap-servers", matches = ".+")
+class NotificationSenderKafkaPublisherBenchmark {
+
+    private static final String TOPIC = "notifications-benchmark";
+    private static final int MESSAGES = 50_000;
+
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, System.getProperty("benchmark.kafka.bootstrap-servers"));
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        configs.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        producerFactory = new DefaultKafkaProducerFactory<>(configs);
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        kafkaTemplate.setDefaultTopic(TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        producerFactory.destroy();
+    }
+
+    @Test
+    void sendAndFlushPerMessage() {
+
+        var start = System.nanoTime();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            kafkaTemplate.send(TOPIC, "key", message(i));
+            kafkaTemplate.flush();
+        }
+
+        report("send-and-flush per message (before)", start);
+    }
+
+    @Test
+    void publishBatched() {
+
+        var buffer = new NotificationsBuffer<Notification>(MESSAGES, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1);
+        var publisher = new NotificationSenderKafkaPublisher(kafkaTemplate, buffer);
+
+        var start = System.nanoTime();
+
+        for (int i = 0; i < MESSAGES; i++) {
+            publisher.sendNotification("org.example.Source" + i % 16, message(i));
+        }
+        publisher.sendNotificationsToKafka();
+        kafkaTemplate.flush();
+
+        report("batched publishing (after)", start);
+    }
+
+    private static String message(int i) {
+        return "Order with id " + i + " not found";
+    }
+
+    private static void report(String name, long start) {
+        var seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%s: %d notifications in %.2f s - %.0f notifications/s%n",
+                name, MESSAGES, seconds, MESSAGES / seconds);
+    }
+}
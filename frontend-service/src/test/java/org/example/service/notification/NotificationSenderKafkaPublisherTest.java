@@ -5,10 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 
-import java.lang.reflect.Field;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -23,83 +24,105 @@ class NotificationSenderKafkaPublisherTest {
     @Mock
     private KafkaTemplate<String, String> kafkaTemplate;
 
+    private NotificationsBuffer<Notification> notificationsBuffer;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        notificationSenderKafkaPublisher = new NotificationSenderKafkaPublisher(kafkaTemplate);
+        notificationsBuffer = new NotificationsBuffer<>(16, NotificationsBuffer.OverflowPolicy.DROP_OLDEST, 10);
+        notificationSenderKafkaPublisher = new NotificationSenderKafkaPublisher(kafkaTemplate, notificationsBuffer);
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(new CompletableFuture<SendResult<String, String>>());
     }
 
     @Test
     void shouldCashNotificationsWhenSendNotification() {
 
-        var messagesExpected = new LinkedHashSet<String>();
+        var messagesExpected = new ArrayList<Notification>();
 
         for (int i = 1; i <= 10; i++) {
             var notification = "notification: " + i;
             notificationSenderKafkaPublisher.sendNotification(notification);
-            messagesExpected.add(notification);
+            messagesExpected.add(new Notification(null, notification));
         }
 
-        var messagesOfNotificationSender = getMessagesOfNotificationSender(notificationSenderKafkaPublisher);
-        assertEquals(messagesExpected, messagesOfNotificationSender);
+        assertEquals(messagesExpected, drainBuffer());
 
         verify(kafkaTemplate, never()).send(any(), any(), any());
     }
 
+    @Test
+    void shouldCashNotificationsWithKeyWhenSendNotification() {
+
+        var key = "org.example.Source";
+        var notification = "notification";
+
+        notificationSenderKafkaPublisher.sendNotification(key, notification);
+
+        assertEquals(List.of(new Notification(key, notification)), drainBuffer());
+    }
+
     @Test
     void shouldCashNothingWhenSendNotification() {
 
         var notification = "";
         notificationSenderKafkaPublisher.sendNotification(notification);
 
-        var messagesOfNotificationSender = getMessagesOfNotificationSender(notificationSenderKafkaPublisher);
-        assertTrue(messagesOfNotificationSender.isEmpty());
+        assertTrue(notificationsBuffer.isEmpty());
 
         verify(kafkaTemplate, never()).send(any(), any(), any());
     }
 
+    @Test
+    void shouldKeepLatestNotificationsWhenSendNotificationOverCapacity() {
+
+        var messagesExpected = new ArrayList<Notification>();
+
+        for (int i = 1; i <= 20; i++) {
+            var notification = "notification: " + i;
+            notificationSenderKafkaPublisher.sendNotification(notification);
+            if (i > 4) {
+                messagesExpected.add(new Notification(null, notification));
+            }
+        }
+
+        assertEquals(messagesExpected, drainBuffer());
+        assertEquals(4, notificationsBuffer.getDroppedCount());
+    }
+
     @Test
     void shouldSendCashedNotificationsWhenSendNotificationsToKafka() {
 
-        var messagesOfNotificationSender = getMessagesOfNotificationSender(notificationSenderKafkaPublisher);
-        var messagesBeforeSending = new LinkedHashSet<String>();
+        var messagesBeforeSending = new ArrayList<Notification>();
 
         for (int i = 1; i <= 10; i++) {
-            var notification = "notification: " + i;
-            messagesOfNotificationSender.add(notification);
+            var notification = new Notification("source " + i % 3, "notification: " + i);
+            notificationsBuffer.offer(notification);
             messagesBeforeSending.add(notification);
         }
 
-        notificationSenderKafkaPublisher.sendNotificationsToKafka();
+        var published = notificationSenderKafkaPublisher.sendNotificationsToKafka();
+        assertEquals(messagesBeforeSending.size(), published);
 
-        assertTrue(messagesOfNotificationSender.isEmpty());
+        assertTrue(notificationsBuffer.isEmpty());
 
         for (var message : messagesBeforeSending) {
-            verify(kafkaTemplate, times(1)).send(null, "key", message);
+            verify(kafkaTemplate, times(1)).send(null, message.getKey(), message.getMessage());
         }
 
         verify(kafkaTemplate, times(messagesBeforeSending.size())).send(isNull(), anyString(), anyString());
+        verify(kafkaTemplate, never()).flush();
     }
 
     @Test
     void shouldSendNothingWhenSendNotificationsToKafka() {
-        notificationSenderKafkaPublisher.sendNotificationsToKafka();
+        var published = notificationSenderKafkaPublisher.sendNotificationsToKafka();
+        assertEquals(0, published);
         verify(kafkaTemplate, never()).send(isNull(), anyString(), anyString());
     }
 
-    private static Set<String> getMessagesOfNotificationSender(NotificationSenderKafkaPublisher notificationSender) {
-        try {
-            var field = getFieldMessagesOfNotificationSender();
-            field.trySetAccessible();
-            var valueOfField = field.get(notificationSender);
-            //noinspection unchecked
-            return (Set<String>) valueOfField;
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private static Field getFieldMessagesOfNotificationSender() throws NoSuchFieldException {
-            return NotificationSenderKafkaPublisher.class.getDeclaredField("messages");
+    private List<Notification> drainBuffer() {
+        var messages = new ArrayList<Notification>();
+        notificationsBuffer.drainTo(messages::add, Integer.MAX_VALUE);
+        return messages;
     }
-}
\ No newline at end of file
+}
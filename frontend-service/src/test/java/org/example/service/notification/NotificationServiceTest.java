@@ -23,4 +23,12 @@ class NotificationServiceTest {
         notificationService.sendNotification(notification);
         verify(notificationSender, times(1)).sendNotification(notification);
     }
+
+    @Test
+    void shouldSendNotificationWithSourceWhenSendNotification() {
+        var source = "org.example.Source";
+        var notification = "Hello";
+        notificationService.sendNotification(source, notification);
+        verify(notificationSender, times(1)).sendNotification(source, notification);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package org.example.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationsBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new NotificationsBuffer<String>(5, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1).capacity());
+        assertEquals(8, new NotificationsBuffer<String>(8, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1).capacity());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCapacityIsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NotificationsBuffer<String>(0, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1));
+    }
+
+    @Test
+    void shouldReturnMessagesInOrderWhenPoll() {
+
+        var buffer = new NotificationsBuffer<String>(4, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1);
+
+        for (int round = 0; round < 3; round++) {
+            assertTrue(buffer.offer("first"));
+            assertTrue(buffer.offer("second"));
+            assertEquals(2, buffer.size());
+            assertEquals("first", buffer.poll());
+            assertEquals("second", buffer.poll());
+            assertNull(buffer.poll());
+        }
+    }
+
+    @Test
+    void shouldDropNewestWhenOfferToFullBuffer() {
+
+        var buffer = new NotificationsBuffer<String>(4, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1);
+        for (int i = 1; i <= 6; i++) {
+            buffer.offer("message " + i);
+        }
+
+        assertEquals(List.of("message 1", "message 2", "message 3", "message 4"), drain(buffer));
+        assertEquals(2, buffer.getDroppedCount());
+    }
+
+    @Test
+    void shouldDropOldestWhenOfferToFullBuffer() {
+
+        var buffer = new NotificationsBuffer<String>(4, NotificationsBuffer.OverflowPolicy.DROP_OLDEST, 1);
+        for (int i = 1; i <= 6; i++) {
+            assertTrue(buffer.offer("message " + i));
+        }
+
+        assertEquals(List.of("message 3", "message 4", "message 5", "message 6"), drain(buffer));
+        assertEquals(2, buffer.getDroppedCount());
+    }
+
+    @Test
+    void shouldKeepEverySampledMessageWhenOfferToFullBuffer() {
+
+        var buffer = new NotificationsBuffer<String>(4, NotificationsBuffer.OverflowPolicy.SAMPLE, 3);
+        for (int i = 1; i <= 10; i++) {
+            buffer.offer("message " + i);
+        }
+
+        // messages 5..10 are overflowing, 7 and 10 are sampled (replacing 1 and 2)
+        assertEquals(List.of("message 3", "message 4", "message 7", "message 10"), drain(buffer));
+        assertEquals(6, buffer.getDroppedCount());
+    }
+
+    @Test
+    void shouldNotLoseMessagesWhenOfferFromManyThreads() throws InterruptedException {
+
+        var threads = 8;
+        var messagesPerThread = 10_000;
+        var buffer = new NotificationsBuffer<String>(1024, NotificationsBuffer.OverflowPolicy.DROP_NEWEST, 1);
+
+        var received = ConcurrentHashMap.<String>newKeySet();
+        var latch = new CountDownLatch(threads);
+
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                var threadNumber = thread;
+                executor.submit(() -> {
+                    for (int i = 0; i < messagesPerThread; i++) {
+                        buffer.offer(threadNumber + "-" + i);
+                    }
+                    latch.countDown();
+                });
+            }
+
+            while (!latch.await(1, TimeUnit.MILLISECONDS) || !buffer.isEmpty()) {
+                buffer.drainTo(received::add, Integer.MAX_VALUE);
+            }
+        }
+
+        assertEquals(threads * messagesPerThread, received.size() + buffer.getDroppedCount());
+    }
+
+    private static List<String> drain(NotificationsBuffer<String> buffer) {
+        var messages = new ArrayList<String>();
+        buffer.drainTo(messages::add, Integer.MAX_VALUE);
+        return messages;
+    }
+}
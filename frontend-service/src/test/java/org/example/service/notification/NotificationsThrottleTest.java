@@ -0,0 +1,76 @@
+package org.example.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationsThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldSuppressIdenticalMessagesWithinWindowWhenTryAcquire() {
+
+        var throttle = new NotificationsThrottle(1000, 0, 100);
+
+        assertTrue(throttle.tryAcquire("message", 0));
+        assertFalse(throttle.tryAcquire("message", SECOND / 2));
+        assertTrue(throttle.tryAcquire("other message", SECOND / 2));
+        assertTrue(throttle.tryAcquire("message", SECOND + 1));
+
+        assertEquals(1, throttle.getDuplicatesCount());
+    }
+
+    @Test
+    void shouldAcceptIdenticalMessagesWhenDeduplicationIsOff() {
+
+        var throttle = new NotificationsThrottle(0, 0, 100);
+
+        assertTrue(throttle.tryAcquire("message", 0));
+        assertTrue(throttle.tryAcquire("message", 1));
+        assertEquals(0, throttle.getDuplicatesCount());
+    }
+
+    @Test
+    void shouldLimitMessagesPerSecondWhenTryAcquire() {
+
+        var throttle = new NotificationsThrottle(0, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(throttle.tryAcquire("message " + i, SECOND + i));
+        }
+        assertFalse(throttle.tryAcquire("message 3", SECOND + 3));
+
+        assertTrue(throttle.tryAcquire("message 4", 2 * SECOND));
+
+        assertEquals(1, throttle.getRateLimitedCount());
+    }
+
+    @Test
+    void shouldNotSuppressRateLimitedMessageAsDuplicateWhenTryAcquire() {
+
+        var throttle = new NotificationsThrottle(10_000, 1, 100);
+
+        assertTrue(throttle.tryAcquire("message 1", SECOND));
+        assertFalse(throttle.tryAcquire("message 2", SECOND + 1));
+
+        // "message 2" was never sent, so it is accepted in the next second
+        assertTrue(throttle.tryAcquire("message 2", 2 * SECOND));
+
+        assertEquals(1, throttle.getRateLimitedCount());
+        assertEquals(0, throttle.getDuplicatesCount());
+    }
+
+    @Test
+    void shouldForgetMessagesWhenTooManyTracked() {
+
+        var throttle = new NotificationsThrottle(1000, 0, 2);
+
+        assertTrue(throttle.tryAcquire("message 1", 0));
+        assertTrue(throttle.tryAcquire("message 2", 1));
+        // the map is full and reset, so the message is accepted again
+        assertTrue(throttle.tryAcquire("message 1", 2));
+    }
+}
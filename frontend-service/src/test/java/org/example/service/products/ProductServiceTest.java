@@ -2,6 +2,7 @@ package org.example.service.products;
 
 import org.example.exception.NotFoundException;
 import org.example.model.products.Product;
+import org.example.model.products.ProductPage;
 import org.example.repository.products.ProductRepository;
 import org.example.service.modelsBinding.ModelBinder;
 import org.jeasy.random.EasyRandom;
@@ -80,6 +81,18 @@ class ProductServiceTest {
         verify(modelBinder, times(1)).bindFields(productsExpected);
     }
 
+    @Test
+    void shouldReturnPageOfProductsWhenGetPage() {
+
+        var pageExpected = new ProductPage(easyRandom.objects(Product.class, 3).toList(), "next-cursor", null);
+        when(productRepository.getPage("cursor", 20)).thenReturn(pageExpected);
+
+        var page = productService.getPage("cursor");
+        assertEquals(pageExpected, page);
+
+        verify(productRepository, only()).getPage("cursor", 20);
+    }
+
     @Test
     void shouldReturnEmptyListWhenGetAll() {
 
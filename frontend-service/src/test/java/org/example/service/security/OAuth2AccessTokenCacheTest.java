@@ -0,0 +1,160 @@
+package org.example.service.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OAuth2AccessTokenCacheTest {
+
+    private static final String REGISTRATION_ID = "keycloak-test-service";
+    private static final Duration LIFETIME = Duration.ofMinutes(5);
+    private static final Duration REFRESH_AHEAD = Duration.ofSeconds(60);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Runnable> scheduledRefreshes = new ArrayList<>();
+
+    private OAuth2AccessToken newToken() {
+        var issuedAt = clock.instant();
+        return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "token-" + loads.incrementAndGet(), issuedAt, issuedAt.plus(LIFETIME));
+    }
+
+    private OAuth2AccessTokenCache newCache() {
+        return new OAuth2AccessTokenCache(registrationId -> newToken(), REFRESH_AHEAD, scheduledRefreshes::add, clock);
+    }
+
+    @Test
+    void shouldLoadTokenOnceWhenGetTokenValueRepeatedly() {
+
+        var cache = newCache();
+
+        assertEquals("token-1", cache.getTokenValue(REGISTRATION_ID));
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals("token-1", cache.getTokenValue(REGISTRATION_ID));
+
+        assertEquals(1, loads.get());
+        assertTrue(scheduledRefreshes.isEmpty());
+    }
+
+    @Test
+    void shouldScheduleOneRefreshAheadOfExpiryWhenGetTokenValue() {
+
+        var cache = newCache();
+        cache.getTokenValue(REGISTRATION_ID);
+
+        clock.advance(LIFETIME.minus(REFRESH_AHEAD).plusSeconds(1));
+
+        // The current token is returned while the refresh is pending
+        for (int i = 0; i < 10; i++) {
+            assertEquals("token-1", cache.getTokenValue(REGISTRATION_ID));
+        }
+        assertEquals(1, scheduledRefreshes.size());
+
+        scheduledRefreshes.getFirst().run();
+
+        assertEquals("token-2", cache.getTokenValue(REGISTRATION_ID));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldKeepValidTokenWhenRefreshFails() {
+
+        var failing = new AtomicInteger();
+        var cache = new OAuth2AccessTokenCache(registrationId -> {
+            if (failing.get() > 0) {
+                throw new IllegalStateException("authorization server is unavailable");
+            }
+            return newToken();
+        }, REFRESH_AHEAD, scheduledRefreshes::add, clock);
+
+        cache.getTokenValue(REGISTRATION_ID);
+        failing.set(1);
+        clock.advance(LIFETIME.minus(REFRESH_AHEAD).plusSeconds(1));
+
+        cache.getTokenValue(REGISTRATION_ID);
+        scheduledRefreshes.getFirst().run();
+
+        assertEquals("token-1", cache.getTokenValue(REGISTRATION_ID));
+
+        // Expired and can't be received
+        clock.advance(REFRESH_AHEAD);
+        assertNull(cache.getTokenValue(REGISTRATION_ID));
+    }
+
+    @Test
+    void shouldLoadTokenOnceWhenGetTokenValueConcurrently() throws InterruptedException {
+
+        var threads = 32;
+        var loaderEntered = new CountDownLatch(1);
+        var cache = new OAuth2AccessTokenCache(registrationId -> {
+            loaderEntered.countDown();
+            sleep(50);
+            return newToken();
+        }, REFRESH_AHEAD, scheduledRefreshes::add, clock);
+
+        var received = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    if ("token-1".equals(cache.getTokenValue(REGISTRATION_ID))) {
+                        received.incrementAndGet();
+                    }
+                });
+            }
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(threads, received.get());
+        assertEquals(1, loads.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
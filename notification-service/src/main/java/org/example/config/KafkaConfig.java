@@ -0,0 +1,81 @@
+package org.example.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Map;
+
+@Configuration
+@EnableKafkaRetryTopic
+public class KafkaConfig {
+
+    @Value("${spring.kafka.notifications-topic}")
+    private String notificationsTopic;
+
+    // Max number of consumers working in parallel (listener concurrency should not be greater)
+    @Value("${notifications.topic.partitions:6}")
+    private int partitions;
+
+    @Value("${notifications.consumer.max-poll-records:1000}")
+    private int maxPollRecords;
+
+    @Value("${notifications.consumer.fetch-min-bytes:65536}")
+    private int fetchMinBytes;
+
+    @Value("${notifications.consumer.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+
+    // Is created if it doesn't exist, the number of partitions of an existing topic is only increased
+    @Bean
+    @ConditionalOnProperty(name = "consumer.enabled", havingValue = "true")
+    public NewTopic notificationsTopic() {
+        return TopicBuilder.name(notificationsTopic)
+                .partitions(partitions)
+                .build();
+    }
+
+    // Bigger batches per poll - fewer round trips to the broker during bursts
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer notificationsConsumerFactoryCustomizer() {
+        return consumerFactory -> consumerFactory.updateConfigs(Map.of(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords,
+                ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes,
+                ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs));
+    }
+
+    // Batches of the notifications topic are acknowledged when their notifications are sent in digests
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> notificationsContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    // Retry topics process records one by one (the main listener consumes batches)
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> notificationsRetryContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(false);
+        return factory;
+    }
+}
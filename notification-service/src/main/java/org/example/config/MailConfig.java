@@ -0,0 +1,34 @@
+package org.example.config;
+
+import org.example.service.SmtpTransportPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class MailConfig {
+
+    @Value("${mail.smtp-pool.max-connections:4}")
+    private int maxConnections;
+
+    @Value("${mail.smtp-pool.max-idle-connections:2}")
+    private int maxIdleConnections;
+
+    @Value("${mail.smtp-pool.max-idle-ms:60000}")
+    private long maxIdleMs;
+
+    @Bean
+    public SmtpTransportPool smtpTransportPool(MailProperties mailProperties) {
+        return new SmtpTransportPool(mailProperties, maxConnections, maxIdleConnections, maxIdleMs);
+    }
+
+    // Sending emails is blocking I/O, so it is done on virtual threads (the pool limits the number of connections)
+    @Bean(destroyMethod = "close")
+    public ExecutorService mailExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -1,19 +1,25 @@
 package org.example.service;
 
+import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool smtpTransportPool;
 
     @Value("${spring.mail.username}")
     private String emailFrom;
@@ -37,4 +43,25 @@ public class EmailService {
             throw e;
         }
     }
+
+    // Sends email over a kept-alive SMTP connection (see SmtpTransportPool)
+    public void sendEmail(String emailTo, String subject, String body) {
+
+        log.info("Trying to send email to {} with subject '{}'", emailTo, subject);
+
+        try {
+            var message = smtpTransportPool.createMimeMessage();
+            var messageHelper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+            messageHelper.setFrom(emailFrom);
+            messageHelper.setTo(emailTo);
+            messageHelper.setSubject(subject);
+            messageHelper.setText(body);
+
+            smtpTransportPool.send(message);
+            log.info("Email to {} was sent successfully", emailTo);
+        } catch (MessagingException e) {
+            log.error("Sending email to {} FAILED!!! - {}", emailTo, e.getMessage());
+            throw new MailSendException("Sending email to " + emailTo + " failed", e);
+        }
+    }
 }
@@ -2,12 +2,19 @@ package org.example.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.mail.MailSendException;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Objects;
 
 @Component
 @ConditionalOnProperty(name = "consumer.enabled", havingValue = "true")
@@ -16,20 +23,64 @@ import java.util.List;
 public class NotificationConsumer {
 
     private final NotificationService notificationService;
+    private final NotificationMetrics notificationMetrics;
 
-    @KafkaListener(topics = "${spring.kafka.notifications-topic}")
-    public void messageListener(List<String> messages) {
-        try {
-            log.info("Consuming: {}", messages);
-            notificationService.sendToEmail(messages);
-            log.info("Consumed: {}", messages);
-        } catch (MailSendException e) {
-            log.error("Consuming was rolled back due to mail sending errors: {}", messages);
-            throw e;
-        } catch (Exception e) {
-            log.error("Consuming failed and was rolled back: {}", messages);
-            log.error(e.getMessage());
-            throw e;
+    @Value("${spring.kafka.notifications-digests-topic:${spring.kafka.notifications-topic}-digests}")
+    private String digestsTopic;
+
+    /**
+     * Notifications are only collected into digests here, sending failures are handled by NotificationDigestService
+     * (failed digests go to the retry topics and then to the dead-letter topic).
+     * The batch is acknowledged when its notifications are sent in digests (or published to the digests topic),
+     * so notifications collected in memory are redelivered if the service stops before sending them
+     */
+    @KafkaListener(topics = "${spring.kafka.notifications-topic}", containerFactory = "notificationsContainerFactory",
+            concurrency = "${notifications.consumer.concurrency:${notifications.topic.partitions:6}}")
+    public void messageListener(List<String> messages, Acknowledgment acknowledgment) {
+        log.info("Consuming: {}", messages);
+        notificationService.sendToEmail(messages, acknowledgment::acknowledge);
+        log.info("Consumed: {}", messages);
+    }
+
+    /**
+     * Digests which failed to be sent, the key of a record is the receiver.
+     * The retry topics ("-retry-0", "-retry-1", ... and "-dlt" after the digests topic) are created and chained
+     * by @RetryableTopic: a failed resend is moved to the next retry topic with exponential backoff
+     * (without blocking this one), and after the last attempt - to the dead-letter topic.
+     * The first delivery from the digests topic doesn't resend: the digest has just failed to be sent,
+     * so it goes to the first retry topic, and every resend waits for its backoff
+     */
+    @RetryableTopic(
+            attempts = "${notifications.retry.attempts:5}",
+            backoff = @Backoff(
+                    delayExpression = "${notifications.retry.delay-ms:5000}",
+                    multiplierExpression = "${notifications.retry.multiplier:3}",
+                    maxDelayExpression = "${notifications.retry.max-delay-ms:300000}"),
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+    @KafkaListener(topics = "${spring.kafka.notifications-digests-topic:${spring.kafka.notifications-topic}-digests}",
+            containerFactory = "notificationsRetryContainerFactory")
+    public void retryListener(ConsumerRecord<String, String> record) {
+        if (record.topic().equals(digestsTopic)) {
+            throw new ResendDelayedException(record.key());
+        }
+        log.info("Resending digest from topic {}", record.topic());
+        notificationMetrics.recordRetry(record.topic());
+        var receiver = Objects.requireNonNullElse(record.key(), notificationService.getDefaultReceiver());
+        notificationService.resendDigest(receiver, record.value());
+    }
+
+    @DltHandler
+    public void deadLetterListener(ConsumerRecord<String, String> record) {
+        log.error("Digest for {} was moved to dead-letter topic {} after all retries:\n{}",
+                record.key(), record.topic(), record.value());
+        notificationMetrics.recordDeadLetter();
+    }
+
+    // Moves a digest from the digests topic to the first retry topic
+    private static class ResendDelayedException extends RuntimeException {
+
+        ResendDelayedException(String receiver) {
+            super("Digest for " + receiver + " is resent after the backoff");
         }
     }
 }
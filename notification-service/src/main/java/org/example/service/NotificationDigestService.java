@@ -0,0 +1,326 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Aggregates notifications per receiver into digests.
+ * A digest is sent as one email when it reaches 'max-size' notifications or when it is older than 'window-ms'.
+ * Digests are sent on the mail executor (virtual threads), so sending doesn't block the consumer threads.
+ * Failed digests are published to the retry topic, so they don't block consuming of the notifications topic.
+ * <p>
+ * Notifications are added in batches with a callback (acknowledging the Kafka offsets of the batch),
+ * which is called when all notifications of the batch are sent or published to the retry topic,
+ * in the order the batches were added. So notifications pending in memory are redelivered after a crash.
+ * On shutdown the listener containers are paused and the pending digests are sent before the containers stop
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@EnableScheduling
+public class NotificationDigestService implements SmartLifecycle {
+
+    static final String SUBJECT = "Notifications from E-COMMERCE PLATFORM";
+
+    private final EmailService emailService;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ExecutorService mailExecutor;
+    private final MeterRegistry meterRegistry;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final NotificationMetrics notificationMetrics;
+
+    // Retried by NotificationConsumer with the retry topics
+    @Value("${spring.kafka.notifications-digests-topic:${spring.kafka.notifications-topic}-digests}")
+    private String notificationsDigestsTopic;
+
+    @Value("${mail.digest.window-ms:60000}")
+    private long windowMs;
+
+    @Value("${mail.digest.max-size:500}")
+    private int maxSize;
+
+    @Value("${mail.digest.retry-publish-timeout-ms:10000}")
+    private long retryPublishTimeoutMs;
+
+    // Time to pause the listeners and send the pending digests on shutdown
+    @Value("${mail.digest.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    // Guarded by 'digests'
+    private final Map<String, Digest> digests = new HashMap<>();
+    private final Deque<Batch> batches = new ArrayDeque<>();
+
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("notifications.digest.pending", this, NotificationDigestService::countPending)
+                .description("Notifications collected into digests, but not sent yet")
+                .register(meterRegistry);
+    }
+
+    public void add(String receiver, Collection<String> notifications) {
+        add(receiver, notifications, null);
+    }
+
+    /**
+     * @param onSent called when all the notifications are sent or published to the retry topic (can be null)
+     */
+    public void add(String receiver, Collection<String> notifications, Runnable onSent) {
+
+        var fullDigests = new ArrayList<Digest>();
+        List<Runnable> completed;
+
+        synchronized (digests) {
+            var batch = new Batch(notifications.size(), onSent);
+            batches.add(batch);
+            var digest = digests.computeIfAbsent(receiver, key -> new Digest());
+            for (var notification : notifications) {
+                digest.add(notification, batch);
+                if (digest.size() >= maxSize) {
+                    fullDigests.add(digest);
+                    digest = new Digest();
+                    digests.put(receiver, digest);
+                }
+            }
+            // An empty batch is completed at once (if the batches before it are)
+            completed = pollCompletedBatches();
+        }
+
+        completed.forEach(Runnable::run);
+        for (var fullDigest : fullDigests) {
+            mailExecutor.execute(() -> send(receiver, fullDigest));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.digest.check-interval-ms:1000}")
+    public void flushExpired() {
+        flushExpired(System.currentTimeMillis());
+    }
+
+    void flushExpired(long nowMillis) {
+        takeDigests(digest -> nowMillis - digest.startedAt >= windowMs)
+                .forEach((receiver, digest) -> mailExecutor.execute(() -> send(receiver, digest)));
+    }
+
+    /**
+     * Sends all the pending digests and waits for them
+     *
+     * @return whether all the digests were sent (or published to the retry topic) within the timeout
+     */
+    boolean flushAll(long timeoutMs) {
+
+        var sendings = takeDigests(digest -> true).entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> send(entry.getKey(), entry.getValue()), mailExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(sendings).get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            log.error("Pending digests were not sent in {} ms - {}", timeoutMs, e.toString());
+            return false;
+        }
+    }
+
+    int countPending() {
+        synchronized (digests) {
+            return digests.values().stream()
+                    .mapToInt(Digest::size)
+                    .sum();
+        }
+    }
+
+    static String render(List<String> notifications) {
+        var body = new StringBuilder(notifications.size() * 80 + 32);
+        body.append("Notifications: ").append(notifications.size()).append("\n\n");
+        for (int i = 0; i < notifications.size(); i++) {
+            body.append(i + 1).append(". ").append(notifications.get(i)).append('\n');
+        }
+        return body.toString();
+    }
+
+    // Sends already rendered digest (from a retry topic), exceptions are handled by the retry topics
+    public void resend(String receiver, String body) {
+        log.info("Resending digest to {}", receiver);
+        emailService.sendEmail(receiver, SUBJECT, body);
+    }
+
+    /**
+     * The whole digest is published as one record, the key is the receiver.
+     * Waits for the broker, so the notifications are not acknowledged before they are in the digests topic
+     */
+    public void publishToRetry(String receiver, List<String> notifications) {
+        log.warn("Publishing digest of {} notifications for {} to the digests topic", notifications.size(), receiver);
+        kafkaTemplate.send(notificationsDigestsTopic, receiver, render(notifications))
+                .orTimeout(retryPublishTimeoutMs, TimeUnit.MILLISECONDS)
+                .join();
+    }
+
+    /*
+     * Pausing the containers before they stop lets them commit the offsets acknowledged by the sent digests,
+     * so the notifications are neither lost nor sent twice after the restart
+     */
+    @Override
+    public void stop() {
+
+        var deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+
+        var containers = kafkaListenerEndpointRegistry.getListenerContainers().stream()
+                .filter(MessageListenerContainer::isRunning)
+                .toList();
+        containers.forEach(MessageListenerContainer::pause);
+        try {
+            while (containers.stream().anyMatch(container -> !container.isContainerPaused())
+                    && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.info("Sending {} pending notifications before shutdown", countPending());
+        flushAll(Math.max(0, deadline - System.currentTimeMillis()));
+        running = false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Is stopped before the listener containers (a higher phase is stopped earlier)
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE + 1;
+    }
+
+    private void send(String receiver, Digest digest) {
+
+        var notifications = digest.notifications;
+        log.info("Sending digest of {} notifications to {}", notifications.size(), receiver);
+
+        try {
+            emailService.sendEmail(receiver, SUBJECT, render(notifications));
+        } catch (Exception e) {
+            log.error("Sending digest to {} failed - {}", receiver, e.getMessage());
+            notificationMetrics.recordFailed();
+            try {
+                publishToRetry(receiver, notifications);
+            } catch (Exception publishException) {
+                // The digest is neither sent nor in the retry topic, so it will be sent with the next one
+                log.error("Publishing digest for {} to the retry topic failed - {}", receiver, publishException.toString());
+                returnDigest(receiver, digest);
+                return;
+            }
+        }
+
+        complete(digest);
+    }
+
+    private Map<String, Digest> takeDigests(Predicate<Digest> predicate) {
+
+        var taken = new HashMap<String, Digest>();
+
+        synchronized (digests) {
+            var iterator = digests.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                var digest = entry.getValue();
+                if (digest.size() > 0 && predicate.test(digest)) {
+                    taken.put(entry.getKey(), digest);
+                    iterator.remove();
+                }
+            }
+        }
+
+        return taken;
+    }
+
+    private void returnDigest(String receiver, Digest digest) {
+        synchronized (digests) {
+            var pending = digests.computeIfAbsent(receiver, key -> new Digest());
+            for (int i = 0; i < digest.notifications.size(); i++) {
+                pending.add(digest.notifications.get(i), digest.notificationBatches.get(i));
+            }
+        }
+    }
+
+    private void complete(Digest digest) {
+
+        List<Runnable> completed;
+
+        synchronized (digests) {
+            digest.notificationBatches.forEach(batch -> batch.remaining--);
+            completed = pollCompletedBatches();
+        }
+
+        completed.forEach(Runnable::run);
+    }
+
+    // Callbacks of the completed batches from the head of the queue, called outside the lock
+    private List<Runnable> pollCompletedBatches() {
+        var completed = new ArrayList<Runnable>();
+        while (!batches.isEmpty() && batches.peek().remaining == 0) {
+            var batch = batches.poll();
+            if (batch.onSent != null) {
+                completed.add(batch.onSent);
+            }
+        }
+        return completed;
+    }
+
+    private static class Digest {
+
+        private final List<String> notifications = new ArrayList<>();
+        // Batch of each notification
+        private final List<Batch> notificationBatches = new ArrayList<>();
+        private long startedAt;
+
+        private void add(String notification, Batch batch) {
+            if (notifications.isEmpty()) {
+                startedAt = System.currentTimeMillis();
+            }
+            notifications.add(notification);
+            notificationBatches.add(batch);
+        }
+
+        private int size() {
+            return notifications.size();
+        }
+    }
+
+    private static class Batch {
+
+        private int remaining;
+        private final Runnable onSent;
+
+        private Batch(int remaining, Runnable onSent) {
+            this.remaining = remaining;
+            this.onSent = onSent;
+        }
+    }
+}
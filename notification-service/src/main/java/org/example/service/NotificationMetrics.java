@@ -0,0 +1,41 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Available at "/actuator/metrics/{name}"
+@Component
+public class NotificationMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter failedDigests;
+    private final Counter deadLetters;
+
+    public NotificationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.failedDigests = Counter.builder("notifications.failed")
+                .description("Digests which failed to be sent and were published to the retry topic")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("notifications.dlt")
+                .description("Digests which were sent to the dead-letter topic")
+                .register(meterRegistry);
+    }
+
+    public void recordFailed() {
+        failedDigests.increment();
+    }
+
+    public void recordRetry(String topic) {
+        Counter.builder("notifications.retries")
+                .description("Attempts to resend digests from the retry topics")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordDeadLetter() {
+        deadLetters.increment();
+    }
+}
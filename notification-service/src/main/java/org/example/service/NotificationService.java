@@ -12,18 +12,32 @@ import java.util.Collection;
 @Slf4j
 public class NotificationService {
 
-    private final EmailService emailService;
+    private final NotificationDigestService notificationDigestService;
 
     @Value("${mail.receiver}")
     private String receiver;
 
     public void sendToEmail(Collection<String> notifications) {
+        sendToEmail(receiver, notifications);
+    }
 
-        log.info("Sending notification to email {}, message - {}", receiver, notifications);
+    // onSent is called when the notifications are sent (see NotificationDigestService)
+    public void sendToEmail(Collection<String> notifications, Runnable onSent) {
+        log.info("Adding {} notifications to digest for {}", notifications.size(), receiver);
+        notificationDigestService.add(receiver, notifications, onSent);
+    }
 
-        var subject = "Notifications from E-COMMERCE PLATFORM";
-        var body = notifications.toString();
+    // Notifications are not sent at once, but are collected into a digest (see NotificationDigestService)
+    public void sendToEmail(String receiver, Collection<String> notifications) {
+        log.info("Adding {} notifications to digest for {}", notifications.size(), receiver);
+        notificationDigestService.add(receiver, notifications);
+    }
+
+    public void resendDigest(String receiver, String body) {
+        notificationDigestService.resend(receiver, body);
+    }
 
-        emailService.sendSimpleEmail(receiver, subject, body);
+    public String getDefaultReceiver() {
+        return receiver;
     }
 }
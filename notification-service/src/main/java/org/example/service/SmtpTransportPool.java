@@ -0,0 +1,137 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps SMTP connections open and reuses them for the next emails,
+ * instead of connecting and authenticating for every email (as "JavaMailSenderImpl" does).
+ * Not more than 'maxConnections' connections are used at the same time (other senders wait),
+ * not more than 'maxIdleConnections' connections are kept, connections idle for longer than 'maxIdleMs' are closed
+ */
+@Slf4j
+public class SmtpTransportPool {
+
+    private final MailProperties mailProperties;
+    private final Semaphore connectionPermits;
+    private final int maxIdleConnections;
+    private final long maxIdleMs;
+
+    private final Session session;
+    private final BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    public SmtpTransportPool(MailProperties mailProperties, int maxConnections, int maxIdleConnections, long maxIdleMs) {
+        this.mailProperties = mailProperties;
+        this.connectionPermits = new Semaphore(maxConnections);
+        this.maxIdleConnections = maxIdleConnections;
+        this.maxIdleMs = maxIdleMs;
+
+        var properties = new Properties();
+        properties.putAll(mailProperties.getProperties());
+        this.session = Session.getInstance(properties);
+    }
+
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+
+        try {
+            connectionPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for SMTP connection", e);
+        }
+
+        try {
+            var pooledTransport = borrow();
+
+            try {
+                message.saveChanges();
+                pooledTransport.transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                close(pooledTransport);
+                throw e;
+            }
+
+            giveBack(pooledTransport);
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport pooledTransport;
+        while ((pooledTransport = idleTransports.poll()) != null) {
+            close(pooledTransport);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+
+        PooledTransport pooledTransport;
+        while ((pooledTransport = idleTransports.pollLast()) != null) {
+            // 'isConnected' checks the connection with the server (NOOP command)
+            if (!pooledTransport.isExpired(maxIdleMs) && pooledTransport.transport.isConnected()) {
+                return pooledTransport;
+            }
+            close(pooledTransport);
+        }
+
+        var transport = session.getTransport(mailProperties.getProtocol());
+        var port = mailProperties.getPort() != null ? mailProperties.getPort() : -1;
+        transport.connect(mailProperties.getHost(), port, mailProperties.getUsername(), mailProperties.getPassword());
+
+        log.info("Opened SMTP connection to {}:{} (total opened: {})",
+                mailProperties.getHost(), port, connectionsOpened.incrementAndGet());
+
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport pooledTransport) {
+        pooledTransport.lastUsedAt = System.currentTimeMillis();
+        if (idleTransports.size() >= maxIdleConnections || !idleTransports.offerLast(pooledTransport)) {
+            close(pooledTransport);
+        }
+    }
+
+    private void close(PooledTransport pooledTransport) {
+        try {
+            pooledTransport.transport.close();
+        } catch (MessagingException e) {
+            log.warn("Closing SMTP connection failed - {}", e.getMessage());
+        }
+    }
+
+    private static class PooledTransport {
+
+        private final Transport transport;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private boolean isExpired(long maxIdleMs) {
+            return System.currentTimeMillis() - lastUsedAt > maxIdleMs;
+        }
+    }
+}
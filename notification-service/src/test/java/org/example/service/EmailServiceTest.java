@@ -1,5 +1,8 @@
 package org.example.service;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -11,6 +14,8 @@ import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.io.IOException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -22,6 +27,8 @@ class EmailServiceTest {
 
     @MockBean
     private JavaMailSender javaMailSender;
+    @MockBean
+    private SmtpTransportPool smtpTransportPool;
     
     private final EasyRandom easyRandom = new EasyRandom();
 
@@ -65,4 +72,36 @@ class EmailServiceTest {
         verify(javaMailSender, only()).send(any(SimpleMailMessage.class));
         verify(javaMailSender, times(1)).send(any(SimpleMailMessage.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSendEmailOverPoolWhenSendEmail() throws MessagingException, IOException {
+
+        when(smtpTransportPool.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+
+        var emailTo = "receiver@gmail.com";
+        var emailSubject = easyRandom.nextObject(String.class);
+        var emailBody = easyRandom.nextObject(String.class);
+
+        emailService.sendEmail(emailTo, emailSubject, emailBody);
+
+        ArgumentCaptor<MimeMessage> messageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(smtpTransportPool, times(1)).send(messageCaptor.capture());
+
+        var message = messageCaptor.getValue();
+        assertEquals(emailFrom, message.getFrom()[0].toString());
+        assertEquals(emailTo, message.getAllRecipients()[0].toString());
+        assertEquals(emailSubject, message.getSubject());
+        assertEquals(emailBody, message.getContent());
+
+        verify(javaMailSender, never()).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void shouldThrowMailSendExceptionWhenSendEmail() throws MessagingException {
+
+        when(smtpTransportPool.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        doThrow(MessagingException.class).when(smtpTransportPool).send(any(MimeMessage.class));
+
+        assertThrows(MailSendException.class, () -> emailService.sendEmail("receiver@gmail.com", "subject", "body"));
+    }
+}
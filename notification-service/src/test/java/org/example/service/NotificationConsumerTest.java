@@ -1,5 +1,7 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,10 +9,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,34 +30,98 @@ class NotificationConsumerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private final EasyRandom easyRandom = new EasyRandom();
 
+    private final String receiver = "default@gmail.com";
+
     @BeforeEach
     void setUp() {
         Mockito.reset(notificationService);
-        this.notificationConsumer = new NotificationConsumer(notificationService);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.notificationConsumer = new NotificationConsumer(notificationService, new NotificationMetrics(meterRegistry));
+        ReflectionTestUtils.setField(notificationConsumer, "digestsTopic", "digests-topic");
     }
 
     @Test
     void shouldConsumeMessagesWhenMessageListener() {
         var messages = easyRandom.objects(String.class, 7).toList();
-        notificationConsumer.messageListener(messages);
-        verify(notificationService, times(1)).sendToEmail(messages);
+        notificationConsumer.messageListener(messages, acknowledgment);
+        verify(notificationService, times(1)).sendToEmail(eq(messages), any(Runnable.class));
+        // Is acknowledged only when the digest is sent
+        verify(acknowledgment, never()).acknowledge();
     }
 
     @Test
-    void shouldThrowMailSendExceptionWhenMessageListener() {
-        doThrow(MailSendException.class).when(notificationService).sendToEmail(any());
-        var messages = easyRandom.objects(String.class, 7).toList();
-        assertThrows(MailSendException.class, () -> notificationConsumer.messageListener(messages));
-        verify(notificationService, times(1)).sendToEmail(messages);
+    void shouldAcknowledgeBatchWhenNotificationsAreSent() {
+
+        var messages = easyRandom.objects(String.class, 3).toList();
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(notificationService).sendToEmail(eq(messages), any(Runnable.class));
+
+        notificationConsumer.messageListener(messages, acknowledgment);
+
+        verify(acknowledgment, times(1)).acknowledge();
     }
 
     @Test
-    void shouldThrowRuntimeExceptionWhenMessageListener() {
-        doThrow(RuntimeException.class).when(notificationService).sendToEmail(any());
-        var messages = easyRandom.objects(String.class, 7).toList();
-        assertThrows(RuntimeException.class, () -> notificationConsumer.messageListener(messages));
-        verify(notificationService, times(1)).sendToEmail(messages);
+    void shouldMoveDigestToRetryTopicWithoutResendingWhenRetryListenerGetsRecordFromDigestsTopic() {
+
+        var record = new ConsumerRecord<>("digests-topic", 0, 0L, "first@gmail.com", "digest");
+
+        // The digest has just failed to be sent, the exception moves it to the first retry topic (with backoff)
+        assertThrows(RuntimeException.class, () -> notificationConsumer.retryListener(record));
+
+        verify(notificationService, never()).resendDigest(anyString(), anyString());
+        assertTrue(meterRegistry.find("notifications.retries").counters().isEmpty());
+    }
+
+    @Test
+    void shouldResendDigestWhenRetryListener() {
+
+        var record = new ConsumerRecord<>("retry-topic-0", 0, 0L, "first@gmail.com", "digest");
+
+        notificationConsumer.retryListener(record);
+
+        verify(notificationService, times(1)).resendDigest("first@gmail.com", "digest");
+        assertEquals(1, meterRegistry.get("notifications.retries").tag("topic", "retry-topic-0").counter().count());
+    }
+
+    @Test
+    void shouldResendDigestToDefaultReceiverWhenRetryListenerGetsRecordWithoutKey() {
+
+        when(notificationService.getDefaultReceiver()).thenReturn(receiver);
+        var record = new ConsumerRecord<String, String>("retry-topic-0", 0, 0L, null, "digest");
+
+        notificationConsumer.retryListener(record);
+
+        verify(notificationService, times(1)).resendDigest(receiver, "digest");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRetryListenerFails() {
+
+        doThrow(MailSendException.class).when(notificationService).resendDigest(anyString(), anyString());
+        var record = new ConsumerRecord<>("retry-topic-0", 0, 0L, "first@gmail.com", "digest");
+
+        // Exception is handled by the retry topics (moving the record to the next one)
+        assertThrows(MailSendException.class, () -> notificationConsumer.retryListener(record));
+    }
+
+    @Test
+    void shouldCountDeadLettersWhenDeadLetterListener() {
+
+        var record = new ConsumerRecord<>("retry-topic-dlt", 0, 0L, "first@gmail.com", "digest");
+
+        notificationConsumer.deadLetterListener(record);
+        notificationConsumer.deadLetterListener(record);
+
+        assertEquals(2, meterRegistry.get("notifications.dlt").counter().count());
     }
-}
\ No newline at end of file
+}
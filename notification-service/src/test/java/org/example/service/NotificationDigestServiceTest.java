@@ -0,0 +1,194 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "mail.digest.max-size=3",
+        "mail.digest.window-ms=60000",
+        "mail.digest.check-interval-ms=3600000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class NotificationDigestServiceTest {
+
+    @Autowired
+    private NotificationDigestService notificationDigestService;
+
+    @MockBean
+    private EmailService emailService;
+    @MockBean
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.kafka.notifications-digests-topic}")
+    private String notificationsDigestsTopic;
+
+    private final EasyRandom easyRandom = new EasyRandom();
+
+    private final String receiver = "receiver@gmail.com";
+
+    @BeforeEach
+    void setUp() {
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void shouldNotSendDigestBeforeItIsFullWhenAdd() {
+
+        notificationDigestService.add(receiver, List.of("first", "second"));
+
+        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldSendDigestWhenItIsFull() {
+
+        var notifications = List.of("first", "second", "third", "fourth");
+
+        notificationDigestService.add(receiver, notifications);
+
+        var body = NotificationDigestService.render(notifications.subList(0, 3));
+        verify(emailService, timeout(1000).only()).sendEmail(receiver, NotificationDigestService.SUBJECT, body);
+        assertEquals(1, notificationDigestService.countPending());
+    }
+
+    @Test
+    void shouldSendDigestsPerReceiverWhenFlushExpired() {
+
+        var otherReceiver = "other-receiver@gmail.com";
+
+        notificationDigestService.add(receiver, List.of("first"));
+        notificationDigestService.add(otherReceiver, List.of("second", "third"));
+
+        notificationDigestService.flushExpired(System.currentTimeMillis());
+        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+
+        notificationDigestService.flushExpired(System.currentTimeMillis() + 60_000);
+
+        verify(emailService, timeout(1000).times(1)).sendEmail(receiver, NotificationDigestService.SUBJECT,
+                NotificationDigestService.render(List.of("first")));
+        verify(emailService, timeout(1000).times(1)).sendEmail(otherReceiver, NotificationDigestService.SUBJECT,
+                NotificationDigestService.render(List.of("second", "third")));
+
+        // Digests are removed after sending
+        assertEquals(0, notificationDigestService.countPending());
+        notificationDigestService.flushExpired(System.currentTimeMillis() + 120_000);
+        verify(emailService, times(2)).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldPublishDigestToDigestsTopicWhenSendingFails() {
+
+        doThrow(MailSendException.class).when(emailService).sendEmail(anyString(), anyString(), anyString());
+
+        var notifications = easyRandom.objects(String.class, 3).toList();
+
+        notificationDigestService.add(receiver, notifications);
+
+        verify(kafkaTemplate, timeout(1000).only()).send(notificationsDigestsTopic, receiver, NotificationDigestService.render(notifications));
+        assertEquals(1, meterRegistry.get("notifications.failed").counter().count());
+    }
+
+    @Test
+    void shouldCallOnSentInOrderOfBatchesWhenTheirNotificationsAreSent() throws InterruptedException {
+
+        var sent = Collections.synchronizedList(new ArrayList<String>());
+        var allSent = new CountDownLatch(3);
+        var otherReceiver = "other-receiver@gmail.com";
+
+        notificationDigestService.add(receiver, List.of("first"), () -> onSent(sent, allSent, "batch 1"));
+        notificationDigestService.add(otherReceiver, List.of("second"), () -> onSent(sent, allSent, "batch 2"));
+        // Digest of the other receiver is full and sent, but the first batch is not sent yet
+        notificationDigestService.add(otherReceiver, List.of("third", "fourth"), () -> onSent(sent, allSent, "batch 3"));
+
+        verify(emailService, timeout(1000).times(1)).sendEmail(eq(otherReceiver), anyString(), anyString());
+        assertEquals(List.of(), sent);
+
+        notificationDigestService.flushExpired(System.currentTimeMillis() + 60_000);
+
+        assertTrue(allSent.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("batch 1", "batch 2", "batch 3"), sent);
+    }
+
+    private static void onSent(List<String> sent, CountDownLatch allSent, String batch) {
+        sent.add(batch);
+        allSent.countDown();
+    }
+
+    @Test
+    void shouldKeepDigestAndNotCallOnSentWhenSendingAndPublishingToRetryFail() {
+
+        doThrow(MailSendException.class).when(emailService).sendEmail(anyString(), anyString(), anyString());
+        when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker is unavailable")));
+
+        var onSent = mock(Runnable.class);
+        notificationDigestService.add(receiver, List.of("first", "second", "third"), onSent);
+
+        verify(kafkaTemplate, timeout(1000).times(1)).send(anyString(), anyString(), anyString());
+        verify(onSent, after(200).never()).run();
+        // The digest is returned to be sent later
+        assertEquals(3, notificationDigestService.countPending());
+    }
+
+    @Test
+    void shouldSendAllPendingDigestsWhenFlushAll() {
+
+        var onSent = mock(Runnable.class);
+        notificationDigestService.add(receiver, List.of("first"), onSent);
+
+        assertTrue(notificationDigestService.flushAll(1000));
+
+        verify(emailService, times(1)).sendEmail(receiver, NotificationDigestService.SUBJECT,
+                NotificationDigestService.render(List.of("first")));
+        verify(onSent, times(1)).run();
+        assertEquals(0, notificationDigestService.countPending());
+    }
+
+    @Test
+    void shouldSendEmailWhenResend() {
+        notificationDigestService.resend(receiver, "digest");
+        verify(emailService, only()).sendEmail(receiver, NotificationDigestService.SUBJECT, "digest");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenResendFails() {
+        doThrow(MailSendException.class).when(emailService).sendEmail(anyString(), anyString(), anyString());
+        assertThrows(MailSendException.class, () -> notificationDigestService.resend(receiver, "digest"));
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    @Test
+    void shouldRenderNumberedNotificationsWhenRender() {
+        var body = NotificationDigestService.render(List.of("first", "second"));
+        assertEquals("Notifications: 2\n\n1. first\n2. second\n", body);
+    }
+}
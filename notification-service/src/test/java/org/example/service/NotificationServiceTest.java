@@ -16,7 +16,7 @@ class NotificationServiceTest {
     private NotificationService notificationService;
 
     @MockBean
-    private EmailService emailService;
+    private NotificationDigestService notificationDigestService;
 
     private final EasyRandom easyRandom = new EasyRandom();
 
@@ -24,16 +24,35 @@ class NotificationServiceTest {
     private String receiver;
 
     @Test
-    void shouldSendEmailWhenSendToEmail() {
+    void shouldAddNotificationsToDigestWhenSendToEmail() {
 
         var notifications = easyRandom.objects(String.class, 10).toList();
 
-        var subject = "Notifications from E-COMMERCE PLATFORM";
-        var body = notifications.toString();
-
         notificationService.sendToEmail(notifications);
 
-        verify(emailService, only()).sendSimpleEmail(receiver, subject, body);
-        verify(emailService, times(1)).sendSimpleEmail(receiver, subject, body);
+        verify(notificationDigestService, only()).add(receiver, notifications);
+        verify(notificationDigestService, times(1)).add(receiver, notifications);
+    }
+
+    @Test
+    void shouldAddNotificationsWithCallbackToDigestWhenSendToEmail() {
+
+        var notifications = easyRandom.objects(String.class, 10).toList();
+        Runnable onSent = () -> {};
+
+        notificationService.sendToEmail(notifications, onSent);
+
+        verify(notificationDigestService, only()).add(receiver, notifications, onSent);
+    }
+
+    @Test
+    void shouldAddNotificationsToDigestOfReceiverWhenSendToEmail() {
+
+        var otherReceiver = "other-receiver@gmail.com";
+        var notifications = easyRandom.objects(String.class, 10).toList();
+
+        notificationService.sendToEmail(otherReceiver, notifications);
+
+        verify(notificationDigestService, only()).add(otherReceiver, notifications);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package org.example.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// GreenMail is used as a local SMTP server
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private SmtpTransportPool smtpTransportPool;
+
+    @BeforeEach
+    void setUp() {
+        var mailProperties = new MailProperties();
+        mailProperties.setHost(greenMail.getSmtp().getBindTo());
+        mailProperties.setPort(greenMail.getSmtp().getPort());
+        smtpTransportPool = new SmtpTransportPool(mailProperties, 4, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        smtpTransportPool.close();
+    }
+
+    @Test
+    void shouldReuseConnectionWhenSend() throws MessagingException {
+
+        for (int i = 1; i <= 5; i++) {
+            smtpTransportPool.send(createMessage("Digest " + i));
+        }
+
+        var messagesReceived = greenMail.getReceivedMessages();
+        assertEquals(5, messagesReceived.length);
+        assertEquals("Digest 1", messagesReceived[0].getSubject());
+
+        assertEquals(1, smtpTransportPool.getConnectionsOpened());
+    }
+
+    @Test
+    void shouldSendDigestThroughEmailService() throws MessagingException {
+
+        var emailService = new EmailService(null, smtpTransportPool);
+        ReflectionTestUtils.setField(emailService, "emailFrom", "sender@localhost");
+
+        var body = NotificationDigestService.render(List.of("first", "second"));
+        emailService.sendEmail("receiver@localhost", NotificationDigestService.SUBJECT, body);
+        emailService.sendEmail("receiver@localhost", NotificationDigestService.SUBJECT, body);
+
+        var messagesReceived = greenMail.getReceivedMessages();
+        assertEquals(2, messagesReceived.length);
+        assertEquals(NotificationDigestService.SUBJECT, messagesReceived[0].getSubject());
+        var bodyReceived = GreenMailUtil.getBody(messagesReceived[0]);
+        assertTrue(bodyReceived.contains("1. first"));
+        assertTrue(bodyReceived.contains("2. second"));
+
+        assertEquals(1, smtpTransportPool.getConnectionsOpened());
+    }
+
+    private MimeMessage createMessage(String subject) throws MessagingException {
+        var message = smtpTransportPool.createMimeMessage();
+        message.setFrom(new InternetAddress("sender@localhost"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("receiver@localhost"));
+        message.setSubject(subject);
+        message.setText("Notifications: 1\n\n1. notification\n");
+        return message;
+    }
+}
@@ -1,13 +1,13 @@
 package org.example.config;
 
-import org.springframework.amqp.core.Binding;
-import org.springframework.amqp.core.BindingBuilder;
-import org.springframework.amqp.core.Queue;
-import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.core.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitQueuesConfig {
 
@@ -23,6 +23,9 @@ public class RabbitQueuesConfig {
     @Value("${spring.rabbitmq.queues.order-change-status}")
     private String queueOrderChangeStatus;
 
+    @Value("${spring.rabbitmq.queues.order-change-status-shards:4}")
+    private int orderChangeStatusShards;
+
     @Value("${spring.rabbitmq.queues.order-delete}")
     private String queueOrderDelete;
 
@@ -51,6 +54,28 @@ public class RabbitQueuesConfig {
         return new Queue(queueOrderDelete);
     }
 
+    // Status changes are routed by frontend-service to one of the shard-queues by hash of orderId,
+    // so all changes of one order are consumed in the publishing order.
+    // 'single-active-consumer' keeps one consumer per shard across all instances of the service
+    @Bean
+    public Declarables orderChangeStatusShardQueues(TopicExchange topicExchange) {
+        var declarables = new ArrayList<Declarable>();
+        for (var queueName : orderChangeStatusShardQueueNames()) {
+            var queue = QueueBuilder.durable(queueName).singleActiveConsumer().build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(topicExchange).with(queueName));
+        }
+        return new Declarables(declarables);
+    }
+
+    public List<String> orderChangeStatusShardQueueNames() {
+        var queueNames = new ArrayList<String>();
+        for (int shard = 0; shard < orderChangeStatusShards; shard++) {
+            queueNames.add(queueOrderChangeStatus + "." + shard);
+        }
+        return queueNames;
+    }
+
     @Bean
     public Binding orderCreateBinding(TopicExchange topicExchange, Queue orderCreateQueue) {
         return BindingBuilder.bind(orderCreateQueue).to(topicExchange).with(orderCreateQueue.getName());
@@ -0,0 +1,30 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.service.RabbitMQListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.context.annotation.Configuration;
+
+// One single-threaded listener container per shard-queue of status changes:
+// changes of one order are processed sequentially, while shards are processed in parallel
+@Configuration
+@RequiredArgsConstructor
+public class RabbitShardedListenersConfig implements RabbitListenerConfigurer {
+
+    private final RabbitQueuesConfig rabbitQueuesConfig;
+    private final RabbitMQListener rabbitMQListener;
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (var queueName : rabbitQueuesConfig.orderChangeStatusShardQueueNames()) {
+            var endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(queueName);
+            endpoint.setQueueNames(queueName);
+            endpoint.setConcurrency("1");
+            endpoint.setMessageListener(rabbitMQListener::processOrderChangeStatusQueue);
+            registrar.registerEndpoint(endpoint);
+        }
+    }
+}
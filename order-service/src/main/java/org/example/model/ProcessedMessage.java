@@ -0,0 +1,33 @@
+package org.example.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Idempotency key of a RabbitMQ command which is being or was already processed.
+// Records are removed by the TTL-index on 'processedAt' (see ProcessedMessageService)
+@Document(collection = "processed-messages")
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+public class ProcessedMessage {
+
+    public enum State {
+        // The command is being processed since 'processedAt'
+        PENDING,
+        // The command is processed, records without a state are written before the states were introduced
+        DONE
+    }
+
+    @Id
+    private String key;
+
+    @EqualsAndHashCode.Exclude
+    private State state;
+
+    @EqualsAndHashCode.Exclude
+    private Instant processedAt;
+}
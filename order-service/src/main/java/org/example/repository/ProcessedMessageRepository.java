@@ -0,0 +1,7 @@
+package org.example.repository;
+
+import org.example.model.ProcessedMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ProcessedMessageRepository extends MongoRepository<ProcessedMessage, String> {
+}
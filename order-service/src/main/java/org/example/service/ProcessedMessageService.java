@@ -0,0 +1,113 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.ProcessedMessage;
+import org.example.repository.ProcessedMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessedMessageService {
+
+    public enum Registration {
+        // The message has to be processed, then completed (or unregistered if processing fails)
+        REGISTERED,
+        // The message was already processed and has to be dropped
+        PROCESSED,
+        // The message is being processed by another consumer, it has to be delivered again later
+        IN_PROGRESS
+    }
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${order-service.processed-messages.ttl:7d}")
+    private Duration ttl;
+
+    // A pending key older than that belongs to a consumer which died while processing the message
+    @Value("${order-service.processed-messages.pending-timeout:30s}")
+    private Duration pendingTimeout;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(ProcessedMessage.class)
+                    .ensureIndex(new Index().on("processedAt", Sort.Direction.ASC).expire(ttl));
+        } catch (Exception e) {
+            log.error("Creating TTL-index for processed messages failed - {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the idempotency key of a message as pending before the message is processed.
+     * The key is the '_id' of the record, so the check is a single insert which fails on duplicates.
+     * A stale pending key is taken over, so the message is not lost if its consumer died while processing it.
+     */
+    public Registration register(String key) {
+
+        if (key == null) {
+            log.warn("Message has no idempotency key, it will be processed without deduplication");
+            return Registration.REGISTERED;
+        }
+
+        var now = Instant.now();
+        try {
+            processedMessageRepository.insert(new ProcessedMessage(key, ProcessedMessage.State.PENDING, now));
+            return Registration.REGISTERED;
+        } catch (DuplicateKeyException e) {
+            // Atomic, so only one of the redeliveries takes the key over
+            var staleKey = mongoTemplate.findAndModify(
+                    query(where("_id").is(key)
+                            .and("state").is(ProcessedMessage.State.PENDING)
+                            .and("processedAt").lt(now.minus(pendingTimeout))),
+                    Update.update("processedAt", now),
+                    ProcessedMessage.class);
+            if (staleKey != null) {
+                log.warn("Message with key '{}' was not processed since {}, processing it again", key, staleKey.getProcessedAt());
+                return Registration.REGISTERED;
+            }
+
+            // A key removed in the meantime belongs to a failed attempt, the message is delivered again as well
+            var existingKey = processedMessageRepository.findById(key).orElse(null);
+            if (existingKey == null || existingKey.getState() == ProcessedMessage.State.PENDING) {
+                log.warn("Message with key '{}' is being processed by another consumer", key);
+                return Registration.IN_PROGRESS;
+            }
+            log.warn("Message with key '{}' was already processed", key);
+            return Registration.PROCESSED;
+        }
+    }
+
+    // Is called when the message is processed, from then on its redeliveries are dropped
+    public void complete(String key) {
+        if (key == null) {
+            return;
+        }
+        processedMessageRepository.save(new ProcessedMessage(key, ProcessedMessage.State.DONE, Instant.now()));
+    }
+
+    // Is called when processing of the message failed, so that its redelivery is not dropped
+    public void unregister(String key) {
+        if (key == null) {
+            return;
+        }
+        log.warn("Removing idempotency key '{}' of failed message", key);
+        processedMessageRepository.deleteById(key);
+    }
+}
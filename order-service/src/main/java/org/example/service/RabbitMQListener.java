@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.model.dto.IdAndOrderDTO;
 import org.example.model.dto.IdAndStatusDTO;
 import org.example.model.dto.OrderDTO;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
@@ -16,36 +17,72 @@ public class RabbitMQListener {
 
     private final OrderService orderService;
     private final MessagesParser messagesParser;
+    private final ProcessedMessageService processedMessageService;
 
     @RabbitListener(queues = "${spring.rabbitmq.queues.order-create}")
     public void processOrderCreateQueue(Message message) {
         log.info("Received message for creating order: {}", message.getMessageProperties());
-        var objectRetrieved = messagesParser.parseToObject(message.getBody(), OrderDTO.class);
-        log.info("Message body: {}", objectRetrieved);
-        orderService.create(objectRetrieved);
+        processOnce(message, () -> {
+            var objectRetrieved = messagesParser.parseToObject(message.getBody(), OrderDTO.class);
+            log.info("Message body: {}", objectRetrieved);
+            orderService.create(objectRetrieved);
+        });
     }
 
     @RabbitListener(queues = "${spring.rabbitmq.queues.order-update}")
     public void processOrderUpdateQueue(Message message) {
         log.info("Received message for updating order: {}", message.getMessageProperties());
-        var objectRetrieved = messagesParser.parseToObject(message.getBody(), IdAndOrderDTO.class);
-        log.info("Message body: {}", objectRetrieved);
-        orderService.update(objectRetrieved.getId(), objectRetrieved.getOrderDTO());
+        processOnce(message, () -> {
+            var objectRetrieved = messagesParser.parseToObject(message.getBody(), IdAndOrderDTO.class);
+            log.info("Message body: {}", objectRetrieved);
+            orderService.update(objectRetrieved.getId(), objectRetrieved.getOrderDTO());
+        });
     }
 
+    // Status changes are consumed from the shard-queues (see RabbitShardedListenersConfig),
+    // the unsharded queue only drains messages which were published before sharding
     @RabbitListener(queues = "${spring.rabbitmq.queues.order-change-status}")
     public void processOrderChangeStatusQueue(Message message) {
         log.info("Received message for changing order status: {}", message.getMessageProperties());
-        var objectRetrieved = messagesParser.parseToObject(message.getBody(), IdAndStatusDTO.class);
-        log.info("Message body: {}", objectRetrieved);
-        orderService.changeOrderStatus(objectRetrieved.getId(), objectRetrieved.getStatus());
+        processOnce(message, () -> {
+            var objectRetrieved = messagesParser.parseToObject(message.getBody(), IdAndStatusDTO.class);
+            log.info("Message body: {}", objectRetrieved);
+            orderService.changeOrderStatus(objectRetrieved.getId(), objectRetrieved.getStatus());
+        });
     }
 
     @RabbitListener(queues = "${spring.rabbitmq.queues.order-delete}")
     public void processOrderDeleteQueue(Message message) {
         log.info("Received message for deleting order: {}", message.getMessageProperties());
-        var objectRetrieved = messagesParser.parseToObject(message.getBody(), String.class);
-        log.info("Message body: {}", objectRetrieved);
-        orderService.deleteById(objectRetrieved);
+        processOnce(message, () -> {
+            var objectRetrieved = messagesParser.parseToObject(message.getBody(), String.class);
+            log.info("Message body: {}", objectRetrieved);
+            orderService.deleteById(objectRetrieved);
+        });
+    }
+
+    // Redelivered messages (with the same idempotency key - 'messageId') are dropped before any write.
+    // The key is marked as processed only after the write, a consumer dying in between leaves it pending,
+    // and a pending key is taken over by a redelivery once it is stale (see ProcessedMessageService)
+    private void processOnce(Message message, Runnable processing) {
+
+        var key = message.getMessageProperties().getMessageId();
+        switch (processedMessageService.register(key)) {
+            case PROCESSED -> {
+                log.warn("Duplicate message with key '{}' is skipped", key);
+                return;
+            }
+            case IN_PROGRESS -> throw new ImmediateRequeueAmqpException(
+                    String.format("Message with key '%s' is being processed, it is requeued", key));
+            case REGISTERED -> {}
+        }
+
+        try {
+            processing.run();
+        } catch (RuntimeException | Error e) {
+            processedMessageService.unregister(key);
+            throw e;
+        }
+        processedMessageService.complete(key);
     }
 }
@@ -0,0 +1,114 @@
+package org.example.service;
+
+import org.example.model.ProcessedMessage;
+import org.example.repository.ProcessedMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@SpringBootTest
+class ProcessedMessageServiceTest {
+
+    @Autowired
+    private ProcessedMessageService processedMessageService;
+
+    @Autowired
+    private ProcessedMessageRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldRegisterPendingKeyWhenRegisterNewKey() {
+
+        var key = "new-key";
+
+        assertEquals(ProcessedMessageService.Registration.REGISTERED, processedMessageService.register(key));
+
+        var processedMessage = repository.findById(key).orElseThrow();
+        assertEquals(ProcessedMessage.State.PENDING, processedMessage.getState());
+    }
+
+    @Test
+    void shouldReturnProcessedWhenRegisterCompletedKey() {
+
+        var key = "duplicate-key";
+
+        processedMessageService.register(key);
+        processedMessageService.complete(key);
+
+        assertEquals(ProcessedMessageService.Registration.PROCESSED, processedMessageService.register(key));
+        assertEquals(ProcessedMessage.State.DONE, repository.findById(key).orElseThrow().getState());
+    }
+
+    @Test
+    void shouldReturnProcessedWhenRegisterKeyWithoutState() {
+
+        var key = "old-key";
+
+        repository.insert(new ProcessedMessage(key, null, Instant.now().minus(Duration.ofDays(1))));
+
+        assertEquals(ProcessedMessageService.Registration.PROCESSED, processedMessageService.register(key));
+    }
+
+    @Test
+    void shouldReturnInProgressWhenRegisterKeyBeingProcessed() {
+
+        var key = "pending-key";
+
+        processedMessageService.register(key);
+
+        assertEquals(ProcessedMessageService.Registration.IN_PROGRESS, processedMessageService.register(key));
+    }
+
+    @Test
+    void shouldRegisterKeyAgainWhenProcessingInterruptedAfterRegister() {
+
+        var key = "interrupted-key";
+
+        // The consumer dies after the registration: the key is neither completed nor unregistered
+        assertEquals(ProcessedMessageService.Registration.REGISTERED, processedMessageService.register(key));
+        mongoTemplate.updateFirst(query(where("_id").is(key)),
+                Update.update("processedAt", Instant.now().minus(Duration.ofHours(1))), ProcessedMessage.class);
+
+        // The redelivery takes the stale key over, other redeliveries wait for it
+        assertEquals(ProcessedMessageService.Registration.REGISTERED, processedMessageService.register(key));
+        assertEquals(ProcessedMessageService.Registration.IN_PROGRESS, processedMessageService.register(key));
+
+        processedMessageService.complete(key);
+        assertEquals(ProcessedMessageService.Registration.PROCESSED, processedMessageService.register(key));
+    }
+
+    @Test
+    void shouldReturnRegisteredWhenRegisterNullKey() {
+        assertEquals(ProcessedMessageService.Registration.REGISTERED, processedMessageService.register(null));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void shouldDeleteKeyWhenUnregister() {
+
+        var key = "failed-key";
+
+        processedMessageService.register(key);
+        processedMessageService.unregister(key);
+
+        assertTrue(repository.findById(key).isEmpty());
+        assertEquals(ProcessedMessageService.Registration.REGISTERED, processedMessageService.register(key));
+    }
+}
@@ -7,12 +7,16 @@ import org.example.model.dto.IdAndOrderDTO;
 import org.example.model.dto.IdAndStatusDTO;
 import org.example.model.dto.OrderDTO;
 import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -26,6 +30,8 @@ class RabbitMQListenerTest {
     private OrderService orderService;
     @MockBean
     private MessagesParser messagesParser;
+    @MockBean
+    private ProcessedMessageService processedMessageService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -37,6 +43,11 @@ class RabbitMQListenerTest {
         objectMapper.findAndRegisterModules();
     }
 
+    @BeforeEach
+    void setUp() {
+        when(processedMessageService.register(any())).thenReturn(ProcessedMessageService.Registration.REGISTERED);
+    }
+
     @Test
     void shouldProcessMessageWhenProcessOrderCreateQueue() throws JsonProcessingException {
 
@@ -100,4 +111,100 @@ class RabbitMQListenerTest {
         verify(messagesParser, times(1)).parseToObject(idBytes, String.class);
         verify(orderService, times(1)).deleteById(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSkipMessageWhenProcessOrderCreateQueueWithDuplicateKey() throws JsonProcessingException {
+
+        var orderDTO = easyRandom.nextObject(OrderDTO.class);
+        var orderDTOBytes = objectMapper.writeValueAsBytes(orderDTO);
+
+        var messageProperties = new MessageProperties();
+        messageProperties.setMessageId("duplicate-key");
+        var message = new Message(orderDTOBytes, messageProperties);
+
+        when(processedMessageService.register("duplicate-key")).thenReturn(ProcessedMessageService.Registration.PROCESSED);
+
+        rabbitMQListener.processOrderCreateQueue(message);
+
+        verify(processedMessageService, times(1)).register("duplicate-key");
+        verify(messagesParser, never()).parseToObject(any(), any());
+        verify(orderService, never()).create(any());
+    }
+
+    @Test
+    void shouldUnregisterKeyWhenProcessOrderCreateQueueFails() throws JsonProcessingException {
+
+        var orderDTO = easyRandom.nextObject(OrderDTO.class);
+        var orderDTOBytes = objectMapper.writeValueAsBytes(orderDTO);
+
+        var messageProperties = new MessageProperties();
+        messageProperties.setMessageId("failing-key");
+        var message = new Message(orderDTOBytes, messageProperties);
+
+        when(messagesParser.parseToObject(any(), any())).thenReturn(orderDTO);
+        when(orderService.create(orderDTO)).thenThrow(new RuntimeException("test"));
+
+        assertThrows(RuntimeException.class, () -> rabbitMQListener.processOrderCreateQueue(message));
+
+        verify(processedMessageService, times(1)).register("failing-key");
+        verify(processedMessageService, times(1)).unregister("failing-key");
+        verify(processedMessageService, never()).complete("failing-key");
+    }
+
+    @Test
+    void shouldCompleteKeyAfterWriteWhenProcessOrderCreateQueue() throws JsonProcessingException {
+
+        var orderDTO = easyRandom.nextObject(OrderDTO.class);
+        var orderDTOBytes = objectMapper.writeValueAsBytes(orderDTO);
+
+        var messageProperties = new MessageProperties();
+        messageProperties.setMessageId("new-key");
+        var message = new Message(orderDTOBytes, messageProperties);
+
+        when(messagesParser.parseToObject(any(), any())).thenReturn(orderDTO);
+
+        rabbitMQListener.processOrderCreateQueue(message);
+
+        var inOrder = inOrder(processedMessageService, orderService);
+        inOrder.verify(processedMessageService).register("new-key");
+        inOrder.verify(orderService).create(orderDTO);
+        inOrder.verify(processedMessageService).complete("new-key");
+    }
+
+    @Test
+    void shouldUnregisterKeyWhenProcessOrderCreateQueueFailsWithError() throws JsonProcessingException {
+
+        var orderDTO = easyRandom.nextObject(OrderDTO.class);
+        var orderDTOBytes = objectMapper.writeValueAsBytes(orderDTO);
+
+        var messageProperties = new MessageProperties();
+        messageProperties.setMessageId("error-key");
+        var message = new Message(orderDTOBytes, messageProperties);
+
+        when(messagesParser.parseToObject(any(), any())).thenReturn(orderDTO);
+        when(orderService.create(orderDTO)).thenThrow(new StackOverflowError("test"));
+
+        assertThrows(StackOverflowError.class, () -> rabbitMQListener.processOrderCreateQueue(message));
+
+        verify(processedMessageService, times(1)).unregister("error-key");
+        verify(processedMessageService, never()).complete("error-key");
+    }
+
+    @Test
+    void shouldRequeueMessageWhenProcessOrderCreateQueueWithKeyInProgress() throws JsonProcessingException {
+
+        var orderDTO = easyRandom.nextObject(OrderDTO.class);
+        var orderDTOBytes = objectMapper.writeValueAsBytes(orderDTO);
+
+        var messageProperties = new MessageProperties();
+        messageProperties.setMessageId("pending-key");
+        var message = new Message(orderDTOBytes, messageProperties);
+
+        when(processedMessageService.register("pending-key")).thenReturn(ProcessedMessageService.Registration.IN_PROGRESS);
+
+        assertThrows(ImmediateRequeueAmqpException.class, () -> rabbitMQListener.processOrderCreateQueue(message));
+
+        verify(orderService, never()).create(any());
+        verify(processedMessageService, never()).unregister("pending-key");
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.config;
+
+import lombok.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps tokens verified by the delegate for a short time, so repeated requests with the same token
+ * skip the signature verification. A token is cached by its SHA-256 hash and never longer than until its expiry.
+ * Only successfully decoded tokens are cached.
+ * <p>
+ * The cache is bounded: entries are queued in the order they are cached, and the oldest ones are evicted
+ * when they expire or to make room for a new token, so a miss never scans the whole cache.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Duration ttl;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Entries in the order they were cached, may still hold entries already removed from the map
+    private final ConcurrentLinkedQueue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+
+    @Value
+    private static class Entry {
+        String key;
+        Jwt jwt;
+        Instant cachedUntil;
+    }
+
+    public CachingJwtDecoder(JwtDecoder delegate, Duration ttl, int maxSize, Clock clock) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+
+        var key = hash(token);
+        var now = clock.instant();
+
+        var entry = entries.get(key);
+        if (entry != null) {
+            if (now.isBefore(entry.getCachedUntil())) {
+                return entry.getJwt();
+            }
+            entries.remove(key, entry);
+        }
+
+        var jwt = delegate.decode(token);
+
+        var cachedUntil = now.plus(ttl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(cachedUntil)) {
+            cachedUntil = jwt.getExpiresAt();
+        }
+        if (maxSize > 0 && now.isBefore(cachedUntil)) {
+            evict(now);
+            var newEntry = new Entry(key, jwt, cachedUntil);
+            entries.put(key, newEntry);
+            evictionQueue.add(newEntry);
+        }
+        return jwt;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // All entries are cached for the same TTL, so the oldest one expires first
+    // (entries of tokens expiring earlier are removed when they are read or reach the head)
+    private void evict(Instant now) {
+        while (entries.size() >= maxSize || isHeadExpired(now)) {
+            var head = evictionQueue.poll();
+            if (head == null) {
+                return;
+            }
+            entries.remove(head.getKey(), head);
+        }
+    }
+
+    private boolean isHeadExpired(Instant now) {
+        var head = evictionQueue.peek();
+        return head != null && !now.isBefore(head.getCachedUntil());
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
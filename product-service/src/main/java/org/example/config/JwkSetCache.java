@@ -0,0 +1,258 @@
+package org.example.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Signing keys of the authorization server (JWKS) kept in memory and refreshed in the background.
+ * The last key set is saved to a file (if configured), so after a restart tokens are verified with it
+ * without waiting for the issuer discovery and the key set download.
+ * A token signed with an unknown key (key rotation) triggers a refresh, at most once per "min refresh interval".
+ * <p>
+ * Refreshes are single-flight: while one is running, requests don't wait for it, they use the current key set.
+ * Only while there is no key set yet (e.g. the first start without the cache file) requests wait for the running
+ * refresh, up to the HTTP timeout. Failed attempts count for the "min refresh interval" too,
+ * so an unavailable issuer is not asked again by every request.
+ */
+@Slf4j
+public class JwkSetCache implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private final String issuerUri;
+    private final String configuredJwkSetUri;
+    private final Path cacheFile;
+    private final Duration minRefreshInterval;
+    private final Duration httpTimeout;
+    private final RestClient restClient;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ScheduledExecutorService refreshScheduler;
+
+    private volatile JWKSet jwkSet;
+    private volatile String jwkSetUri;
+    // Null - there was no attempt yet (the key set may still be read from the cache file), written under refreshLock
+    private volatile Attempt lastAttempt;
+
+    /**
+     * @param jwkSetUri key set location, if empty it is discovered from the issuer configuration
+     * @param cacheFile file to keep the last key set in, null - the key set is not saved
+     */
+    public JwkSetCache(String issuerUri, String jwkSetUri, Path cacheFile,
+                       Duration refreshInterval, Duration minRefreshInterval, Duration httpTimeout) {
+
+        this.issuerUri = issuerUri;
+        this.configuredJwkSetUri = jwkSetUri == null || jwkSetUri.isEmpty() ? null : jwkSetUri;
+        this.cacheFile = cacheFile;
+        this.minRefreshInterval = minRefreshInterval;
+        this.httpTimeout = httpTimeout;
+
+        var requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(httpTimeout);
+        requestFactory.setReadTimeout(httpTimeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        this.jwkSet = readCacheFile();
+
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("jwks-refresh").daemon().factory());
+        this.refreshScheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+
+        var currentJwkSet = jwkSet;
+        if (currentJwkSet == null) {
+            // Nothing is cached yet, the request has to wait for the key set
+            currentJwkSet = refreshOnDemand();
+        }
+
+        var keys = jwkSelector.select(currentJwkSet);
+        if (keys.isEmpty()) {
+            // Possibly the keys are rotated
+            var refreshedJwkSet = refreshOnDemand();
+            if (refreshedJwkSet != currentJwkSet) {
+                keys = jwkSelector.select(refreshedJwkSet);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public void close() {
+        refreshScheduler.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        refreshLock.lock();
+        try {
+            refresh();
+        } catch (KeySourceException e) {
+            log.error("Unable to refresh JWKS of issuer '{}', the cached key set is used", issuerUri, e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Refresh requested by a token, skipped if there was an attempt within the "min refresh interval"
+     * or if another refresh is running (and there is a key set to use meanwhile)
+     *
+     * @return the refreshed key set or the current one, if the refresh is skipped or failed
+     * @throws KeySourceException if there is no key set at all
+     */
+    private JWKSet refreshOnDemand() throws KeySourceException {
+
+        if (isAttemptedRecently() || !tryLockRefresh()) {
+            return currentJwkSet();
+        }
+        try {
+            // Refreshed by another caller right before the lock was taken
+            if (isAttemptedRecently()) {
+                return currentJwkSet();
+            }
+            return refresh();
+        } catch (KeySourceException e) {
+            if (jwkSet == null) {
+                throw e;
+            }
+            log.error("Unable to refresh JWKS of issuer '{}', the cached key set is used", issuerUri, e);
+            return jwkSet;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Without a key set the token can't be verified at all, so the request waits for the running refresh
+    private boolean tryLockRefresh() throws KeySourceException {
+        if (jwkSet != null) {
+            return refreshLock.tryLock();
+        }
+        try {
+            return refreshLock.tryLock(httpTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeySourceException("Interrupted while waiting for JWKS of issuer '" + issuerUri + "'", e);
+        }
+    }
+
+    // Called under refreshLock
+    private JWKSet refresh() throws KeySourceException {
+        try {
+            var downloadedJwkSet = download();
+            jwkSet = downloadedJwkSet;
+            lastAttempt = new Attempt(System.nanoTime(), null);
+            writeCacheFile(downloadedJwkSet);
+            return downloadedJwkSet;
+        } catch (KeySourceException e) {
+            lastAttempt = new Attempt(System.nanoTime(), e);
+            throw e;
+        }
+    }
+
+    private boolean isAttemptedRecently() {
+        var attempt = lastAttempt;
+        return attempt != null && System.nanoTime() - attempt.nanos < minRefreshInterval.toNanos();
+    }
+
+    private JWKSet currentJwkSet() throws KeySourceException {
+        var currentJwkSet = jwkSet;
+        if (currentJwkSet != null) {
+            return currentJwkSet;
+        }
+        var attempt = lastAttempt;
+        throw new KeySourceException("JWKS of issuer '" + issuerUri + "' is not available yet",
+                attempt == null ? null : attempt.failure);
+    }
+
+    private JWKSet download() throws KeySourceException {
+        try {
+            var body = restClient.get()
+                    .uri(resolveJwkSetUri())
+                    .retrieve()
+                    .body(String.class);
+            return JWKSet.parse(body);
+        } catch (ParseException | RuntimeException e) {
+            throw new KeySourceException("Unable to download JWKS of issuer '" + issuerUri + "'", e);
+        }
+    }
+
+    private String resolveJwkSetUri() {
+        if (configuredJwkSetUri != null) {
+            return configuredJwkSetUri;
+        }
+        var discoveredJwkSetUri = jwkSetUri;
+        if (discoveredJwkSetUri == null) {
+            var configuration = restClient.get()
+                    .uri(issuerUri + "/.well-known/openid-configuration")
+                    .retrieve()
+                    .body(Map.class);
+            if (configuration == null || !(configuration.get("jwks_uri") instanceof String uri)) {
+                throw new IllegalStateException("Issuer '" + issuerUri + "' has no 'jwks_uri' in its configuration");
+            }
+            discoveredJwkSetUri = uri;
+            jwkSetUri = uri;
+        }
+        return discoveredJwkSetUri;
+    }
+
+    private JWKSet readCacheFile() {
+        if (cacheFile == null || !Files.isReadable(cacheFile)) {
+            return null;
+        }
+        try {
+            var cachedJwkSet = JWKSet.parse(Files.readString(cacheFile));
+            log.info("JWKS of issuer '{}' is read from '{}', {} keys", issuerUri, cacheFile, cachedJwkSet.size());
+            return cachedJwkSet;
+        } catch (IOException | ParseException e) {
+            log.error("Unable to read cached JWKS from '{}'", cacheFile, e);
+            return null;
+        }
+    }
+
+    private void writeCacheFile(JWKSet jwkSetToCache) {
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            var tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            // Only public keys are written
+            Files.writeString(tempFile, jwkSetToCache.toString(true));
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to write JWKS to '{}'", cacheFile, e);
+        }
+    }
+
+    private static class Attempt {
+
+        private final long nanos;
+        // Null - the attempt succeeded
+        private final KeySourceException failure;
+
+        private Attempt(long nanos, KeySourceException failure) {
+            this.nanos = nanos;
+            this.failure = failure;
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package org.example.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -16,21 +26,79 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
+    // Empty - discovered from the issuer configuration in the background
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}")
+    private String jwkSetUri;
+
+    // Empty - the key set is not saved, and after a restart the first request waits for it
+    @Value("${product-service.jwt.jwks.cache-file:}")
+    private String jwkSetCacheFile;
+
+    @Value("${product-service.jwt.jwks.refresh-interval-seconds:300}")
+    private long jwkSetRefreshIntervalSeconds;
+
+    // Limits refreshes caused by tokens with unknown keys
+    @Value("${product-service.jwt.jwks.min-refresh-interval-seconds:30}")
+    private long jwkSetMinRefreshIntervalSeconds;
+
+    @Value("${product-service.jwt.jwks.timeout-seconds:5}")
+    private long jwkSetTimeoutSeconds;
+
+    // 0 - every request verifies the token signature
+    @Value("${product-service.jwt.verified-token-cache.ttl-seconds:30}")
+    private long verifiedTokenCacheTtlSeconds;
+
+    @Value("${product-service.jwt.verified-token-cache.max-size:10000}")
+    private int verifiedTokenCacheMaxSize;
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
 
         return http
                 .authorizeHttpRequests(authz -> authz
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 ->
-                        oauth2.jwt(jwt -> jwt.decoder(jwtDecoder()))
+                        oauth2.jwt(jwt -> jwt.decoder(jwtDecoder))
                 )
                 .build();
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return JwtDecoders.fromIssuerLocation(issuerUri);
+    public JwkSetCache jwkSetCache() {
+        return new JwkSetCache(
+                issuerUri,
+                jwkSetUri,
+                jwkSetCacheFile.isEmpty() ? null : Path.of(jwkSetCacheFile),
+                Duration.ofSeconds(jwkSetRefreshIntervalSeconds),
+                Duration.ofSeconds(jwkSetMinRefreshIntervalSeconds),
+                Duration.ofSeconds(jwkSetTimeoutSeconds)
+        );
+    }
+
+    /**
+     * Unlike JwtDecoders.fromIssuerLocation, doesn't call the issuer on startup,
+     * the keys are taken from the JWKS cache
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JwkSetCache jwkSetCache) {
+
+        var algorithms = new HashSet<JWSAlgorithm>();
+        algorithms.addAll(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+
+        var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSetCache));
+        // Claims are validated by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+
+        var nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        nimbusJwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+
+        if (verifiedTokenCacheTtlSeconds <= 0) {
+            return nimbusJwtDecoder;
+        }
+        return new CachingJwtDecoder(nimbusJwtDecoder, Duration.ofSeconds(verifiedTokenCacheTtlSeconds),
+                verifiedTokenCacheMaxSize, Clock.systemUTC());
     }
-}
\ No newline at end of file
+}
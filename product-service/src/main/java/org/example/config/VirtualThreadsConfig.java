@@ -0,0 +1,67 @@
+package org.example.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Pinning diagnostics for the virtual-thread mode ("spring.threads.virtual.enabled").
+ * A virtual thread blocked inside "synchronized" or a native frame keeps its carrier thread,
+ * so such places limit the concurrency the same way a platform-thread pool does.
+ * They are reported from the JFR event "jdk.VirtualThreadPinned" with the stack trace of the pinned thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REPORTED_FRAMES = 10;
+
+    // Pinning shorter than this is not reported (the event is emitted only for blocking while pinned)
+    @Value("${virtual-threads.pinning-diagnostics.threshold-ms:20}")
+    private long pinningThresholdMs;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "virtual-threads.pinning-diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+    public RecordingStream virtualThreadPinningRecording() {
+        var recording = new RecordingStream();
+        recording.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(pinningThresholdMs))
+                .withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::reportPinning);
+        recording.startAsync();
+        return recording;
+    }
+
+    private void reportPinning(RecordedEvent event) {
+        log.warn("Virtual thread '{}' was pinned for {} ms at:\n{}",
+                event.getThread() == null ? "<unknown>" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(),
+                stackTraceOf(event));
+    }
+
+    private static String stackTraceOf(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "\t<no stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(REPORTED_FRAMES)
+                .map(VirtualThreadsConfig::frameToString)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String frameToString(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return "\tat " + method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -3,12 +3,19 @@ package org.example.controller;
 import lombok.RequiredArgsConstructor;
 import org.example.model.Category;
 import org.example.model.DTO.ProductDTO;
+import org.example.model.DTO.ProductFacetsDTO;
+import org.example.model.DTO.ProductImportResultDTO;
+import org.example.model.DTO.ProductPageDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
 import org.example.model.Product;
 import org.example.model.User;
 import org.example.service.ProductService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collection;
 import java.util.List;
@@ -39,13 +46,84 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Keyset-paginated list of products.
+     * The next (previous) page is requested by passing {@code nextCursor} ({@code prevCursor}) of the response as {@code cursor},
+     * the cursor is only valid for the same {@code sort}.
+     *
+     * @param sort   one of {@code -createdAt} (default), {@code createdAt}, {@code name}, {@code -name}
+     * @param fields comma-separated subset of {@code id,name,description,category,user,createdAt},
+     *               everything except {@code description} by default
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageDTO> getPage(@RequestParam(name = "name", required = false) String name,
+                                                  @RequestParam(name = "category", required = false) String category,
+                                                  @RequestParam(name = "user", required = false) Long userId,
+                                                  @RequestParam(name = "sort", required = false) String sort,
+                                                  @RequestParam(name = "fields", required = false) String fields,
+                                                  @RequestParam(name = "cursor", required = false) String cursor,
+                                                  @RequestParam(name = "limit", defaultValue = "0") int limit) {
+
+        var pageRequest = ProductPageRequest.builder()
+                .name(name)
+                .category(category)
+                .userId(userId)
+                .sort(ProductPageRequest.Sort.fromParam(sort))
+                .fields(ProductPageRequest.Field.fromParam(fields))
+                .limit(limit)
+                .build();
+        pageRequest.setCursor(cursor);
+
+        var page = productService.getPage(pageRequest);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Full-text search over name, category and description, best matches first.
+     * Supports prefixes and, for terms of 4+ characters, typos.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSummaryDTO>> search(@RequestParam(name = "q") String query,
+                                                          @RequestParam(name = "limit", defaultValue = "0") int limit) {
+        var products = productService.search(query, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Number of products per category and per user, most popular first.
+     *
+     * @param limit max number of entries per facet, all of them by default
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getFacets(@RequestParam(name = "limit", defaultValue = "0") int limit) {
+        var facets = productService.getFacets(limit);
+        return ResponseEntity.ok(facets);
+    }
+
+    /**
+     * Supports {@code If-None-Match}: if the client's copy is up-to-date, only the version of the product is read
+     * and {@code 304 Not Modified} is returned without a body.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getById(@PathVariable Long id) {
+    public ResponseEntity<Product> getById(@PathVariable Long id, WebRequest webRequest) {
+
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            var versions = productService.getVersions(List.of(id));
+            if (versions.containsKey(id)) {
+                var eTag = ETags.of(id, versions.get(id));
+                if (webRequest.checkNotModified(eTag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                }
+            }
+        }
+
         var product = productService.getById(id);
         if (product == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(product))
+                .body(product);
     }
 
     @GetMapping("/ids/{ids}")
@@ -54,12 +132,30 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Same as {@link #getByIds} with the ids in the request body, so large batches are not limited by the URL length.
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<Product>> batchGetByIds(@RequestBody Collection<Long> ids) {
+        var products = productService.getByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
     @PostMapping
     public ResponseEntity<Product> create(@RequestBody ProductDTO productDTO) {
         var product = productService.create(productDTO);
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * Bulk creation of products, all of them are created in one transaction.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ProductImportResultDTO> importProducts(@RequestBody List<ProductDTO> productDTOs) {
+        var result = productService.importProducts(productDTOs);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Product> update(@PathVariable Long id, @RequestBody ProductDTO productDTO) {
         var product = productService.update(id, productDTO);
@@ -89,4 +185,10 @@ public class ProductController {
         var categories = productService.getCategoriesByNames(categoryNames);
         return ResponseEntity.ok(categories);
     }
+
+    @PostMapping("/categories/batch-get")
+    public ResponseEntity<List<Category>> batchGetCategoriesByNames(@RequestBody Collection<String> categoryNames) {
+        var categories = productService.getCategoriesByNames(categoryNames);
+        return ResponseEntity.ok(categories);
+    }
 }
@@ -18,4 +18,9 @@ public class ExceptionHandlerControllerAdvice {
                 .collect(Collectors.joining("\n"));
         return new ResponseEntity<>(message, HttpStatusCode.valueOf(400));
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    private ResponseEntity<String> handleException(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatusCode.valueOf(400));
+    }
 }
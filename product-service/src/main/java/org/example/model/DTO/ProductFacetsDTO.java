@@ -0,0 +1,19 @@
+package org.example.model.DTO;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Number of products per category name and per seller (user id), ordered by count descending.
+ */
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+public class ProductFacetsDTO {
+
+    private Map<String, Long> categories = new LinkedHashMap<>();
+    private Map<Long, Long> users = new LinkedHashMap<>();
+}
@@ -0,0 +1,14 @@
+package org.example.model.DTO;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+public class ProductImportResultDTO {
+
+    private int productsImported;
+    private int categoriesCreated;
+    private int usersCreated;
+}
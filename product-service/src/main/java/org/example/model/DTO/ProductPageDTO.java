@@ -0,0 +1,23 @@
+package org.example.model.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of products fetched by keyset pagination.
+ * {@code nextCursor} is null when there are no more products, {@code prevCursor} - when it is the first page.
+ */
+@NoArgsConstructor @AllArgsConstructor
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductPageDTO {
+
+    private List<ProductSummaryDTO> items = new ArrayList<>();
+    private String nextCursor;
+    private String prevCursor;
+}
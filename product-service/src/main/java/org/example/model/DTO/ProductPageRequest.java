@@ -0,0 +1,181 @@
+package org.example.model.DTO;
+
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Parameters of a keyset (seek) page request.
+ * <p>
+ * The cursor is an opaque base64 string holding the sort, the sort value and the id of the last product of the previous page,
+ * so the next page is fetched with {@code WHERE (sortValue, id) > (lastValue, lastId)} instead of an {@code OFFSET}.
+ * A backward cursor holds the first product of the page instead, and the previous page is fetched
+ * with the opposite comparison and order.
+ */
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+public class ProductPageRequest {
+
+    private static final String BACKWARD_MARK = "<";
+
+    private String name;
+    private String category;
+    private Long userId;
+
+    @Builder.Default
+    private Sort sort = Sort.CREATED_AT_DESC;
+
+    @Builder.Default
+    private Set<Field> fields = Field.DEFAULT;
+
+    private Long lastId;
+    private String lastValue;
+
+    // The page before the cursor is requested
+    private boolean backward;
+
+    private int limit;
+
+    public boolean hasCursor() {
+        return lastId != null;
+    }
+
+    public void setCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            this.lastId = null;
+            this.lastValue = null;
+            this.backward = false;
+            return;
+        }
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+
+        // Format: <sort>[<]:<id>:<value>, '<' marks a backward cursor, value goes last since it may contain ':'
+        var parts = decoded.split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        var cursorSort = parts[0];
+        this.backward = cursorSort.endsWith(BACKWARD_MARK);
+        if (backward) {
+            cursorSort = cursorSort.substring(0, cursorSort.length() - BACKWARD_MARK.length());
+        }
+        if (!sort.name().equals(cursorSort)) {
+            throw new IllegalArgumentException(String.format("Cursor was issued for sort '%s', but sort '%s' is requested",
+                    cursorSort, sort.getParam()));
+        }
+        try {
+            this.lastId = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        this.lastValue = parts[2];
+
+        if (sort.getField() == Field.CREATED_AT) {
+            try {
+                getLastCreatedAt();
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + cursor);
+            }
+        }
+    }
+
+    // Cursor of the page after the product
+    public String cursorOf(ProductSummaryDTO product) {
+        return encodeCursor(sort.name(), product);
+    }
+
+    // Cursor of the page before the product
+    public String backwardCursorOf(ProductSummaryDTO product) {
+        return encodeCursor(sort.name() + BACKWARD_MARK, product);
+    }
+
+    // Products are seeked in the opposite order for a backward cursor
+    public boolean isSeekAscending() {
+        return sort.isAscending() != backward;
+    }
+
+    private String encodeCursor(String cursorSort, ProductSummaryDTO product) {
+        var value = sort.getField() == Field.NAME ? product.getName() : String.valueOf(product.getCreatedAt());
+        var raw = cursorSort + ":" + product.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getLastCreatedAt() {
+        return lastValue == null ? null : LocalDateTime.parse(lastValue);
+    }
+
+    /**
+     * Fields that can be requested with {@code fields=}.
+     * {@code id} and the field the page is sorted by are always returned, since the cursor is built from them.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Field {
+        ID("id"),
+        NAME("name"),
+        DESCRIPTION("description"),
+        CATEGORY("category"),
+        USER("user"),
+        CREATED_AT("createdAt");
+
+        // Description is up to 999 characters and is not needed in list views, so it has to be requested explicitly
+        public static final Set<Field> DEFAULT = Collections.unmodifiableSet(EnumSet.of(ID, NAME, CATEGORY, USER, CREATED_AT));
+
+        private final String param;
+
+        public static Set<Field> fromParam(String fields) {
+            if (fields == null || fields.isBlank()) {
+                return DEFAULT;
+            }
+            var result = EnumSet.noneOf(Field.class);
+            for (var field : fields.split(",")) {
+                result.add(fromSingleParam(field.trim()));
+            }
+            return result;
+        }
+
+        private static Field fromSingleParam(String param) {
+            return Arrays.stream(values())
+                    .filter(f -> f.param.equals(param))
+                    .findAny()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + param));
+        }
+    }
+
+    /**
+     * Supported orderings, {@code id} is always used as a tie-breaker so the order is total.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Sort {
+        CREATED_AT_DESC("-createdAt", Field.CREATED_AT, false),
+        CREATED_AT_ASC("createdAt", Field.CREATED_AT, true),
+        NAME_ASC("name", Field.NAME, true),
+        NAME_DESC("-name", Field.NAME, false);
+
+        private final String param;
+        private final Field field;
+        private final boolean ascending;
+
+        public static Sort fromParam(String sort) {
+            if (sort == null || sort.isBlank()) {
+                return CREATED_AT_DESC;
+            }
+            return Arrays.stream(values())
+                    .filter(s -> s.param.equals(sort.trim()))
+                    .findAny()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown sort: " + sort));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.model.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a product used for list views.
+ * Only the requested fields are selected from the database, the rest are left null and omitted from JSON.
+ */
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Getter @Setter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSummaryDTO {
+
+    private Long id;
+    private String name;
+    private String description;
+    private String category;
+    private Long userId;
+    private LocalDateTime createdAt;
+}
@@ -1,23 +1,40 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = {
+                // Keyset pagination indexes, see ProductRepositoryCustom.findPage
+                @Index(name = "products_created_at_id_idx", columnList = "created_at, id"),
+                @Index(name = "products_name_id_idx", columnList = "name, id")
+        }
+)
 @NoArgsConstructor @AllArgsConstructor
 @Getter @Setter
 @EqualsAndHashCode
 @ToString
 public class Product {
 
+    public static final String ID_SEQUENCE = "products_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence instead of IDENTITY, so Hibernate can batch inserts (see ProductRepositoryCustom.importAll).
+    // On an existing database the sequence is created and moved past the current max id on startup, see ProductSequenceInitializer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     @EqualsAndHashCode.Exclude
     private Long id;
 
@@ -33,16 +50,31 @@ public class Product {
     @ToString.Exclude
     private String description;
 
+    // Categories and users are resolved from the second-level cache by id instead of being joined to every product query
     @NotNull
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "category_id")
     private Category category;
 
     @NotNull
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "user_id")
     private User user;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    // Version of the product for HTTP conditional requests (ETag), not a part of the API model
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private LocalDateTime updatedAt;
+
+    public Product(Long id, String name, String description, Category category, User user, LocalDateTime createdAt) {
+        this(id, name, description, category, user, createdAt, null);
+    }
 }
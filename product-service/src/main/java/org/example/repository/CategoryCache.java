@@ -0,0 +1,157 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Category;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Category name -> category cache with find-or-create semantics that is safe under concurrency.
+ * <p>
+ * A miss is resolved in the caller's transaction (or in a new one, if there is none), so it never takes
+ * a second connection from the pool. Two parallel creations of the same new category race into the unique
+ * constraint on {@code categories.name}: the insert is made under a savepoint, the loser rolls back to it
+ * and reads the winner's row, and its own transaction goes on.
+ * <p>
+ * Only committed categories are cached: entries are added after the transaction commits,
+ * so a rolled back product transaction can't leave a category id that doesn't exist in the cache.
+ * Categories are never renamed or deleted by this service, so entries are never invalidated.
+ */
+@Component
+@Slf4j
+public class CategoryCache {
+
+    // SQLSTATE of unique constraint violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // The row conflicting with our insert may be not committed yet, if the database doesn't wait for it
+    private static final int MAX_ATTEMPTS = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transaction;
+
+    private final Map<String, Category> categoriesByName = new ConcurrentHashMap<>();
+
+    @Value("${product-service.categories.cache-max-size:10000}")
+    private int maxSize = 10000;
+
+    public CategoryCache(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public Category findOrCreate(String name) {
+
+        var cached = categoriesByName.get(name);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        return transaction.execute(status -> findOrCreateInTransaction(name));
+    }
+
+    public int size() {
+        return categoriesByName.size();
+    }
+
+    public void clear() {
+        log.info("Clearing category cache");
+        categoriesByName.clear();
+    }
+
+    private Category findOrCreateInTransaction(String name) {
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+
+            // Also finds the category created earlier by the current transaction
+            var found = findByName(name);
+            if (found != null) {
+                log.info("Category with name '{}' already exists - {}", name, found);
+                cacheAfterCommit(found, false);
+                return found;
+            }
+
+            if (insert(name)) {
+                var created = findByName(name);
+                log.info("Saved new category - {}", created);
+                cacheAfterCommit(created, true);
+                return created;
+            }
+
+            log.info("Category with name '{}' was created concurrently, reading it", name);
+        }
+
+        throw new DataIntegrityViolationException("Category with name '" + name + "' can be neither created nor read");
+    }
+
+    // Never query-cached, a cached empty result would hide the winner's row
+    private Category findByName(String name) {
+        return entityManager.createQuery("FROM Category WHERE name = :name", Category.class)
+                .setParameter("name", name)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Plain JDBC on the connection of the transaction: a failed Hibernate flush would leave the session unusable
+    // and mark the transaction for rollback
+    private boolean insert(String name) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            var savepoint = connection.setSavepoint();
+            try (var statement = connection.prepareStatement("INSERT INTO categories (name) VALUES (?)")) {
+                statement.setString(1, name);
+                statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    return false;
+                }
+                throw e;
+            }
+        });
+    }
+
+    private void cacheAfterCommit(Category category, boolean created) {
+        var copy = copyOf(category);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (created) {
+                    // The insert bypassed Hibernate, so the cached "IN" queries don't know about the new row
+                    entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                            .getCache()
+                            .evictQueryRegion(CategoryRepository.CATEGORIES_BY_NAME_REGION);
+                }
+                cache(copy);
+            }
+        });
+    }
+
+    private Category cache(Category category) {
+        if (categoriesByName.size() < maxSize) {
+            categoriesByName.putIfAbsent(category.getName(), copyOf(category));
+        }
+        return copyOf(category);
+    }
+
+    // Cached instances are shared between threads, callers get their own detached copies
+    private static Category copyOf(Category category) {
+        return new Category(category.getId(), category.getName());
+    }
+}
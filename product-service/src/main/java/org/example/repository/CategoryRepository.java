@@ -1,13 +1,27 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.model.Category;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+
+    String CATEGORIES_BY_NAME_REGION = "categories-by-name";
+
+    // Not query-cached: the region is node-local and would keep an empty result for a category
+    // created by another instance, the found category itself still comes from the second-level cache
     Optional<Category> findByName(String name);
+
+    // Cached empty results are fine for the callers: the import creates missing categories through CategoryCache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATEGORIES_BY_NAME_REGION)
+    })
     List<Category> findAllByNameIn(Collection<String> names);
 }
\ No newline at end of file
@@ -1,26 +1,19 @@
 package org.example.repository;
 
 import org.example.model.Product;
-import org.springframework.data.domain.Example;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.lang.NonNull;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
 
+// Categories and users of products are not fetched by joins, they come from the second-level cache (see Product)
 public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
-    @Override
-    @EntityGraph(attributePaths = { "category", "user" })
-    @NonNull
-    List<Product> findAll();
-
-    @Override
-    @EntityGraph(attributePaths = { "category", "user" })
-    @NonNull
-    <S extends Product> List<S> findAll(@NonNull Example<S> example);
-
-    @EntityGraph(attributePaths = { "category", "user" })
     List<Product> findAllByIdIn(Collection<Long> ids);
+
+    // Pairs of [id, updatedAt], used to answer conditional requests without loading products
+    @Query("SELECT p.id, p.updatedAt FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findUpdatedAtByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,7 +1,27 @@
 package org.example.repository;
 
+import org.example.model.DTO.ProductImportResultDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
 import org.example.model.Product;
 
+import java.util.List;
+
 public interface ProductRepositoryCustom {
     Product merge(Product product);
+
+    /**
+     * Returns up to {@code request.limit + 1} products following the cursor of the request,
+     * the extra row tells the caller whether there is a next page.
+     * For a backward cursor the products preceding it are returned, nearest to the cursor first.
+     */
+    List<ProductSummaryDTO> findPage(ProductPageRequest request);
+
+    /**
+     * Persists new products in bulk.
+     * Categories and users are resolved with one query per chunk of names/ids, the missing ones are created,
+     * then products are inserted in JDBC batches of {@code hibernate.jdbc.batch_size}.
+     * The given products get their ids and resolved categories and users.
+     */
+    ProductImportResultDTO importAll(List<Product> products);
 }
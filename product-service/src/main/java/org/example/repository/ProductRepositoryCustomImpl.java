@@ -2,14 +2,24 @@ package org.example.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.Category;
+import org.example.model.DTO.ProductImportResultDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
 import org.example.model.Product;
 import org.example.model.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -19,6 +29,11 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
     private EntityManager entityManager;
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+
+    // Size of IN lists when resolving categories and users, and number of products kept in the persistence context
+    @Value("${product-service.import.chunk-size:1000}")
+    private int importChunkSize = 1000;
 
     @Override
     public Product merge(@NotNull Product product) {
@@ -38,19 +53,225 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
         return entityManager.merge(product);
     }
 
-    private Category findOrCreateCategory(Category category) {
-        if (category == null) {
-            return null;
+    @Override
+    public List<ProductSummaryDTO> findPage(@NotNull ProductPageRequest request) {
+
+        log.info("Searching for page of products - {}", request);
+
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createTupleQuery();
+        var root = query.from(Product.class);
+
+        var sort = request.getSort();
+
+        // id and the sort field are needed to build the cursor of the next page
+        var fields = EnumSet.copyOf(request.getFields());
+        fields.add(ProductPageRequest.Field.ID);
+        fields.add(sort.getField());
+
+        Join<Product, Category> category = null;
+        if (fields.contains(ProductPageRequest.Field.CATEGORY) || request.getCategory() != null) {
+            category = root.join("category");
+        }
+
+        var selections = new ArrayList<Selection<?>>();
+        for (var field : fields) {
+            selections.add(pathOf(field, root, category).alias(field.name()));
+        }
+        query.multiselect(selections);
+
+        var predicates = new ArrayList<Predicate>();
+        if (request.getName() != null) {
+            predicates.add(cb.equal(root.get("name"), request.getName()));
+        }
+        if (request.getCategory() != null) {
+            predicates.add(cb.equal(category.get("name"), request.getCategory()));
         }
+        if (request.getUserId() != null) {
+            predicates.add(cb.equal(root.get("user").get("id"), request.getUserId()));
+        }
+        if (sort.getField() == ProductPageRequest.Field.CREATED_AT) {
+            // Rows without a creation date can not be positioned by the cursor
+            predicates.add(cb.isNotNull(root.get("createdAt")));
+        }
+        if (request.hasCursor()) {
+            predicates.add(keysetPredicate(cb, root, request));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        Path<Comparable<Object>> sortPath = root.get(sort.getField() == ProductPageRequest.Field.NAME ? "name" : "createdAt");
+        Path<Long> idPath = root.get("id");
+        query.orderBy(request.isSeekAscending()
+                ? List.of(cb.asc(sortPath), cb.asc(idPath))
+                : List.of(cb.desc(sortPath), cb.desc(idPath)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(request.getLimit() + 1)
+                .getResultList()
+                .stream()
+                .map(tuple -> toSummary(tuple, fields))
+                .toList();
+    }
+
+    @Override
+    public ProductImportResultDTO importAll(@NotNull List<Product> products) {
 
-        var categoryOptional = categoryRepository.findByName(category.getName());
-        if (categoryOptional.isPresent()) {
-            log.info("Category with name '{}' already exists - {}", category.getName(), categoryOptional.get());
-            return categoryOptional.get();
+        log.info("Importing {} products", products.size());
+
+        var categoryNames = products.stream()
+                .map(Product::getCategory)
+                .filter(Objects::nonNull)
+                .map(Category::getName)
+                .collect(Collectors.toSet());
+
+        var categories = new HashMap<String, Category>();
+        for (var chunk : chunksOf(categoryNames)) {
+            categoryRepository.findAllByNameIn(chunk)
+                    .forEach(category -> categories.put(category.getName(), category));
+        }
+
+        // Missing categories go through the cache, so an import racing with another creation of the same category
+        // gets the existing row instead of failing on the unique constraint
+        var categoriesCreated = 0;
+        for (var name : categoryNames) {
+            if (!categories.containsKey(name)) {
+                categories.put(name, categoryCache.findOrCreate(name));
+                categoriesCreated++;
+            }
         }
 
-        log.info("Saving new category - {}", category);
-        return categoryRepository.save(category);
+        var userIds = products.stream()
+                .map(Product::getUser)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+
+        var users = new HashMap<Long, User>();
+        for (var chunk : chunksOf(userIds)) {
+            entityManager.createQuery("FROM User WHERE id IN :ids", User.class)
+                    .setParameter("ids", chunk)
+                    .getResultStream()
+                    .forEach(user -> users.put(user.getId(), user));
+        }
+
+        var usersCreated = 0;
+        for (var id : userIds) {
+            if (!users.containsKey(id)) {
+                var user = new User(id);
+                entityManager.persist(user);
+                users.put(id, user);
+                usersCreated++;
+            }
+        }
+
+        log.info("Resolved {} categories ({} new) and {} users ({} new) for import",
+                categories.size(), categoriesCreated, users.size(), usersCreated);
+
+        var chunk = new ArrayList<Product>(importChunkSize);
+        for (var product : products) {
+
+            product.setId(null);
+            if (product.getCategory() != null) {
+                product.setCategory(categories.get(product.getCategory().getName()));
+            }
+            if (product.getUser() != null) {
+                product.setUser(users.get(product.getUser().getId()));
+            }
+
+            entityManager.persist(product);
+            chunk.add(product);
+
+            if (chunk.size() == importChunkSize) {
+                flushImported(chunk);
+            }
+        }
+        flushImported(chunk);
+
+        log.info("Imported {} products", products.size());
+
+        return new ProductImportResultDTO(products.size(), categoriesCreated, usersCreated);
+    }
+
+    // Flushing sends the pending inserts as JDBC batches.
+    // Detaching the products keeps the persistence context small, while users stay managed and are reused.
+    private void flushImported(List<Product> chunk) {
+        entityManager.flush();
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    private <T> List<List<T>> chunksOf(Collection<T> items) {
+        var chunks = new ArrayList<List<T>>();
+        var chunk = new ArrayList<T>(Math.min(items.size(), importChunkSize));
+        for (var item : items) {
+            chunk.add(item);
+            if (chunk.size() == importChunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(importChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private Path<?> pathOf(ProductPageRequest.Field field, Root<Product> root, Join<Product, Category> category) {
+        return switch (field) {
+            case ID -> root.get("id");
+            case NAME -> root.get("name");
+            case DESCRIPTION -> root.get("description");
+            case CATEGORY -> category.get("name");
+            // Reading the foreign key column, so the users table is not joined
+            case USER -> root.get("user").get("id");
+            case CREATED_AT -> root.get("createdAt");
+        };
+    }
+
+    // (value, id) > (lastValue, lastId) for ascending order, (value, id) < (lastValue, lastId) for descending one
+    private Predicate keysetPredicate(CriteriaBuilder cb, Root<Product> root, ProductPageRequest request) {
+
+        var sort = request.getSort();
+        var ascending = request.isSeekAscending();
+        Path<Long> idPath = root.get("id");
+        var lastId = request.getLastId();
+
+        if (sort.getField() == ProductPageRequest.Field.NAME) {
+            Path<String> namePath = root.get("name");
+            var lastName = request.getLastValue();
+            return ascending
+                    ? cb.or(cb.greaterThan(namePath, lastName), cb.and(cb.equal(namePath, lastName), cb.greaterThan(idPath, lastId)))
+                    : cb.or(cb.lessThan(namePath, lastName), cb.and(cb.equal(namePath, lastName), cb.lessThan(idPath, lastId)));
+        }
+
+        Path<LocalDateTime> createdAtPath = root.get("createdAt");
+        var lastCreatedAt = request.getLastCreatedAt();
+        return ascending
+                ? cb.or(cb.greaterThan(createdAtPath, lastCreatedAt), cb.and(cb.equal(createdAtPath, lastCreatedAt), cb.greaterThan(idPath, lastId)))
+                : cb.or(cb.lessThan(createdAtPath, lastCreatedAt), cb.and(cb.equal(createdAtPath, lastCreatedAt), cb.lessThan(idPath, lastId)));
+    }
+
+    private ProductSummaryDTO toSummary(Tuple tuple, EnumSet<ProductPageRequest.Field> fields) {
+        var product = new ProductSummaryDTO();
+        for (var field : fields) {
+            var value = tuple.get(field.name());
+            switch (field) {
+                case ID -> product.setId((Long) value);
+                case NAME -> product.setName((String) value);
+                case DESCRIPTION -> product.setDescription((String) value);
+                case CATEGORY -> product.setCategory((String) value);
+                case USER -> product.setUserId((Long) value);
+                case CREATED_AT -> product.setCreatedAt((LocalDateTime) value);
+            }
+        }
+        return product;
+    }
+
+    private Category findOrCreateCategory(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return categoryCache.findOrCreate(category.getName());
     }
 
     private User findOrCreateUser(User user) {
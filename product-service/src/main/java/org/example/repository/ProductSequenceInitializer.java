@@ -0,0 +1,55 @@
+package org.example.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Product;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the product id sequence and moves it past the ids already in the table.
+ * <p>
+ * Products used to get their ids from an IDENTITY column, so on an existing database the sequence
+ * either doesn't exist or starts below the current max id and the inserts would fail on the primary key.
+ * Runs before the web server is started, so no product is created with a colliding id.
+ */
+@Component
+@Slf4j
+public class ProductSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueQuery;
+
+    public ProductSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueQuery = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(Product.ID_SEQUENCE);
+    }
+
+    @PostConstruct
+    public void advance() {
+
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + Product.ID_SEQUENCE +
+                " START WITH 1 INCREMENT BY " + Product.ID_ALLOCATION_SIZE);
+
+        var maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+
+        // The pooled optimizer hands out (value - allocation size, value] for a value of the sequence
+        var value = nextValue();
+        if (value - Product.ID_ALLOCATION_SIZE < maxId) {
+            var restartWith = maxId + Product.ID_ALLOCATION_SIZE;
+            log.warn("Sequence {} is at {}, but max product id is {}, restarting it with {}",
+                    Product.ID_SEQUENCE, value, maxId, restartWith);
+            jdbcTemplate.execute("ALTER SEQUENCE " + Product.ID_SEQUENCE + " RESTART WITH " + restartWith);
+        }
+    }
+
+    long nextValue() {
+        return jdbcTemplate.queryForObject(nextValueQuery, Long.class);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.example.model.Product;
+
+/**
+ * Published by {@link ProductService} when a product is created, updated or deleted,
+ * so derived structures (search index, facet counts) can follow the changes after the transaction is committed.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class ProductChangedEvent {
+
+    private final Type type;
+    private final Long productId;
+
+    // Null for DELETED
+    private final Product product;
+
+    // Category and user the product had before the change, null for CREATED
+    private final String previousCategory;
+    private final Long previousUserId;
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product, null, null);
+    }
+
+    public static ProductChangedEvent updated(Product product, String previousCategory, Long previousUserId) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product, previousCategory, previousUserId);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(Type.DELETED, product.getId(), null, categoryOf(product), userIdOf(product));
+    }
+
+    public static String categoryOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getName() : null;
+    }
+
+    public static Long userIdOf(Product product) {
+        return product.getUser() != null ? product.getUser().getId() : null;
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.DTO.ProductFacetsDTO;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Product counts per category and per seller, kept in memory.
+ * <p>
+ * Counts are loaded with one {@code GROUP BY} on startup and then adjusted by {@link ProductChangedEvent}s,
+ * so serving them never scans the products table.
+ * Changes made by other instances of the service are not seen as events,
+ * that is why the counts are periodically recomputed from the database.
+ */
+@Component
+@EnableScheduling
+@Slf4j
+public class ProductFacets {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Map<String, LongAdder> categoryCounts = new ConcurrentHashMap<>();
+    private volatile Map<Long, LongAdder> userCounts = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product-service.facets.reconcile-interval-ms:600000}",
+            fixedDelayString = "${product-service.facets.reconcile-interval-ms:600000}")
+    public void reconcile() {
+
+        log.info("Recomputing product facet counts");
+
+        var categories = new ConcurrentHashMap<String, LongAdder>();
+        entityManager.createQuery("SELECT c.name, COUNT(p) FROM Product p JOIN p.category c GROUP BY c.name", Object[].class)
+                .getResultStream()
+                .forEach(row -> add(categories, (String) row[0], (Long) row[1]));
+
+        var users = new ConcurrentHashMap<Long, LongAdder>();
+        entityManager.createQuery("SELECT p.user.id, COUNT(p) FROM Product p WHERE p.user IS NOT NULL GROUP BY p.user.id", Object[].class)
+                .getResultStream()
+                .forEach(row -> add(users, (Long) row[0], (Long) row[1]));
+
+        // Events applied while the queries were running may be lost here, the next reconciliation fixes that
+        categoryCounts = categories;
+        userCounts = users;
+
+        log.info("Product facet counts are recomputed, {} categories, {} users", categories.size(), users.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+
+        switch (event.getType()) {
+            case CREATED -> increment(event);
+            case UPDATED -> {
+                decrement(event.getPreviousCategory(), event.getPreviousUserId());
+                increment(event);
+            }
+            case DELETED -> decrement(event.getPreviousCategory(), event.getPreviousUserId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        for (var product : event.getProducts()) {
+            add(categoryCounts, ProductChangedEvent.categoryOf(product), 1);
+            add(userCounts, ProductChangedEvent.userIdOf(product), 1);
+        }
+    }
+
+    /**
+     * @param limit max number of entries per facet, {@code 0} or less returns all of them
+     */
+    public ProductFacetsDTO getFacets(int limit) {
+        return new ProductFacetsDTO(topOf(categoryCounts, limit), topOf(userCounts, limit));
+    }
+
+    private void increment(ProductChangedEvent event) {
+        var product = event.getProduct();
+        add(categoryCounts, ProductChangedEvent.categoryOf(product), 1);
+        add(userCounts, ProductChangedEvent.userIdOf(product), 1);
+    }
+
+    private void decrement(String category, Long userId) {
+        add(categoryCounts, category, -1);
+        add(userCounts, userId, -1);
+    }
+
+    private static <K> void add(Map<K, LongAdder> counts, K key, long delta) {
+        if (key != null) {
+            counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static <K> Map<K, Long> topOf(Map<K, LongAdder> counts, int limit) {
+        var entries = counts.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                // Entries dropped to zero are kept in the map, but are not shown
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+        if (limit > 0) {
+            entries = entries.limit(limit);
+        }
+
+        var result = new LinkedHashMap<K, Long>();
+        entries.forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+}
@@ -0,0 +1,499 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.example.model.DTO.ProductSummaryDTO;
+import org.example.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Embedded Lucene index over product name, description and category.
+ * <p>
+ * The index lives in memory: it is built from the database on startup
+ * and then follows {@link ProductChangedEvent}s, so searches never hit the database.
+ * Stored fields are enough to build {@link ProductSummaryDTO}, description is indexed only.
+ * <p>
+ * Changes made by other instances of the service are not seen as events, so products updated recently
+ * (by {@code updated_at}) are periodically reindexed, and the whole index is periodically rebuilt,
+ * which also drops products deleted by other instances.
+ * A rebuild fills a new index and swaps it in, products changed meanwhile are reindexed from the database after the swap.
+ */
+@Component
+@EnableScheduling
+@Slf4j
+public class ProductSearchIndex {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String DESCRIPTION = "description";
+    static final String CATEGORY = "category";
+    static final String USER_ID = "userId";
+    static final String CREATED_AT = "createdAt";
+
+    // Longer queries are cut, each term adds several clauses to the query
+    private static final int MAX_QUERY_TERMS = 8;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${product-service.search.rebuild-batch-size:10000}")
+    private int rebuildBatchSize = 10000;
+
+    // Terms shorter than that are matched exactly and by prefix only
+    @Value("${product-service.search.fuzzy-min-term-length:4}")
+    private int fuzzyMinTermLength = 4;
+
+    // Products updated by other instances shortly before the previous sync are read again,
+    // since their timestamps come from the clocks of those instances and their transactions may commit later
+    @Value("${product-service.search.sync-overlap-ms:60000}")
+    private long syncOverlapMs = 60000;
+
+    private static final String SELECT_ROWS =
+            "SELECT p.id, p.name, p.description, c.name, p.user.id, p.createdAt " +
+                    "FROM Product p LEFT JOIN p.category c ";
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    // Searches and changes take the read lock, swapping the index after a rebuild - the write one
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private volatile Index currentIndex;
+
+    // Ids of products changed while a rebuild is running (null - no rebuild), guarded by indexLock
+    private Set<Long> changedDuringRebuild;
+
+    private volatile LocalDateTime lastSyncedAt;
+
+    @PostConstruct
+    public void open() {
+        currentIndex = new Index(analyzer);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        currentIndex.close();
+        analyzer.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product-service.search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product-service.search.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+
+        log.info("Rebuilding product search index");
+
+        var startedAt = LocalDateTime.now();
+        setChangedDuringRebuild(ConcurrentHashMap.newKeySet());
+
+        var newIndex = new Index(analyzer);
+        var indexed = 0;
+        try {
+            var lastId = 0L;
+            while (true) {
+                var rows = findRowsAfterId(lastId, rebuildBatchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (var row : rows) {
+                    newIndex.index(row);
+                    lastId = (Long) row[0];
+                }
+                indexed += rows.size();
+            }
+            newIndex.refresh();
+        } catch (RuntimeException e) {
+            newIndex.close();
+            setChangedDuringRebuild(null);
+            throw e;
+        }
+
+        Set<Long> changedIds;
+        indexLock.writeLock().lock();
+        try {
+            changedIds = changedDuringRebuild;
+            changedDuringRebuild = null;
+            var oldIndex = currentIndex;
+            currentIndex = newIndex;
+            oldIndex.close();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+
+        // The new index has the products as they were when read, the changes made meanwhile may be missing
+        reindex(changedIds);
+        lastSyncedAt = startedAt;
+
+        log.info("Product search index is rebuilt, {} products indexed, {} changed meanwhile", indexed, changedIds.size());
+    }
+
+    /**
+     * Reindexes products updated since the previous sync (minus the overlap), including those changed by other instances
+     */
+    @Scheduled(initialDelayString = "${product-service.search.sync-interval-ms:30000}",
+            fixedDelayString = "${product-service.search.sync-interval-ms:30000}")
+    public void syncChanges() {
+
+        var previousSync = lastSyncedAt;
+        if (previousSync == null) {
+            // The index is not built yet
+            return;
+        }
+
+        var startedAt = LocalDateTime.now();
+        var rows = findRowsUpdatedSince(previousSync.minusNanos(syncOverlapMs * 1_000_000));
+
+        withIndex(index -> rows.forEach(index::index));
+        refresh();
+        lastSyncedAt = startedAt;
+
+        log.debug("Product search index is synced, {} products reindexed", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> index(event.getProduct());
+            case DELETED -> delete(event.getProductId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        log.info("Indexing {} imported products", event.getProducts().size());
+        for (var product : event.getProducts()) {
+            index(product.getId(), product.getName(), product.getDescription(),
+                    ProductChangedEvent.categoryOf(product), ProductChangedEvent.userIdOf(product), product.getCreatedAt());
+        }
+        // One refresh for the whole batch, reopening the searcher per product would dominate the import
+        refresh();
+    }
+
+    public void index(Product product) {
+        log.info("Indexing product with id={}", product.getId());
+        index(product.getId(), product.getName(), product.getDescription(),
+                ProductChangedEvent.categoryOf(product), ProductChangedEvent.userIdOf(product), product.getCreatedAt());
+        refresh();
+    }
+
+    public void delete(Long id) {
+        log.info("Removing product with id={} from search index", id);
+        withIndex(id, index -> index.delete(id));
+        refresh();
+    }
+
+    /**
+     * Every term of the query has to match name, category or description.
+     * A term matches exactly, as a prefix (so results show up while typing) or, if it is long enough, with typos.
+     * Matches in name rank higher than in category, and those higher than in description.
+     */
+    public List<ProductSummaryDTO> search(String text, int limit) {
+
+        var terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        var query = new BooleanQuery.Builder();
+        for (var term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+
+        indexLock.readLock().lock();
+        try {
+            var searcherManager = currentIndex.searcherManager;
+            IndexSearcher searcher;
+            try {
+                searcher = searcherManager.acquire();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to acquire product index searcher", e);
+            }
+
+            try {
+                var topDocs = searcher.search(query.build(), limit);
+                var storedFields = searcher.storedFields();
+
+                var products = new ArrayList<ProductSummaryDTO>(topDocs.scoreDocs.length);
+                for (var scoreDoc : topDocs.scoreDocs) {
+                    products.add(toSummary(storedFields.document(scoreDoc.doc)));
+                }
+                return products;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to search products", e);
+            } finally {
+                release(searcherManager, searcher);
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Rows of the products with id greater than the given one, ordered by id
+    List<Object[]> findRowsAfterId(long lastId, int limit) {
+        // Keyset over id, so every batch is an index range scan
+        return entityManager.createQuery(SELECT_ROWS + "WHERE p.id > :lastId ORDER BY p.id", Object[].class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    List<Object[]> findRowsUpdatedSince(LocalDateTime since) {
+        return entityManager.createQuery(SELECT_ROWS + "WHERE p.updatedAt >= :since", Object[].class)
+                .setParameter("since", since)
+                .getResultList();
+    }
+
+    List<Object[]> findRowsByIds(Collection<Long> ids) {
+        return entityManager.createQuery(SELECT_ROWS + "WHERE p.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    // Products which no longer exist are removed from the index
+    private void reindex(Set<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        var missingIds = new HashSet<>(ids);
+        var rows = new ArrayList<Object[]>();
+        for (var chunk : chunksOf(ids)) {
+            rows.addAll(findRowsByIds(chunk));
+        }
+        rows.forEach(row -> missingIds.remove((Long) row[0]));
+
+        withIndex(index -> {
+            rows.forEach(index::index);
+            missingIds.forEach(index::delete);
+        });
+        refresh();
+    }
+
+    private void setChangedDuringRebuild(Set<Long> ids) {
+        indexLock.writeLock().lock();
+        try {
+            changedDuringRebuild = ids;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private List<List<Long>> chunksOf(Set<Long> ids) {
+        var chunks = new ArrayList<List<Long>>();
+        var chunk = new ArrayList<Long>();
+        for (var id : ids) {
+            chunk.add(id);
+            if (chunk.size() == rebuildBatchSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    // A change made while a rebuild is running is also remembered to be applied to the new index
+    private void withIndex(Long id, Consumer<Index> change) {
+        indexLock.readLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(id);
+            }
+            change.accept(currentIndex);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private void withIndex(Consumer<Index> change) {
+        indexLock.readLock().lock();
+        try {
+            change.accept(currentIndex);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private Query termQuery(String term) {
+
+        var query = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(NAME, term)), 4f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new TermQuery(new Term(CATEGORY, term)), 2f), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(new Term(NAME, term)), 2f), BooleanClause.Occur.SHOULD)
+                .add(new PrefixQuery(new Term(CATEGORY, term)), BooleanClause.Occur.SHOULD);
+
+        if (term.length() >= fuzzyMinTermLength) {
+            // Keeping the first character fixed narrows the term dictionary walk a lot
+            var maxEdits = term.length() >= 8 ? 2 : 1;
+            query.add(new FuzzyQuery(new Term(NAME, term), maxEdits, 1), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new FuzzyQuery(new Term(DESCRIPTION, term), maxEdits, 1), 0.5f), BooleanClause.Occur.SHOULD);
+        }
+
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+
+        var terms = new ArrayList<String>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+
+        try (var tokenStream = analyzer.tokenStream(NAME, text)) {
+            var termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(termAttribute.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze search query", e);
+        }
+
+        return terms;
+    }
+
+    private void index(Long id, String name, String description, String category, Long userId, LocalDateTime createdAt) {
+        withIndex(id, index -> index.index(id, name, description, category, userId, createdAt));
+    }
+
+    private static Document toDocument(Long id, String name, String description, String category, Long userId, LocalDateTime createdAt) {
+
+        var document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        if (name != null) {
+            document.add(new TextField(NAME, name, Field.Store.YES));
+        }
+        if (description != null) {
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        }
+        if (category != null) {
+            document.add(new TextField(CATEGORY, category, Field.Store.YES));
+        }
+        if (userId != null) {
+            document.add(new StoredField(USER_ID, userId));
+        }
+        if (createdAt != null) {
+            document.add(new StoredField(CREATED_AT, createdAt.toString()));
+        }
+        return document;
+    }
+
+    private ProductSummaryDTO toSummary(Document document) {
+        var product = new ProductSummaryDTO();
+        product.setId(Long.parseLong(document.get(ID)));
+        product.setName(document.get(NAME));
+        product.setCategory(document.get(CATEGORY));
+        var userId = document.getField(USER_ID);
+        if (userId != null) {
+            product.setUserId(userId.numericValue().longValue());
+        }
+        var createdAt = document.get(CREATED_AT);
+        if (createdAt != null) {
+            product.setCreatedAt(LocalDateTime.parse(createdAt));
+        }
+        return product;
+    }
+
+    private void refresh() {
+        withIndex(Index::refresh);
+    }
+
+    private void release(SearcherManager searcherManager, IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.error("Failed to release product index searcher", e);
+        }
+    }
+
+    private static class Index {
+
+        private final Directory directory;
+        private final IndexWriter indexWriter;
+        private final SearcherManager searcherManager;
+
+        private Index(Analyzer analyzer) {
+            try {
+                directory = new ByteBuffersDirectory();
+                indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+                searcherManager = new SearcherManager(indexWriter, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open product search index", e);
+            }
+        }
+
+        // Row of SELECT_ROWS
+        private void index(Object[] row) {
+            index((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (Long) row[4], (LocalDateTime) row[5]);
+        }
+
+        private void index(Long id, String name, String description, String category, Long userId, LocalDateTime createdAt) {
+            try {
+                indexWriter.updateDocument(new Term(ID, String.valueOf(id)),
+                        toDocument(id, name, description, category, userId, createdAt));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index product with id=" + id, e);
+            }
+        }
+
+        private void delete(Long id) {
+            try {
+                indexWriter.deleteDocuments(new Term(ID, String.valueOf(id)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to remove product from search index", e);
+            }
+        }
+
+        private void refresh() {
+            try {
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to refresh product search index", e);
+            }
+        }
+
+        private void close() {
+            try {
+                searcherManager.close();
+                indexWriter.close();
+                directory.close();
+            } catch (IOException e) {
+                log.error("Failed to close product search index", e);
+            }
+        }
+    }
+}
@@ -5,16 +5,28 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.Category;
 import org.example.model.DTO.ProductDTO;
+import org.example.model.DTO.ProductFacetsDTO;
+import org.example.model.DTO.ProductImportResultDTO;
+import org.example.model.DTO.ProductPageDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
 import org.example.model.Product;
 import org.example.repository.CategoryRepository;
 import org.example.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Example;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +35,19 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacets productFacets;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${product-service.pagination.default-limit:20}")
+    private int defaultPageLimit;
+
+    @Value("${product-service.pagination.max-limit:100}")
+    private int maxPageLimit;
+
+    // Max number of values in one "IN" list of a batch lookup
+    @Value("${product-service.batch-get.chunk-size:1000}")
+    private int batchGetChunkSize;
 
     public Product getById(@NotNull Long id) {
         log.info("Searching for product with id={}", id);
@@ -32,7 +57,19 @@ public class ProductService {
 
     public List<Product> getByIds(Collection<Long> ids) {
         log.info("Searching for products with ids={}", ids);
-        return productRepository.findAllByIdIn(ids);
+        return findInChunks(ids, productRepository::findAllByIdIn);
+    }
+
+    /**
+     * @return update timestamps of existing products by their ids (value is null for products that were never updated since the column was added)
+     */
+    public Map<Long, LocalDateTime> getVersions(Collection<Long> ids) {
+        log.info("Searching for versions of products with ids={}", ids);
+        var versions = new HashMap<Long, LocalDateTime>();
+        for (var row : findInChunks(ids, productRepository::findUpdatedAtByIdIn)) {
+            versions.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        return versions;
     }
 
     public List<Product> getAll() {
@@ -45,6 +82,50 @@ public class ProductService {
         return productRepository.findAll(Example.of(product));
     }
 
+    @Transactional(readOnly = true)
+    public ProductPageDTO getPage(@NotNull ProductPageRequest pageRequest) {
+
+        if (pageRequest.getLimit() <= 0) {
+            pageRequest.setLimit(defaultPageLimit);
+        }
+        pageRequest.setLimit(Math.min(pageRequest.getLimit(), maxPageLimit));
+
+        log.info("Searching for page of products - {}", pageRequest);
+
+        var products = productRepository.findPage(pageRequest);
+
+        var limit = pageRequest.getLimit();
+        var hasMore = products.size() > limit;
+        var items = hasMore ? products.subList(0, limit) : products;
+        if (items.isEmpty()) {
+            return new ProductPageDTO(items, null, null);
+        }
+
+        // A page requested with a cursor has a page on the side it came from
+        if (pageRequest.isBackward()) {
+            items = items.reversed();
+            var prevCursor = hasMore ? pageRequest.backwardCursorOf(items.getFirst()) : null;
+            return new ProductPageDTO(items, pageRequest.cursorOf(items.getLast()), prevCursor);
+        }
+        var nextCursor = hasMore ? pageRequest.cursorOf(items.getLast()) : null;
+        var prevCursor = pageRequest.hasCursor() ? pageRequest.backwardCursorOf(items.getFirst()) : null;
+        return new ProductPageDTO(items, nextCursor, prevCursor);
+    }
+
+    public List<ProductSummaryDTO> search(@NotNull String query, int limit) {
+        if (limit <= 0) {
+            limit = defaultPageLimit;
+        }
+        limit = Math.min(limit, maxPageLimit);
+        log.info("Searching for products by query '{}', limit={}", query, limit);
+        return productSearchIndex.search(query, limit);
+    }
+
+    public ProductFacetsDTO getFacets(int limit) {
+        log.info("Getting product facets, limit={}", limit);
+        return productFacets.getFacets(limit);
+    }
+
     @Transactional
     public Product create(@NotNull ProductDTO productDTO) {
 
@@ -55,7 +136,29 @@ public class ProductService {
             product.setCreatedAt(LocalDateTime.now());
         }
 
-        return productRepository.merge(product);
+        var productCreated = productRepository.merge(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(productCreated));
+        return productCreated;
+    }
+
+    @Transactional
+    public ProductImportResultDTO importProducts(@NotNull List<ProductDTO> productDTOs) {
+
+        log.info("Importing {} products", productDTOs.size());
+
+        var now = LocalDateTime.now();
+        var products = productDTOs.stream()
+                .map(ProductDTO::toProduct)
+                .peek(product -> {
+                    if (product.getCreatedAt() == null) {
+                        product.setCreatedAt(now);
+                    }
+                })
+                .toList();
+
+        var result = productRepository.importAll(products);
+        eventPublisher.publishEvent(new ProductsImportedEvent(products));
+        return result;
     }
 
     @Transactional
@@ -71,6 +174,9 @@ public class ProductService {
 
         var product = productOptional.get();
 
+        var previousCategory = ProductChangedEvent.categoryOf(product);
+        var previousUserId = ProductChangedEvent.userIdOf(product);
+
         if (productDTO.getName() != null) {
             product.setName(productDTO.getName());
         }
@@ -84,12 +190,23 @@ public class ProductService {
             product.setUser(productDTO.getUser());
         }
 
-        return productRepository.merge(product);
+        var productUpdated = productRepository.merge(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(productUpdated, previousCategory, previousUserId));
+        return productUpdated;
     }
 
+    @Transactional
     public void deleteById(@NotNull Long id) {
         log.warn("Deleting product with id={}", id);
-        productRepository.deleteById(id);
+        // Loading the product first, its category and user are needed to keep facet counts in sync
+        var productOptional = productRepository.findById(id);
+        if (productOptional.isEmpty()) {
+            log.warn("Product with id={} not found", id);
+            return;
+        }
+        var product = productOptional.get();
+        productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
     }
 
     public Category getCategoryByName(@NotNull String categoryName) {
@@ -100,6 +217,20 @@ public class ProductService {
 
     public List<Category> getCategoriesByNames(Collection<String> categoryNames) {
         log.info("Searching for categories with names={}", categoryNames);
-        return categoryRepository.findAllByNameIn(categoryNames);
+        return findInChunks(categoryNames, categoryRepository::findAllByNameIn);
+    }
+
+    // Splits a large batch into bounded "IN" lists, so the query stays within the limits on bind parameters of the database
+    private <T, R> List<R> findInChunks(Collection<T> values, Function<Collection<T>, List<R>> finder) {
+        if (values.size() <= batchGetChunkSize) {
+            return finder.apply(values);
+        }
+        var distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        var result = new ArrayList<R>(distinctValues.size());
+        for (int from = 0; from < distinctValues.size(); from += batchGetChunkSize) {
+            var to = Math.min(from + batchGetChunkSize, distinctValues.size());
+            result.addAll(finder.apply(distinctValues.subList(from, to)));
+        }
+        return result;
     }
 }
@@ -0,0 +1,23 @@
+package org.example.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.example.model.Product;
+
+import java.util.List;
+
+/**
+ * Published by {@link ProductService} after a batch import instead of one {@link ProductChangedEvent} per product,
+ * so listeners can apply the whole batch at once.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ProductsImportedEvent {
+
+    private final List<Product> products;
+
+    @Override
+    public String toString() {
+        return "ProductsImportedEvent(products=" + products.size() + ")";
+    }
+}
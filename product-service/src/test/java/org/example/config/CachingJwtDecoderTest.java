@@ -0,0 +1,138 @@
+package org.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingJwtDecoderTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private Duration tokenLifetime = Duration.ofMinutes(5);
+
+    private final JwtDecoder delegate = token -> {
+        decodes.incrementAndGet();
+        if (token.startsWith("invalid")) {
+            throw new BadJwtException("invalid signature");
+        }
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(clock.instant())
+                .expiresAt(clock.instant().plus(tokenLifetime))
+                .build();
+    };
+
+    @Test
+    void shouldVerifyTokenOnceWhenDecodeRepeatedlyWithinTtl() {
+
+        var decoder = new CachingJwtDecoder(delegate, TTL, 100, clock);
+
+        var jwt = decoder.decode("token-1");
+        clock.advance(TTL.minusSeconds(1));
+
+        assertSame(jwt, decoder.decode("token-1"));
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void shouldVerifyTokenAgainWhenTtlPassed() {
+
+        var decoder = new CachingJwtDecoder(delegate, TTL, 100, clock);
+
+        decoder.decode("token-1");
+        clock.advance(TTL);
+        decoder.decode("token-1");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void shouldNotCacheTokenLongerThanItsExpiry() {
+
+        tokenLifetime = Duration.ofSeconds(10);
+        var decoder = new CachingJwtDecoder(delegate, TTL, 100, clock);
+
+        decoder.decode("token-1");
+        clock.advance(Duration.ofSeconds(10));
+        decoder.decode("token-1");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void shouldNotCacheInvalidToken() {
+
+        var decoder = new CachingJwtDecoder(delegate, TTL, 100, clock);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalid-token"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalid-token"));
+
+        assertEquals(2, decodes.get());
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void shouldNotExceedMaxSizeWhenDecodeManyTokens() {
+
+        var decoder = new CachingJwtDecoder(delegate, TTL, 2, clock);
+
+        decoder.decode("token-1");
+        decoder.decode("token-2");
+        decoder.decode("token-3");
+        assertEquals(2, decoder.size());
+
+        // The oldest token is evicted to make room
+        decoder.decode("token-2");
+        decoder.decode("token-3");
+        assertEquals(3, decodes.get());
+        decoder.decode("token-1");
+        assertEquals(4, decodes.get());
+
+        // Expired entries are evicted when a new token is cached
+        clock.advance(TTL);
+        decoder.decode("token-4");
+        assertEquals(1, decoder.size());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwkSetCacheTest {
+
+    // Nothing listens there, so the keys can only be taken from the cache file
+    private static final String UNAVAILABLE_URI = "http://localhost:1/realms/test";
+
+    @TempDir
+    private Path tempDir;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void shouldSelectKeyFromCacheFileWhenIssuerIsUnavailable() throws Exception {
+
+        var cacheFile = writeCacheFile("key-1");
+
+        try (var jwkSetCache = new JwkSetCache(UNAVAILABLE_URI, UNAVAILABLE_URI + "/certs", cacheFile,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMillis(200))) {
+
+            var keys = jwkSetCache.get(selectorOf("key-1"), null);
+
+            assertEquals(1, keys.size());
+            assertEquals("key-1", keys.getFirst().getKeyID());
+            assertFalse(keys.getFirst().isPrivate());
+        }
+    }
+
+    @Test
+    void shouldNotDownloadOnEveryRequestWhenIssuerFails() throws Exception {
+
+        var issuerUri = startServer(exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+
+        try (var jwkSetCache = new JwkSetCache(issuerUri, issuerUri + "/certs", null,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(1))) {
+
+            for (int i = 0; i < 10; i++) {
+                assertThrows(KeySourceException.class, () -> jwkSetCache.get(selectorOf("key-1"), null));
+            }
+        }
+
+        // The scheduled refresh and at most one requested by a token
+        assertTrue(requests.get() <= 2);
+    }
+
+    @Test
+    void shouldNotDownloadOnEveryUnknownKeyWhenKeySetIsFromCacheFile() throws Exception {
+
+        var cacheFile = writeCacheFile("key-1");
+        var issuerUri = startServer(exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+
+        try (var jwkSetCache = new JwkSetCache(issuerUri, issuerUri + "/certs", cacheFile,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(1))) {
+
+            for (int i = 0; i < 10; i++) {
+                assertTrue(jwkSetCache.get(selectorOf("key-2"), null).isEmpty());
+            }
+            assertEquals(1, jwkSetCache.get(selectorOf("key-1"), null).size());
+        }
+
+        assertTrue(requests.get() <= 2);
+    }
+
+    @Test
+    void shouldFailFastOnUnknownKeyWhileRefreshIsInFlight() throws Exception {
+
+        var cacheFile = writeCacheFile("key-1");
+        var requested = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var issuerUri = startServer(exchange -> {
+            requested.countDown();
+            await(release);
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+
+        try (var jwkSetCache = new JwkSetCache(issuerUri, issuerUri + "/certs", cacheFile,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(5))) {
+
+            // The scheduled refresh is waiting for the issuer
+            assertTrue(requested.await(5, TimeUnit.SECONDS));
+
+            var startedAt = System.nanoTime();
+            assertTrue(jwkSetCache.get(selectorOf("key-2"), null).isEmpty());
+            assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldWaitForInitialRefreshWhenThereIsNoKeySet() throws Exception {
+
+        var key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        var requested = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var issuerUri = startServer(exchange -> {
+            requests.incrementAndGet();
+            requested.countDown();
+            await(release);
+            var body = new JWKSet(key).toString(true).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+
+        try (var jwkSetCache = new JwkSetCache(issuerUri, issuerUri + "/certs", null,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(5))) {
+
+            // The token arrives while the scheduled refresh is downloading the key set
+            assertTrue(requested.await(5, TimeUnit.SECONDS));
+            CompletableFuture.runAsync(release::countDown, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+
+            var keys = jwkSetCache.get(selectorOf("key-1"), null);
+
+            assertEquals(1, keys.size());
+            assertEquals("key-1", keys.getFirst().getKeyID());
+        } finally {
+            release.countDown();
+        }
+
+        // The request used the key set of the scheduled refresh
+        assertEquals(1, requests.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path writeCacheFile(String keyId) throws Exception {
+        var key = new RSAKeyGenerator(2048).keyID(keyId).generate();
+        var cacheFile = tempDir.resolve("jwks.json");
+        Files.writeString(cacheFile, new JWKSet(key).toString(true));
+        return cacheFile;
+    }
+
+    private String startServer(HttpHandler certsHandler) throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/realms/test/certs", certsHandler);
+        server.start();
+        return "http://localhost:" + server.getAddress().getPort() + "/realms/test";
+    }
+
+    private static JWKSelector selectorOf(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+}
@@ -7,6 +7,11 @@ import io.restassured.RestAssured;
 import jakarta.annotation.PostConstruct;
 import org.example.model.Category;
 import org.example.model.DTO.ProductDTO;
+import org.example.model.DTO.ProductFacetsDTO;
+import org.example.model.DTO.ProductImportResultDTO;
+import org.example.model.DTO.ProductPageDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
 import org.example.model.Product;
 import org.example.service.ProductService;
 import org.jeasy.random.EasyRandom;
@@ -21,11 +26,13 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.mockito.internal.verification.VerificationModeFactory.only;
@@ -364,6 +371,110 @@ class ProductControllerTest {
         verify(productService, only()).getAllByExample(productExample);
     }
 
+    @Test
+    void shouldReturnPageOfProductsWhenGetPage() throws Exception {
+
+        var pageExpected = new ProductPageDTO(easyRandom.objects(ProductSummaryDTO.class, 3).toList(), "next-cursor", null);
+
+        var pageRequestExpected = ProductPageRequest.builder()
+                .category("books")
+                .sort(ProductPageRequest.Sort.NAME_ASC)
+                .fields(ProductPageRequest.Field.fromParam("id,name"))
+                .limit(3)
+                .build();
+
+        when(productService.getPage(pageRequestExpected)).thenReturn(pageExpected);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .param("category", "books")
+                        .param("sort", "name")
+                        .param("fields", "id,name")
+                        .param("limit", 3)
+                        .when()
+                        .get("/page")
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .asPrettyString();
+
+        ProductPageDTO page = objectMapper.readValue(jsonResponse, ProductPageDTO.class);
+
+        assertNotNull(page);
+        assertEquals(pageExpected, page);
+
+        verify(productService, times(1)).getPage(pageRequestExpected);
+        verify(productService, only()).getPage(pageRequestExpected);
+    }
+
+    @Test
+    void shouldResponseBadRequestWhenGetPageWithUnknownSort() {
+
+        given()
+                .auth().oauth2(jwt.getTokenValue())
+                .param("sort", "description")
+                .when()
+                .get("/page")
+                .then()
+                .statusCode(400);
+
+        verify(productService, never()).getPage(any());
+    }
+
+    @Test
+    void shouldReturnListOfProductsWhenSearch() throws Exception {
+
+        var productsExpected = easyRandom.objects(ProductSummaryDTO.class, 3).toList();
+
+        when(productService.search("mechanical keyboard", 5)).thenReturn(productsExpected);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .param("q", "mechanical keyboard")
+                        .param("limit", 5)
+                        .when()
+                        .get("/search")
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .asPrettyString();
+
+        List<ProductSummaryDTO> products = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+
+        assertEquals(productsExpected, products);
+
+        verify(productService, times(1)).search("mechanical keyboard", 5);
+        verify(productService, only()).search("mechanical keyboard", 5);
+    }
+
+    @Test
+    void shouldReturnFacetsWhenGetFacets() throws Exception {
+
+        var facetsExpected = new ProductFacetsDTO(Map.of("Books", 3L), Map.of(7L, 3L));
+
+        when(productService.getFacets(10)).thenReturn(facetsExpected);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .param("limit", 10)
+                        .when()
+                        .get("/facets")
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .asPrettyString();
+
+        ProductFacetsDTO facets = objectMapper.readValue(jsonResponse, ProductFacetsDTO.class);
+
+        assertEquals(facetsExpected, facets);
+
+        verify(productService, times(1)).getFacets(10);
+        verify(productService, only()).getFacets(10);
+    }
+
     @Test
     void shouldReturnProductWhenGetById() throws Exception {
 
@@ -391,6 +502,71 @@ class ProductControllerTest {
         verify(productService, only()).getById(id);
     }
 
+    @Test
+    void shouldReturnETagWhenGetById() {
+
+        var productExpected = easyRandom.nextObject(Product.class);
+        var id = productExpected.getId();
+
+        when(productService.getById(id)).thenReturn(productExpected);
+
+        given()
+                .auth().oauth2(jwt.getTokenValue())
+                .when()
+                .get("/{id}", id)
+                .then()
+                .statusCode(200)
+                .header("ETag", ETags.of(productExpected));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenGetByIdWithActualETag() {
+
+        var id = 15L;
+        var updatedAt = LocalDateTime.now();
+        var eTag = ETags.of(id, updatedAt);
+
+        when(productService.getVersions(List.of(id))).thenReturn(Map.of(id, updatedAt));
+
+        given()
+                .auth().oauth2(jwt.getTokenValue())
+                .header("If-None-Match", eTag)
+                .when()
+                .get("/{id}", id)
+                .then()
+                .statusCode(304)
+                .header("ETag", eTag);
+
+        verify(productService, times(1)).getVersions(List.of(id));
+        verify(productService, never()).getById(anyLong());
+    }
+
+    @Test
+    void shouldReturnProductWhenGetByIdWithOutdatedETag() throws Exception {
+
+        var productExpected = easyRandom.nextObject(Product.class);
+        var id = productExpected.getId();
+
+        when(productService.getVersions(List.of(id))).thenReturn(Map.of(id, productExpected.getUpdatedAt()));
+        when(productService.getById(id)).thenReturn(productExpected);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .header("If-None-Match", ETags.of(id, productExpected.getUpdatedAt().minusMinutes(1)))
+                        .when()
+                        .get("/{id}", id)
+                        .then()
+                        .statusCode(200)
+                        .header("ETag", ETags.of(productExpected))
+                        .extract()
+                        .asPrettyString();
+
+        assertEquals(productExpected, objectMapper.readValue(jsonResponse, Product.class));
+
+        verify(productService, times(1)).getById(id);
+    }
+
     @Test
     void shouldReturnNullWhenGetById() {
 
@@ -436,6 +612,34 @@ class ProductControllerTest {
         verify(productService, only()).getByIds(ids);
     }
 
+    @Test
+    void shouldReturnListOfProductsWhenBatchGetByIds() throws Exception {
+
+        var productsExpected = easyRandom.objects(Product.class, 5).toList();
+        var ids = productsExpected.stream().map(Product::getId).toList();
+
+        when(productService.getByIds(ids)).thenReturn(productsExpected);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .contentType("application/json")
+                        .body(objectMapper.writeValueAsString(ids))
+                        .when()
+                        .post("/batch-get")
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .asPrettyString();
+
+        List<Product> products = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+
+        assertEquals(productsExpected, products);
+
+        verify(productService, times(1)).getByIds(ids);
+        verify(productService, only()).getByIds(ids);
+    }
+
     @Test
     void shouldReturnEmptyListWhenGetByIds() throws JsonProcessingException {
 
@@ -503,6 +707,36 @@ class ProductControllerTest {
         verify(productService, only()).create(any(ProductDTO.class));
     }
 
+    @Test
+    void shouldImportProductsWhenImportProducts() throws Exception {
+
+        var resultExpected = new ProductImportResultDTO(5, 2, 3);
+
+        when(productService.importProducts(anyList())).thenReturn(resultExpected);
+
+        var productDTOs = easyRandom.objects(ProductDTO.class, 5).toList();
+        var jsonProductDTOs = objectMapper.writeValueAsString(productDTOs);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .contentType("application/json")
+                        .body(jsonProductDTOs)
+                        .when()
+                        .post("/batch")
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .asPrettyString();
+
+        ProductImportResultDTO result = objectMapper.readValue(jsonResponse, ProductImportResultDTO.class);
+
+        assertEquals(resultExpected, result);
+
+        verify(productService, times(1)).importProducts(productDTOs);
+        verify(productService, only()).importProducts(anyList());
+    }
+
     @Test
     void shouldUpdateAndReturnProductWhenUpdate() throws Exception {
 
@@ -654,6 +888,34 @@ class ProductControllerTest {
         verify(productService, only()).getCategoriesByNames(names);
     }
 
+    @Test
+    void shouldReturnListOfCategoriesWhenBatchGetCategoriesByNames() throws Exception {
+
+        var categoriesExpected = easyRandom.objects(Category.class, 5).toList();
+        var names = categoriesExpected.stream().map(Category::getName).toList();
+
+        when(productService.getCategoriesByNames(names)).thenReturn(categoriesExpected);
+
+        var jsonResponse =
+                given()
+                        .auth().oauth2(jwt.getTokenValue())
+                        .contentType("application/json")
+                        .body(objectMapper.writeValueAsString(names))
+                        .when()
+                        .post("/categories/batch-get")
+                        .then()
+                        .statusCode(200)
+                        .extract()
+                        .asPrettyString();
+
+        List<Category> categories = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+
+        assertEquals(categoriesExpected, categories);
+
+        verify(productService, times(1)).getCategoriesByNames(names);
+        verify(productService, only()).getCategoriesByNames(names);
+    }
+
     @Test
     void shouldReturnEmptyListWhenGetCategoriesByNames() throws JsonProcessingException {
 
@@ -0,0 +1,94 @@
+package org.example.repository;
+
+import org.example.model.Category;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CategoryCacheTest {
+
+    private static final String CATEGORY_NAME = "category-cache-test";
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.findByName(CATEGORY_NAME).ifPresent(categoryRepository::delete);
+        categoryCache.clear();
+    }
+
+    @Test
+    void shouldCreateCategoryOnceWhenFindOrCreateConcurrently() throws Exception {
+
+        var threads = 8;
+        var tasks = new ArrayList<Callable<Category>>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> categoryCache.findOrCreate(CATEGORY_NAME));
+        }
+
+        var categories = new ArrayList<Category>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (Future<Category> future : executor.invokeAll(tasks)) {
+                categories.add(future.get());
+            }
+        }
+
+        var id = categories.getFirst().getId();
+        assertNotNull(id);
+        assertTrue(categories.stream().allMatch(c -> id.equals(c.getId()) && CATEGORY_NAME.equals(c.getName())));
+
+        assertEquals(1, categoryRepository.findAllByNameIn(List.of(CATEGORY_NAME)).size());
+    }
+
+    @Test
+    void shouldReturnCachedCopyWhenFindOrCreateAgain() {
+
+        var created = categoryCache.findOrCreate(CATEGORY_NAME);
+        var cacheSize = categoryCache.size();
+
+        var found = categoryCache.findOrCreate(CATEGORY_NAME);
+
+        assertEquals(created.getId(), found.getId());
+        assertNotSame(created, found);
+        assertEquals(cacheSize, categoryCache.size());
+    }
+
+    @Test
+    void shouldNotCacheCategoryWhenCallerTransactionRolledBack() {
+
+        var cacheSize = categoryCache.size();
+
+        var created = new TransactionTemplate(transactionManager).execute(status -> {
+            var category = categoryCache.findOrCreate(CATEGORY_NAME);
+            status.setRollbackOnly();
+            return category;
+        });
+
+        assertNotNull(created.getId());
+        assertEquals(cacheSize, categoryCache.size());
+        assertTrue(categoryRepository.findAllByNameIn(List.of(CATEGORY_NAME)).isEmpty());
+
+        var recreated = categoryCache.findOrCreate(CATEGORY_NAME);
+        assertNotEquals(created.getId(), recreated.getId());
+        assertEquals(cacheSize + 1, categoryCache.size());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.model.Category;
+import org.example.model.Product;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Products per second imported into the embedded database:
+ * "before" - ProductRepositoryCustom.merge per product (previous way of creating products),
+ * "after" - ProductRepositoryCustom.importAll.
+ * Run manually:
+ * ./gradlew test --tests '*ProductImportBenchmark' -Dbenchmark.product-import.size=100000
+ * The "before" run uses a tenth of the products, otherwise it takes too long.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark.product-import.size", matches = "\\d+")
+class ProductImportBenchmark {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int size = Integer.parseInt(System.getProperty("benchmark.product-import.size", "0"));
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Product WHERE TRUE").executeUpdate();
+            entityManager.createQuery("DELETE FROM Category WHERE TRUE").executeUpdate();
+            entityManager.createQuery("DELETE FROM User WHERE TRUE").executeUpdate();
+        });
+    }
+
+    @Test
+    void mergePerProduct() {
+
+        var products = products(size / 10);
+
+        var start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> products.forEach(productRepository::merge));
+
+        report("merge per product (before)", products.size(), start);
+    }
+
+    @Test
+    void importAll() {
+
+        var products = products(size);
+
+        var start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> productRepository.importAll(products));
+
+        report("batch import (after)", products.size(), start);
+    }
+
+    // 100 categories and 1000 users, as in a catalog imported from a few sellers
+    private static List<Product> products(int count) {
+        var now = LocalDateTime.now();
+        var products = new ArrayList<Product>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new Product(null, "Product #" + i, "Description of product #" + i,
+                    new Category(null, "category-" + i % 100), new User((long) i % 1000), now));
+        }
+        return products;
+    }
+
+    private static void report(String name, int count, long start) {
+        var seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%s: %d products in %.2f s - %.0f products/s%n",
+                name, count, seconds, count / seconds);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.example.model.Category;
+import org.example.model.Product;
+import org.example.model.User;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JDBC statements per product read with read-heavy traffic (pages of products by ids, as the frontend requests them):
+ * "before" - second-level cache is evicted before every read, so categories and users are loaded from the database,
+ * "after" - categories and users come from the second-level cache.
+ * Run manually:
+ * ./gradlew test --tests '*ProductReadBenchmark' -Dbenchmark.product-read.reads=10000
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark.product-read.reads", matches = "\\d+")
+class ProductReadBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int reads = Integer.parseInt(System.getProperty("benchmark.product-read.reads", "0"));
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        var now = LocalDateTime.now();
+        var products = new ArrayList<Product>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product(null, "Product #" + i, "Description of product #" + i,
+                    new Category(null, "category-" + i % 50), new User((long) i % 500), now));
+        }
+        transactionTemplate.executeWithoutResult(status -> productRepository.importAll(products));
+        ids = products.stream().map(Product::getId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Product WHERE TRUE").executeUpdate();
+            entityManager.createQuery("DELETE FROM Category WHERE TRUE").executeUpdate();
+            entityManager.createQuery("DELETE FROM User WHERE TRUE").executeUpdate();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void readWithoutSecondLevelCache() {
+        run("without second-level cache (before)", true);
+    }
+
+    @Test
+    void readWithSecondLevelCache() {
+        run("with second-level cache (after)", false);
+    }
+
+    private void run(String name, boolean evictBeforeRead) {
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var start = System.nanoTime();
+
+        for (int i = 0; i < reads; i++) {
+            if (evictBeforeRead) {
+                entityManagerFactory.getCache().evictAll();
+            }
+            var from = ThreadLocalRandom.current().nextInt(ids.size() - PAGE_SIZE);
+            productRepository.findAllByIdIn(ids.subList(from, from + PAGE_SIZE));
+        }
+
+        var seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%s: %d reads in %.2f s, %.2f statements per read, second-level cache hits=%d misses=%d%n",
+                name, reads, seconds, (double) statistics.getPrepareStatementCount() / reads,
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.example.model.Category;
 import org.example.model.DTO.ProductDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
+import org.example.model.Product;
 import org.example.model.User;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.AfterEach;
@@ -12,8 +15,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
@@ -110,6 +117,120 @@ class ProductRepositoryCustomImplTest {
         assertEquals(1L, numberOfCategories);
     }
 
+    @Test
+    void shouldWalkThroughAllProductsWhenFindPage() {
+
+        var productsExpected = addProductsToDB(5);
+        productsExpected.sort(Comparator.comparing(Product::getCreatedAt).reversed());
+
+        var pageRequest = ProductPageRequest.builder().limit(2).build();
+
+        var productsFound = new ArrayList<ProductSummaryDTO>();
+        while (true) {
+            var page = productRepository.findPage(pageRequest);
+            assertTrue(page.size() <= 3);
+            if (page.size() <= 2) {
+                productsFound.addAll(page);
+                break;
+            }
+            productsFound.addAll(page.subList(0, 2));
+            pageRequest.setCursor(pageRequest.cursorOf(page.get(1)));
+        }
+
+        assertEquals(productsExpected.stream().map(Product::getId).toList(),
+                productsFound.stream().map(ProductSummaryDTO::getId).toList());
+
+        // Description is not a default field
+        assertTrue(productsFound.stream().allMatch(p -> p.getDescription() == null));
+        assertTrue(productsFound.stream().allMatch(p -> p.getName() != null && p.getCategory() != null && p.getUserId() != null));
+    }
+
+    @Test
+    void shouldReturnProductsBeforeCursorWhenFindPageWithBackwardCursor() {
+
+        addProductsToDB(5);
+        var allProducts = productRepository.findPage(ProductPageRequest.builder().limit(5).build());
+        assertEquals(5, allProducts.size());
+
+        var pageRequest = ProductPageRequest.builder().limit(2).build();
+        pageRequest.setCursor(pageRequest.backwardCursorOf(allProducts.get(3)));
+
+        var page = productRepository.findPage(pageRequest);
+
+        // Nearest to the cursor first, the extra row shows there is one more product before
+        assertEquals(List.of(allProducts.get(2).getId(), allProducts.get(1).getId(), allProducts.get(0).getId()),
+                page.stream().map(ProductSummaryDTO::getId).toList());
+    }
+
+    @Test
+    void shouldReturnOnlyRequestedFieldsAndFilterByCategoryWhenFindPage() {
+
+        var products = addProductsToDB(3);
+        var productExpected = products.get(1);
+
+        var pageRequest = ProductPageRequest.builder()
+                .category(productExpected.getCategory().getName())
+                .sort(ProductPageRequest.Sort.NAME_ASC)
+                .fields(ProductPageRequest.Field.fromParam("description"))
+                .limit(10)
+                .build();
+
+        var page = productRepository.findPage(pageRequest);
+        assertEquals(1, page.size());
+
+        var product = page.getFirst();
+        assertEquals(productExpected.getId(), product.getId());
+        assertEquals(productExpected.getName(), product.getName());
+        assertEquals(productExpected.getDescription(), product.getDescription());
+        assertNull(product.getCategory());
+        assertNull(product.getUserId());
+        assertNull(product.getCreatedAt());
+    }
+
+    @Test
+    void shouldImportProductsWithExistingAndNewCategoriesAndUsersWhenImportAll() {
+
+        var categoryExisting = addCategoryToDB(new Category(null, "test-category"));
+        var userExisting = addUserToDB(new User(99L));
+
+        var products = new ArrayList<Product>();
+        for (int i = 0; i < 10; i++) {
+            var product = easyRandom.nextObject(ProductDTO.class).toProduct();
+            product.setDescription("Description of product #" + i);
+            product.setCategory(new Category(null, i % 2 == 0 ? categoryExisting.getName() : "new-category"));
+            product.setUser(new User(i % 2 == 0 ? userExisting.getId() : 100L + i % 3));
+            products.add(product);
+        }
+
+        var result = productRepository.importAll(products);
+        assertEquals(10, result.getProductsImported());
+        assertEquals(1, result.getCategoriesCreated());
+        assertEquals(3, result.getUsersCreated());
+
+        assertTrue(products.stream().allMatch(p -> p.getId() != null));
+        assertEquals(10L, productRepository.count());
+
+        assertEquals(1, numberOfCategoriesInDBByName(categoryExisting.getName()));
+        assertEquals(1, numberOfCategoriesInDBByName("new-category"));
+
+        var productImported = productRepository.findById(products.getFirst().getId()).orElseThrow();
+        assertEquals(products.getFirst().getName(), productImported.getName());
+        assertEquals(categoryExisting.getId(), productImported.getCategory().getId());
+    }
+
+    private List<Product> addProductsToDB(int count) {
+        var createdAt = LocalDateTime.now().withNano(0);
+        var products = new ArrayList<Product>();
+        for (int i = 0; i < count; i++) {
+            var product = easyRandom.nextObject(ProductDTO.class).toProduct();
+            product.setDescription("Description of product #" + i);
+            product.setCreatedAt(createdAt.minusMinutes(i * 7L % count));
+            products.add(productRepository.merge(product));
+        }
+        entityManager.flush();
+        return products;
+    }
+
     private Category addCategoryToDB(Category category) {
         category.setId(null);
         entityManager.persist(category);
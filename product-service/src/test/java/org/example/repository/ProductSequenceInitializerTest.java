@@ -0,0 +1,58 @@
+package org.example.repository;
+
+import org.example.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductSequenceInitializerTest {
+
+    private static final long EXISTING_ID = 1_000_000L;
+    private static final long USER_ID = 1_000_000L;
+    private static final String CATEGORY_NAME = "sequence-initializer-test";
+
+    @Autowired
+    private ProductSequenceInitializer productSequenceInitializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", EXISTING_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM categories WHERE name = ?", CATEGORY_NAME);
+    }
+
+    @Test
+    void shouldMoveSequencePastExistingIdsWhenAdvance() {
+
+        // A product inserted before the switch from IDENTITY to the sequence
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES (?)", CATEGORY_NAME);
+        var categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = ?", Integer.class, CATEGORY_NAME);
+        jdbcTemplate.update("INSERT INTO users (id) VALUES (?)", USER_ID);
+        jdbcTemplate.update("INSERT INTO products (id, name, description, category_id, user_id) VALUES (?, ?, ?, ?, ?)",
+                EXISTING_ID, "Existing product", "Created with IDENTITY", categoryId, USER_ID);
+
+        productSequenceInitializer.advance();
+
+        // The lowest id of the next pooled block
+        var lowestId = productSequenceInitializer.nextValue() - Product.ID_ALLOCATION_SIZE + 1;
+        assertTrue(lowestId > EXISTING_ID);
+    }
+
+    @Test
+    void shouldNotMoveSequenceBackWhenAdvance() {
+
+        var value = productSequenceInitializer.nextValue();
+
+        productSequenceInitializer.advance();
+
+        assertTrue(productSequenceInitializer.nextValue() > value);
+    }
+}
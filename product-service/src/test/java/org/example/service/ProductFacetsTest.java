@@ -0,0 +1,79 @@
+package org.example.service;
+
+import org.example.model.Category;
+import org.example.model.Product;
+import org.example.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFacetsTest {
+
+    private final ProductFacets productFacets = new ProductFacets();
+
+    @Test
+    void shouldCountCreatedProductsWhenGetFacets() {
+
+        productFacets.onProductChanged(ProductChangedEvent.created(product(1L, "Books", 10L)));
+        productFacets.onProductChanged(ProductChangedEvent.created(product(2L, "Books", 11L)));
+        productFacets.onProductChanged(ProductChangedEvent.created(product(3L, "Games", 10L)));
+
+        var facets = productFacets.getFacets(0);
+
+        assertEquals(Map.of("Books", 2L, "Games", 1L), facets.getCategories());
+        assertEquals(List.of("Books", "Games"), List.copyOf(facets.getCategories().keySet()));
+        assertEquals(Map.of(10L, 2L, 11L, 1L), facets.getUsers());
+    }
+
+    @Test
+    void shouldMoveCountsWhenProductUpdated() {
+
+        var product = product(1L, "Books", 10L);
+        productFacets.onProductChanged(ProductChangedEvent.created(product));
+
+        product.setCategory(new Category(null, "Games"));
+        product.setUser(new User(11L));
+        productFacets.onProductChanged(ProductChangedEvent.updated(product, "Books", 10L));
+
+        var facets = productFacets.getFacets(0);
+
+        assertEquals(Map.of("Games", 1L), facets.getCategories());
+        assertEquals(Map.of(11L, 1L), facets.getUsers());
+    }
+
+    @Test
+    void shouldNotShowEmptyFacetsWhenProductDeleted() {
+
+        var product = product(1L, "Books", 10L);
+        productFacets.onProductChanged(ProductChangedEvent.created(product));
+        productFacets.onProductChanged(ProductChangedEvent.created(product(2L, "Games", 10L)));
+
+        productFacets.onProductChanged(ProductChangedEvent.deleted(product));
+
+        var facets = productFacets.getFacets(0);
+
+        assertEquals(Map.of("Games", 1L), facets.getCategories());
+        assertEquals(Map.of(10L, 1L), facets.getUsers());
+    }
+
+    @Test
+    void shouldReturnTopEntriesWhenGetFacetsWithLimit() {
+
+        productFacets.onProductChanged(ProductChangedEvent.created(product(1L, "Books", 10L)));
+        productFacets.onProductChanged(ProductChangedEvent.created(product(2L, "Games", 10L)));
+        productFacets.onProductChanged(ProductChangedEvent.created(product(3L, "Games", 11L)));
+
+        var facets = productFacets.getFacets(1);
+
+        assertEquals(Map.of("Games", 2L), facets.getCategories());
+        assertEquals(Map.of(10L, 2L), facets.getUsers());
+    }
+
+    private Product product(Long id, String category, Long userId) {
+        return new Product(id, "Product #" + id, "Description of product", new Category(null, category), new User(userId), LocalDateTime.now());
+    }
+}
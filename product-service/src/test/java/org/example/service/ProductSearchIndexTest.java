@@ -0,0 +1,210 @@
+package org.example.service;
+
+import org.example.model.Category;
+import org.example.model.DTO.ProductSummaryDTO;
+import org.example.model.Product;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private DatabaseBackedIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new DatabaseBackedIndex();
+        productSearchIndex.open();
+
+        productSearchIndex.index(product(1L, "Mechanical keyboard", "Keyboard with brown switches and backlight", "Computers"));
+        productSearchIndex.index(product(2L, "Wireless mouse", "Ergonomic mouse, fits any keyboard setup", "Computers"));
+        productSearchIndex.index(product(3L, "Harry Potter", "Fantasy novel about a young wizard", "Books"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        productSearchIndex.close();
+    }
+
+    @Test
+    void shouldRankNameMatchesHigherWhenSearch() {
+
+        var products = productSearchIndex.search("keyboard", 10);
+
+        assertEquals(2, products.size());
+        assertEquals(1L, products.get(0).getId());
+        assertEquals(2L, products.get(1).getId());
+
+        var product = products.getFirst();
+        assertEquals("Mechanical keyboard", product.getName());
+        assertEquals("Computers", product.getCategory());
+        assertEquals(11L, product.getUserId());
+        assertNotNull(product.getCreatedAt());
+        assertNull(product.getDescription());
+    }
+
+    @Test
+    void shouldFindByPrefixWhenSearch() {
+        var products = productSearchIndex.search("mech", 10);
+        assertEquals(1, products.size());
+        assertEquals(1L, products.getFirst().getId());
+    }
+
+    @Test
+    void shouldFindWithTyposWhenSearch() {
+        var products = productSearchIndex.search("wirless mosue", 10);
+        assertEquals(1, products.size());
+        assertEquals(2L, products.getFirst().getId());
+    }
+
+    @Test
+    void shouldRequireAllTermsWhenSearch() {
+        assertEquals(1, productSearchIndex.search("fantasy wizard", 10).size());
+        assertTrue(productSearchIndex.search("fantasy keyboard", 10).isEmpty());
+    }
+
+    @Test
+    void shouldFindByCategoryWhenSearch() {
+        var ids = productSearchIndex.search("computers", 10).stream()
+                .map(ProductSummaryDTO::getId)
+                .sorted()
+                .toList();
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    void shouldReplaceProductWhenIndexAgain() {
+
+        productSearchIndex.index(product(3L, "Lord of the Rings", "Fantasy novel", "Books"));
+
+        assertTrue(productSearchIndex.search("potter", 10).isEmpty());
+        assertEquals(1, productSearchIndex.search("rings", 10).size());
+    }
+
+    @Test
+    void shouldNotFindProductWhenDeleted() {
+
+        productSearchIndex.delete(3L);
+
+        assertTrue(productSearchIndex.search("potter", 10).isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenSearchByBlankQuery() {
+        assertTrue(productSearchIndex.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void shouldReplaceIndexWithDatabaseContentWhenRebuild() {
+
+        productSearchIndex.save(product(1L, "Mechanical keyboard", "Keyboard with brown switches", "Computers"));
+        productSearchIndex.save(product(4L, "Lord of the Rings", "Fantasy novel", "Books"));
+
+        productSearchIndex.rebuild();
+
+        assertEquals(1, productSearchIndex.search("keyboard", 10).size());
+        assertEquals(1, productSearchIndex.search("rings", 10).size());
+        // Deleted by another instance
+        assertTrue(productSearchIndex.search("potter", 10).isEmpty());
+    }
+
+    @Test
+    void shouldKeepChangesMadeDuringRebuild() {
+
+        productSearchIndex.save(product(1L, "Mechanical keyboard", "Keyboard with brown switches", "Computers"));
+        productSearchIndex.save(product(3L, "Harry Potter", "Fantasy novel about a young wizard", "Books"));
+
+        // The rows are already read by the rebuild when the products are changed and the events come
+        productSearchIndex.onRead = () -> {
+            var updated = product(1L, "Gaming keyboard", "Keyboard with red switches", "Computers");
+            productSearchIndex.save(updated);
+            productSearchIndex.index(updated);
+
+            productSearchIndex.rows.remove(3L);
+            productSearchIndex.delete(3L);
+        };
+
+        productSearchIndex.rebuild();
+
+        assertEquals(1, productSearchIndex.search("gaming", 10).size());
+        assertTrue(productSearchIndex.search("mechanical", 10).isEmpty());
+        assertTrue(productSearchIndex.search("potter", 10).isEmpty());
+    }
+
+    @Test
+    void shouldIndexProductsChangedByOtherInstancesWhenSyncChanges() {
+
+        productSearchIndex.rebuild();
+        productSearchIndex.save(product(5L, "Espresso machine", "Makes coffee", "Kitchen"));
+
+        productSearchIndex.syncChanges();
+
+        assertEquals(1, productSearchIndex.search("espresso", 10).size());
+    }
+
+    @Test
+    void shouldNotSyncChangesBeforeRebuild() {
+
+        productSearchIndex.save(product(5L, "Espresso machine", "Makes coffee", "Kitchen"));
+
+        productSearchIndex.syncChanges();
+
+        assertTrue(productSearchIndex.search("espresso", 10).isEmpty());
+    }
+
+    private Product product(Long id, String name, String description, String category) {
+        return new Product(id, name, description, new Category(null, category), new User(11L), LocalDateTime.now());
+    }
+
+    // Reads the products from a map instead of the database
+    private static class DatabaseBackedIndex extends ProductSearchIndex {
+
+        private final Map<Long, Object[]> rows = new TreeMap<>();
+        private final Set<Long> updatedIds = new HashSet<>();
+        private Runnable onRead;
+
+        private void save(Product product) {
+            rows.put(product.getId(), new Object[]{product.getId(), product.getName(), product.getDescription(),
+                    ProductChangedEvent.categoryOf(product), ProductChangedEvent.userIdOf(product), product.getCreatedAt()});
+            updatedIds.add(product.getId());
+        }
+
+        @Override
+        List<Object[]> findRowsAfterId(long lastId, int limit) {
+            var found = rows.values().stream()
+                    .filter(row -> (Long) row[0] > lastId)
+                    .limit(limit)
+                    .toList();
+            if (found.isEmpty() && onRead != null) {
+                onRead.run();
+                onRead = null;
+            }
+            return found;
+        }
+
+        @Override
+        List<Object[]> findRowsUpdatedSince(LocalDateTime since) {
+            var found = updatedIds.stream()
+                    .map(rows::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            updatedIds.clear();
+            return found;
+        }
+
+        @Override
+        List<Object[]> findRowsByIds(Collection<Long> ids) {
+            return ids.stream()
+                    .map(rows::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+    }
+}
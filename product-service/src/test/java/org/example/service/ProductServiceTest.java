@@ -2,6 +2,10 @@ package org.example.service;
 
 import org.example.model.Category;
 import org.example.model.DTO.ProductDTO;
+import org.example.model.DTO.ProductFacetsDTO;
+import org.example.model.DTO.ProductImportResultDTO;
+import org.example.model.DTO.ProductPageRequest;
+import org.example.model.DTO.ProductSummaryDTO;
 import org.example.model.Product;
 import org.example.repository.CategoryRepository;
 import org.example.repository.ProductRepository;
@@ -13,11 +17,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Example;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +40,10 @@ class ProductServiceTest {
     private ProductRepository productRepository;
     @MockBean
     private CategoryRepository categoryRepository;
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    @MockBean
+    private ProductFacets productFacets;
 
     private final EasyRandom easyRandom = new EasyRandom();
 
@@ -84,6 +94,24 @@ class ProductServiceTest {
         verify(productRepository, only()).findAllByIdIn(ids);
     }
 
+    @Test
+    void shouldSplitIdsIntoChunksWhenGetByIds() {
+
+        var ids = LongStream.rangeClosed(1, 2_500).boxed().toList();
+
+        when(productRepository.findAllByIdIn(anyCollection())).thenAnswer(answer -> {
+            Collection<Long> idsOfChunk = answer.getArgument(0);
+            return idsOfChunk.stream()
+                    .map(id -> new Product(id, "product-" + id, null, null, null, null))
+                    .toList();
+        });
+
+        var products = productService.getByIds(ids);
+        assertEquals(ids, products.stream().map(Product::getId).toList());
+
+        verify(productRepository, times(3)).findAllByIdIn(argThat(idsOfChunk -> idsOfChunk.size() <= 1_000));
+    }
+
     @Test
     void shouldReturnEmptyListWhenGetByIds() {
 
@@ -150,6 +178,87 @@ class ProductServiceTest {
         verify(productRepository, times(products.size())).findAll(any(Example.class));
     }
 
+    @Test
+    void shouldReturnPageWithNextCursorWhenGetPage() {
+
+        var productsFound = easyRandom.objects(ProductSummaryDTO.class, 3).toList();
+        var pageRequest = ProductPageRequest.builder().limit(2).build();
+
+        when(productRepository.findPage(pageRequest)).thenReturn(productsFound);
+
+        var page = productService.getPage(pageRequest);
+        assertNotNull(page);
+        assertEquals(productsFound.subList(0, 2), page.getItems());
+        assertEquals(pageRequest.cursorOf(productsFound.get(1)), page.getNextCursor());
+
+        verify(productRepository, times(1)).findPage(pageRequest);
+        verify(productRepository, only()).findPage(pageRequest);
+    }
+
+    @Test
+    void shouldReturnPageWithNextAndPrevCursorsWhenGetPageWithCursor() {
+
+        var productsFound = easyRandom.objects(ProductSummaryDTO.class, 2).toList();
+        var pageRequest = ProductPageRequest.builder().limit(2).build();
+        pageRequest.setCursor(pageRequest.cursorOf(easyRandom.nextObject(ProductSummaryDTO.class)));
+
+        when(productRepository.findPage(pageRequest)).thenReturn(productsFound);
+
+        var page = productService.getPage(pageRequest);
+        assertEquals(productsFound, page.getItems());
+        // There is no next page, but there is the one the cursor came from
+        assertNull(page.getNextCursor());
+        assertEquals(pageRequest.backwardCursorOf(productsFound.getFirst()), page.getPrevCursor());
+    }
+
+    @Test
+    void shouldReturnProductsInPageOrderWhenGetPageWithBackwardCursor() {
+
+        // Nearest to the cursor first, with the extra row
+        var productsFound = easyRandom.objects(ProductSummaryDTO.class, 3).toList();
+        var pageRequest = ProductPageRequest.builder().limit(2).build();
+        pageRequest.setCursor(pageRequest.backwardCursorOf(easyRandom.nextObject(ProductSummaryDTO.class)));
+
+        when(productRepository.findPage(pageRequest)).thenReturn(productsFound);
+
+        var page = productService.getPage(pageRequest);
+        assertEquals(List.of(productsFound.get(1), productsFound.get(0)), page.getItems());
+        assertEquals(pageRequest.cursorOf(productsFound.get(0)), page.getNextCursor());
+        assertEquals(pageRequest.backwardCursorOf(productsFound.get(1)), page.getPrevCursor());
+    }
+
+    @Test
+    void shouldReturnLastPageAndLimitPageSizeWhenGetPage() {
+
+        var productsFound = easyRandom.objects(ProductSummaryDTO.class, 3).toList();
+        var pageRequest = ProductPageRequest.builder().limit(Integer.MAX_VALUE).build();
+
+        when(productRepository.findPage(pageRequest)).thenReturn(productsFound);
+
+        var page = productService.getPage(pageRequest);
+        assertNotNull(page);
+        assertEquals(productsFound, page.getItems());
+        assertNull(page.getNextCursor());
+        assertEquals(100, pageRequest.getLimit());
+
+        verify(productRepository, times(1)).findPage(pageRequest);
+        verify(productRepository, only()).findPage(pageRequest);
+    }
+
+    @Test
+    void shouldReturnProductsWhenSearch() {
+
+        var productsExpected = easyRandom.objects(ProductSummaryDTO.class, 3).toList();
+
+        when(productSearchIndex.search("keyboard", 20)).thenReturn(productsExpected);
+
+        var products = productService.search("keyboard", 0);
+        assertEquals(productsExpected, products);
+
+        verify(productSearchIndex, times(1)).search("keyboard", 20);
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void shouldCreateAndReturnNewProductWhenCreate() {
 
@@ -175,6 +284,26 @@ class ProductServiceTest {
         verify(productRepository, only()).merge(any(Product.class));
     }
 
+    @Test
+    void shouldImportProductsWhenImportProducts() {
+
+        var resultExpected = new ProductImportResultDTO(3, 1, 2);
+
+        when(productRepository.importAll(anyList())).thenReturn(resultExpected);
+
+        var productDTOs = easyRandom.objects(ProductDTO.class, 3).toList();
+        productDTOs.getFirst().setCreatedAt(null);
+
+        var result = productService.importProducts(productDTOs);
+        assertEquals(resultExpected, result);
+
+        verify(productRepository, times(1)).importAll(argThat(products ->
+                products.size() == 3
+                        && products.stream().allMatch(p -> p.getCreatedAt() != null)
+                        && products.get(1).getName().equals(productDTOs.get(1).getName())));
+        verify(productRepository, only()).importAll(anyList());
+    }
+
     @Test
     void shouldUpdateAndReturnProductWhenUpdate() {
 
@@ -236,12 +365,43 @@ class ProductServiceTest {
     @Test
     void shouldDeleteProductWhenDelete() {
 
+        var product = easyRandom.nextObject(Product.class);
+        var id = product.getId();
+
+        when(productRepository.findById(id)).thenReturn(Optional.of(product));
+
+        productService.deleteById(id);
+
+        verify(productRepository, times(1)).findById(id);
+        verify(productRepository, times(1)).delete(product);
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void shouldNotDeleteProductWhenDeleteNotExisting() {
+
         var id = 1L;
 
+        when(productRepository.findById(id)).thenReturn(Optional.empty());
+
         productService.deleteById(id);
 
-        verify(productRepository, times(1)).deleteById(id);
-        verify(productRepository, only()).deleteById(id);
+        verify(productRepository, times(1)).findById(id);
+        verify(productRepository, never()).delete(any(Product.class));
+    }
+
+    @Test
+    void shouldReturnFacetsWhenGetFacets() {
+
+        var facetsExpected = easyRandom.nextObject(ProductFacetsDTO.class);
+
+        when(productFacets.getFacets(5)).thenReturn(facetsExpected);
+
+        var facets = productService.getFacets(5);
+        assertEquals(facetsExpected, facets);
+
+        verify(productFacets, times(1)).getFacets(5);
+        verifyNoInteractions(productRepository);
     }
 
     @Test
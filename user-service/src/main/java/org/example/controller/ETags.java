@@ -0,0 +1,31 @@
+package org.example.controller;
+
+import org.example.model.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Entity tags of users for HTTP conditional requests.
+ * A tag is derived from the id and the update timestamp, so it can be computed without loading the user itself.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String of(User user) {
+        return of(user.getId(), user.getUpdatedAt());
+    }
+
+    public static String of(Long id, LocalDateTime updatedAt) {
+        return "\"" + versionOf(id, updatedAt) + "\"";
+    }
+
+    private static String versionOf(Long id, LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return id + "-0";
+        }
+        var micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return id + "-" + micros;
+    }
+}
@@ -4,9 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.example.model.User;
 import org.example.model.UserDTO;
 import org.example.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collection;
 import java.util.List;
@@ -24,13 +26,30 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Supports {@code If-None-Match}: if the client's copy is up-to-date, only the version of the user is read
+     * and {@code 304 Not Modified} is returned without a body.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getById(@PathVariable Long id) {
+    public ResponseEntity<User> getById(@PathVariable Long id, WebRequest webRequest) {
+
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            var versions = userService.getVersions(List.of(id));
+            if (versions.containsKey(id)) {
+                var eTag = ETags.of(id, versions.get(id));
+                if (webRequest.checkNotModified(eTag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                }
+            }
+        }
+
         var user = userService.getById(id);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(user))
+                .body(user);
     }
 
     @GetMapping("/ids/{ids}")
@@ -39,15 +58,36 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Same as {@link #getByIds} with the ids in the request body, so large batches are not limited by the URL length.
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<User>> batchGetByIds(@RequestBody Collection<Long> ids) {
+        var users = userService.getByIds(ids);
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/username/{username}")
-    public ResponseEntity<User> getByUsername(@PathVariable String username) {
-        var user = userService.getByUsername(username);
+    public ResponseEntity<User> getByUsername(@PathVariable String username,
+                                              @RequestParam(name = "ignoreCase", defaultValue = "false") boolean ignoreCase) {
+        var user = ignoreCase
+                ? userService.getByUsernameIgnoreCase(username)
+                : userService.getByUsername(username);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok(user);
     }
 
+    @GetMapping("/usernames/{usernames}")
+    public ResponseEntity<List<User>> getByUsernames(@PathVariable Collection<String> usernames,
+                                                     @RequestParam(name = "ignoreCase", defaultValue = "false") boolean ignoreCase) {
+        var users = ignoreCase
+                ? userService.getByUsernamesIgnoreCase(usernames)
+                : userService.getByUsernames(usernames);
+        return ResponseEntity.ok(users);
+    }
+
     @PostMapping
     public ResponseEntity<User> create(@RequestBody UserDTO userDTO) {
         var user = userService.create(userDTO);
@@ -1,10 +1,13 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(
@@ -28,4 +31,14 @@ public class User {
     @NotNull
     @Column(name = "created_at")
     public LocalDate createdAt;
+
+    // Version of the user for HTTP conditional requests (ETag), not a part of the API model
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @JsonIgnore
+    public LocalDateTime updatedAt;
+
+    public User(Long id, String username, LocalDate createdAt) {
+        this(id, username, createdAt, null);
+    }
 }
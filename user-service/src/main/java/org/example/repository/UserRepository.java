@@ -2,10 +2,34 @@ package org.example.repository;
 
 import org.example.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllByIdIn(Collection<Long> ids);
+
+    // Seek in the unique index on username
+    Optional<User> findByUsername(String username);
+
+    List<User> findAllByUsernameIn(Collection<String> usernames);
+
+    // Same predicate as findAllByLowerCaseUsernameIn (derived "IgnoreCase" queries use UPPER),
+    // so both seek in the functional index on LOWER(username) created by UsernameIndexInitializer.
+    // The username is expected in lower case.
+    // With a case-sensitive collation the unique index allows usernames differing in case only,
+    // so several users can match, ordered by id
+    @Query("SELECT u FROM User u WHERE LOWER(u.username) = :username ORDER BY u.id")
+    List<User> findAllByLowerCaseUsername(@Param("username") String username);
+
+    // Usernames are expected in lower case
+    @Query("SELECT u FROM User u WHERE LOWER(u.username) IN :usernames")
+    List<User> findAllByLowerCaseUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    // Pairs of [id, updatedAt], used to answer conditional requests without loading users
+    @Query("SELECT u.id, u.updatedAt FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUpdatedAtByIdIn(@Param("ids") Collection<Long> ids);
 }
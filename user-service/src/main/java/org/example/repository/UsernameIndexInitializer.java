@@ -0,0 +1,55 @@
+package org.example.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the functional index on {@code LOWER(username)} used by the ignore-case lookups of users
+ * (see {@link UserRepository#findAllByLowerCaseUsername}), the schema generated from the entities has no such index.
+ * <p>
+ * Functional indexes are supported by MySQL 8.0.13+ and PostgreSQL, on other databases the lookups scan the table.
+ */
+@Component
+@Slf4j
+public class UsernameIndexInitializer {
+
+    static final String INDEX_NAME = "users_username_lower_idx";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public UsernameIndexInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+    }
+
+    @PostConstruct
+    public void createIndex() {
+
+        if (dialect instanceof MySQLDialect && !(dialect instanceof MariaDBDialect)) {
+            // MySQL has no "CREATE INDEX IF NOT EXISTS"
+            var indexes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = ?", Long.class, INDEX_NAME);
+            if (indexes == null || indexes == 0) {
+                log.info("Creating index {} on LOWER(username)", INDEX_NAME);
+                // Double parentheses make a functional key part
+                jdbcTemplate.execute("CREATE INDEX " + INDEX_NAME + " ON users ((LOWER(username)))");
+            }
+        } else if (dialect instanceof PostgreSQLDialect) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDEX_NAME + " ON users (LOWER(username))");
+        } else {
+            log.warn("Index on LOWER(username) is not supported by {}, ignore-case lookups of users scan the table",
+                    dialect.getClass().getSimpleName());
+        }
+    }
+}
@@ -6,13 +6,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.model.User;
 import org.example.model.UserDTO;
 import org.example.repository.UserRepository;
-import org.springframework.data.domain.Example;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +29,10 @@ public class UserService {
 
     private final UserRepository userRepository;
 
+    // Max number of values in one "IN" list of a batch lookup
+    @Value("${user-service.batch-get.chunk-size:1000}")
+    private int batchGetChunkSize;
+
     public List<User> getAll() {
         log.info("Searching for all users");
         return userRepository.findAll();
@@ -34,20 +46,48 @@ public class UserService {
 
     public List<User> getByIds(Collection<Long> ids) {
         log.info("Searching for users with ids={}", ids);
-        return userRepository.findAllByIdIn(ids);
+        return findInChunks(ids, userRepository::findAllByIdIn);
     }
 
-    public User getByUsername(@NotNull String username) {
+    /**
+     * @return update timestamps of existing users by their ids (value is null for users that were never updated since the column was added)
+     */
+    public Map<Long, LocalDateTime> getVersions(Collection<Long> ids) {
+        log.info("Searching for versions of users with ids={}", ids);
+        var versions = new HashMap<Long, LocalDateTime>();
+        for (var row : findInChunks(ids, userRepository::findUpdatedAtByIdIn)) {
+            versions.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        return versions;
+    }
 
+    public User getByUsername(@NotNull String username) {
         log.info("Searching for user with username={}", username);
+        return userRepository.findByUsername(username)
+                .orElse(null);
+    }
 
-        var userExample = new User();
-        userExample.setUsername(username);
-
-        return userRepository.findOne(Example.of(userExample))
+    public User getByUsernameIgnoreCase(@NotNull String username) {
+        log.info("Searching for user with username={} ignoring case", username);
+        // The oldest user wins if several usernames differ only in case
+        return userRepository.findAllByLowerCaseUsername(username.toLowerCase(Locale.ROOT)).stream()
+                .findFirst()
                 .orElse(null);
     }
 
+    public List<User> getByUsernames(Collection<String> usernames) {
+        log.info("Searching for users with usernames={}", usernames);
+        return findInChunks(usernames, userRepository::findAllByUsernameIn);
+    }
+
+    public List<User> getByUsernamesIgnoreCase(Collection<String> usernames) {
+        log.info("Searching for users with usernames={} ignoring case", usernames);
+        var usernamesInLowerCase = usernames.stream()
+                .map(username -> username.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        return findInChunks(usernamesInLowerCase, userRepository::findAllByLowerCaseUsernameIn);
+    }
+
     public User create(@NotNull UserDTO userDTO) {
 
         log.info("Creating user '{}'", userDTO);
@@ -86,4 +126,18 @@ public class UserService {
         log.warn("Deleting user id={}", id);
         userRepository.deleteById(id);
     }
+
+    // Splits a large batch into bounded "IN" lists, so the query stays within the limits on bind parameters of the database
+    private <T, R> List<R> findInChunks(Collection<T> values, Function<Collection<T>, List<R>> finder) {
+        if (values.size() <= batchGetChunkSize) {
+            return finder.apply(values);
+        }
+        var distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        var result = new ArrayList<R>(distinctValues.size());
+        for (int from = 0; from < distinctValues.size(); from += batchGetChunkSize) {
+            var to = Math.min(from + batchGetChunkSize, distinctValues.size());
+            result.addAll(finder.apply(distinctValues.subList(from, to)));
+        }
+        return result;
+    }
 }
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
@@ -19,9 +20,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +32,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -164,6 +168,48 @@ class UserControllerTest {
         verify(userService, only()).getById(id);
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenGetByIdWithActualETag() throws Exception {
+
+        var id = 1L;
+        var updatedAt = LocalDateTime.now();
+        var eTag = ETags.of(id, updatedAt);
+
+        when(userService.getVersions(List.of(id))).thenReturn(Map.of(id, updatedAt));
+
+        mockMvc.perform(get(baseURI + "/{id}", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .with(jwt().jwt(jwt)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        verify(userService, times(1)).getVersions(List.of(id));
+        verify(userService, never()).getById(anyLong());
+    }
+
+    @Test
+    void shouldReturnUserWithETagWhenGetByIdWithOutdatedETag() throws Exception {
+
+        var id = 1L;
+        var userExpected = new User(id, "user-by-id", LocalDate.now().minusMonths(5), LocalDateTime.now());
+
+        when(userService.getVersions(List.of(id))).thenReturn(Map.of(id, userExpected.getUpdatedAt()));
+        when(userService.getById(id)).thenReturn(userExpected);
+
+        var jsonResponse = mockMvc.perform(get(baseURI + "/{id}", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, ETags.of(id, userExpected.getUpdatedAt().minusSeconds(1)))
+                        .with(jwt().jwt(jwt)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(userExpected)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(userExpected, objectMapper.readValue(jsonResponse, User.class));
+
+        verify(userService, times(1)).getById(id);
+    }
+
     @Test
     void shouldReturnListOfUsersWhenGetByIds() throws Exception {
 
@@ -219,6 +265,33 @@ class UserControllerTest {
         verify(userService, only()).getByIds(ids);
     }
 
+    @Test
+    void shouldReturnListOfUsersWhenBatchGetByIds() throws Exception {
+
+        var usersExpected = List.of(
+                new User(1L, "user-1", LocalDate.now().minusDays(3)),
+                new User(2L, "user-2", LocalDate.now().minusDays(2))
+        );
+        var ids = List.of(1L, 2L);
+
+        when(userService.getByIds(ids)).thenReturn(usersExpected);
+
+        var jsonResponse = mockMvc.perform(post(baseURI + "/batch-get")
+                        .with(jwt().jwt(jwt))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<User> users = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+        assertEquals(usersExpected, users);
+
+        verify(userService, times(1)).getByIds(ids);
+        verify(userService, only()).getByIds(ids);
+    }
+
     @Test
     void shouldReturnUserWhenGetByUsername() throws Exception {
 
@@ -256,6 +329,51 @@ class UserControllerTest {
         verify(userService, only()).getByUsername(any());
     }
 
+    @Test
+    void shouldReturnUserWhenGetByUsernameIgnoreCase() throws Exception {
+
+        var username = "UserName-Of-User";
+        var userExpected = new User(99L, "username-of-user", LocalDate.now().minusWeeks(7));
+
+        when(userService.getByUsernameIgnoreCase(username)).thenReturn(userExpected);
+
+        var jsonResponse = mockMvc.perform(get(baseURI + "/username/{username}", username)
+                        .param("ignoreCase", "true")
+                        .with(jwt().jwt(jwt)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(userExpected, objectMapper.readValue(jsonResponse, User.class));
+
+        verify(userService, only()).getByUsernameIgnoreCase(username);
+    }
+
+    @Test
+    void shouldReturnListOfUsersWhenGetByUsernames() throws Exception {
+
+        var usersExpected = List.of(
+                new User(1L, "user-1", LocalDate.now().minusDays(3)),
+                new User(2L, "user-2", LocalDate.now().minusDays(2))
+        );
+        var usernames = new LinkedHashSet<>(List.of("user-1", "user-2"));
+
+        when(userService.getByUsernames(usernames)).thenReturn(usersExpected);
+
+        var jsonResponse = mockMvc.perform(get(baseURI + "/usernames/{usernames}", "user-1,user-2")
+                        .with(jwt().jwt(jwt)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<User> users = objectMapper.readValue(jsonResponse, new TypeReference<>() {});
+        assertEquals(usersExpected, users);
+
+        verify(userService, only()).getByUsernames(usernames);
+    }
+
     @Test
     void shouldCreateAndReturnNewUserWhenCreate() throws Exception {
 
@@ -12,6 +12,7 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -131,14 +132,14 @@ class UserServiceTest {
         var username = "username-of-user";
         var userExpected = new User(99L, username, LocalDate.now().minusWeeks(7));
 
-        when(userRepository.findOne(any())).thenReturn(Optional.of(userExpected));
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(userExpected));
 
         var user = userService.getByUsername(username);
         assertNotNull(user);
         assertEquals(userExpected, user);
 
-        verify(userRepository, times(1)).findOne(any());
-        verify(userRepository, only()).findOne(any());
+        verify(userRepository, times(1)).findByUsername(username);
+        verify(userRepository, only()).findByUsername(username);
     }
 
     @Test
@@ -146,13 +147,61 @@ class UserServiceTest {
 
         var username = "username-of-user";
 
-        when(userRepository.findOne(any())).thenReturn(Optional.empty());
+        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
 
         var user = userService.getByUsername(username);
         assertNull(user);
 
-        verify(userRepository, times(1)).findOne(any());
-        verify(userRepository, only()).findOne(any());
+        verify(userRepository, times(1)).findByUsername(username);
+        verify(userRepository, only()).findByUsername(username);
+    }
+
+    @Test
+    void shouldReturnUserWhenGetByUsernameIgnoreCase() {
+
+        var username = "UserName-Of-User";
+        var userExpected = new User(99L, "username-of-user", LocalDate.now().minusWeeks(7));
+
+        when(userRepository.findAllByLowerCaseUsername("username-of-user")).thenReturn(List.of(userExpected));
+
+        var user = userService.getByUsernameIgnoreCase(username);
+        assertEquals(userExpected, user);
+
+        verify(userRepository, only()).findAllByLowerCaseUsername("username-of-user");
+    }
+
+    @Test
+    void shouldReturnUsersWhenGetByUsernames() {
+
+        var usernames = List.of("user-1", "user-2");
+        var usersExpected = List.of(
+                new User(1L, "user-1", LocalDate.now().minusDays(3)),
+                new User(2L, "user-2", LocalDate.now().minusDays(2))
+        );
+
+        when(userRepository.findAllByUsernameIn(usernames)).thenReturn(usersExpected);
+
+        var users = userService.getByUsernames(usernames);
+        assertEquals(usersExpected, users);
+
+        verify(userRepository, only()).findAllByUsernameIn(usernames);
+    }
+
+    @Test
+    void shouldSearchByLowerCaseUsernamesWhenGetByUsernamesIgnoreCase() {
+
+        var usernames = List.of("User-1", "USER-2", "user-2");
+        var usersExpected = List.of(
+                new User(1L, "user-1", LocalDate.now().minusDays(3)),
+                new User(2L, "User-2", LocalDate.now().minusDays(2))
+        );
+
+        when(userRepository.findAllByLowerCaseUsernameIn(Set.of("user-1", "user-2"))).thenReturn(usersExpected);
+
+        var users = userService.getByUsernamesIgnoreCase(usernames);
+        assertEquals(usersExpected, users);
+
+        verify(userRepository, only()).findAllByLowerCaseUsernameIn(Set.of("user-1", "user-2"));
     }
 
     @Test